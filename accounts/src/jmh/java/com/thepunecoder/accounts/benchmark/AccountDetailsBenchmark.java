@@ -0,0 +1,85 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.AccountsDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.entity.Accounts;
+import com.thepunecoder.accounts.entity.Customer;
+import com.thepunecoder.accounts.mapper.AccountsMapper;
+import com.thepunecoder.accounts.mapper.CustomerMapper;
+import com.thepunecoder.accounts.repository.AccountsRepository;
+import com.thepunecoder.accounts.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account details of a customer read with the joined projection used by fetchAccount, against the previous
+ * path that loads the customer and account entities with two queries and maps them.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AccountDetailsBenchmark {
+
+    private static final long CUSTOMER_ID_BASE = 2_000_000_000L;
+    private static final long MOBILE_BASE = 5_000_000_000L;
+
+    @Param("10000")
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private AccountsRepository accountsRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        customerRepository = context.getBean(CustomerRepository.class);
+        accountsRepository = context.getBean(AccountsRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, customers);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by)
+                SELECT customer_id, 5000000000 + customer_id, 'Savings', '123 Main Street, New York',
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM customer WHERE created_by = 'BENCHMARK'""");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto projection() {
+        return customerRepository.findAccountDetailsByMobileNumber(randomMobileNumber()).orElseThrow();
+    }
+
+    @Benchmark
+    public CustomerDto entities() {
+        Customer customer = customerRepository.findByMobileNumber(randomMobileNumber()).orElseThrow();
+        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow();
+        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        return customerDto;
+    }
+
+    private String randomMobileNumber() {
+        return String.valueOf(MOBILE_BASE + 1 + ThreadLocalRandom.current().nextInt(customers));
+    }
+}
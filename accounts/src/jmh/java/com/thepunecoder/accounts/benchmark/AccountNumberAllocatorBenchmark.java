@@ -0,0 +1,50 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.service.impl.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account numbers handed out by {@link AccountNumberAllocator} while several threads allocate at once.
+ * The thread count can be changed with {@code -t}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+public class AccountNumberAllocatorBenchmark {
+
+    private SingleConnectionDataSource dataSource;
+    private AccountNumberAllocator allocator;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:allocator;DB_CLOSE_DELAY=-1", "sa", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS account_number_seq");
+        // the range is reset for every trial so a long run does not exhaust the ten-digit numbers
+        jdbcTemplate.execute("CREATE SEQUENCE account_number_seq START WITH 2000000000 INCREMENT BY 1000 MAXVALUE 9999999000");
+        allocator = new AccountNumberAllocator(jdbcTemplate);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public long next() {
+        return allocator.next();
+    }
+}
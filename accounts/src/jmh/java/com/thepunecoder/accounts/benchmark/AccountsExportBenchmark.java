@@ -0,0 +1,84 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full NDJSON export of a seeded accounts table, written straight to a discarding stream and fetched over HTTP
+ * with gzip. Run with {@code -prof gc} to check that allocation per export does not grow with the table size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AccountsExportBenchmark {
+
+    private static final long CUSTOMER_ID_BASE = 3_000_000_000L;
+    private static final long MOBILE_BASE = 3_000_000_000L;
+
+    @Param("50000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private IAccountsService iAccountsService;
+    private HttpClient httpClient;
+    private HttpRequest gzipExport;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iAccountsService = context.getBean(IAccountsService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, rows);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by)
+                SELECT customer_id, 5000000000 + customer_id, 'Savings', '123 Main Street, New York',
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM customer WHERE created_by = 'BENCHMARK'""");
+        httpClient = HttpClient.newHttpClient();
+        gzipExport = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + BenchmarkApplication.port(context) + "/api/export"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long export() {
+        return iAccountsService.exportAccounts(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long exportOverHttpWithGzip() throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(gzipExport, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
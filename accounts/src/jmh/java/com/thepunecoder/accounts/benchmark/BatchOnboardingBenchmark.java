@@ -0,0 +1,71 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.BatchResponseDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customers onboarded per second by the batch onboarding path, against one createAccount call per customer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BatchOnboardingBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private IAccountsService iAccountsService;
+    private long nextMobileNumber = 7_000_000_000L;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iAccountsService = context.getBean(IAccountsService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void createAccount() {
+        for (CustomerDto customerDto : customers()) {
+            iAccountsService.createAccount(customerDto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BatchResponseDto createAccounts() {
+        return iAccountsService.createAccounts(customers());
+    }
+
+    private List<CustomerDto> customers() {
+        List<CustomerDto> customerDtos = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Batch Customer");
+            customerDto.setEmail("batch@example.com");
+            customerDto.setMobileNumber(String.valueOf(nextMobileNumber++));
+            customerDtos.add(customerDto);
+        }
+        return customerDtos;
+    }
+}
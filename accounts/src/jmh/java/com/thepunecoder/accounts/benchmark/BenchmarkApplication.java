@@ -0,0 +1,35 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.AccountsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the accounts application inside the benchmark JVM, on a random port and with SQL logging off, for
+ * benchmarks that go through its beans, its in-memory database or its HTTP API.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+        // restrict instantiation
+    }
+
+    /**
+     * @param properties - further properties, as name=value, that take precedence over application.yml
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(AccountsApplication.class).run(args.toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
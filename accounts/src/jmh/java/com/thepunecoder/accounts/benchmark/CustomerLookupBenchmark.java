@@ -0,0 +1,75 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.entity.Customer;
+import com.thepunecoder.accounts.repository.CustomerRepository;
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Customer lookup by mobile number, served by the unique mobile number index, and createAccount, against a
+ * seeded customer table. The table size can be raised with {@code -p customers=1000000}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CustomerLookupBenchmark {
+
+    private static final long SEED_CUSTOMER_ID_BASE = 1_000_000_000L;
+    private static final long SEED_MOBILE_BASE = 8_000_000_000L;
+
+    @Param("10000")
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private IAccountsService iAccountsService;
+    private final AtomicLong nextMobileNumber = new AtomicLong(9_000_000_000L);
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        customerRepository = context.getBean(CustomerRepository.class);
+        iAccountsService = context.getBean(IAccountsService.class);
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", SEED_CUSTOMER_ID_BASE, SEED_MOBILE_BASE, customers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Customer> findByMobileNumber() {
+        long mobileNumber = SEED_MOBILE_BASE + 1 + ThreadLocalRandom.current().nextInt(customers);
+        return customerRepository.findByMobileNumber(String.valueOf(mobileNumber));
+    }
+
+    @Benchmark
+    public void createAccount() {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Benchmark Customer");
+        customerDto.setEmail("benchmark@example.com");
+        customerDto.setMobileNumber(String.valueOf(nextMobileNumber.getAndIncrement()));
+        iAccountsService.createAccount(customerDto);
+    }
+}
@@ -0,0 +1,106 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.CustomerPageDto;
+import com.thepunecoder.accounts.service.ICustomersService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fetchCustomers for the first page and for a page near the end of a seeded customer table, and the same deep page
+ * in plain SQL by keyset and by OFFSET. Keyset pages should cost the same at any depth.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CustomerPagingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    // keeps consecutive calls on different rows: H2 reuses the last result of an identical query
+    private static final int STARTS = 1_000;
+    private static final long CUSTOMER_ID_BASE = 4_000_000_000L;
+    private static final long MOBILE_BASE = 2_000_000_000L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final String PAGE_QUERY = "SELECT customer_id, name, email, mobile_number, created_at FROM customer "
+            + "WHERE created_at >= DATE '2020-01-01' AND created_at < DATE '9999-12-31' ";
+
+    @Param("100000")
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+    private ICustomersService iCustomersService;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDate lastDay;
+    private long deepCustomerId;
+    private long deepOffset;
+    private int call;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iCustomersService = context.getBean(ICustomersService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       DATEADD('DAY', (X - 1) / 100, DATE '2020-01-01'), 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, customers);
+        lastDay = FIRST_DAY.plusDays(customers / 100 - 1);
+        deepCustomerId = CUSTOMER_ID_BASE + customers - PAGE_SIZE - STARTS;
+        deepOffset = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE customer_id <= ?", Long.class, deepCustomerId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerPageDto firstPage() {
+        return iCustomersService.fetchCustomers(cursorAfter(CUSTOMER_ID_BASE + nextStart()), FIRST_DAY, lastDay, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CustomerPageDto deepPage() {
+        return iCustomersService.fetchCustomers(cursorAfter(deepCustomerId + nextStart()), FIRST_DAY, lastDay, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> deepPageByKeyset() {
+        return jdbcTemplate.queryForList(PAGE_QUERY + "AND customer_id > ? ORDER BY customer_id FETCH FIRST "
+                + PAGE_SIZE + " ROWS ONLY", deepCustomerId + nextStart());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> deepPageByOffset() {
+        return jdbcTemplate.queryForList(PAGE_QUERY + "ORDER BY customer_id OFFSET ? ROWS FETCH NEXT "
+                + PAGE_SIZE + " ROWS ONLY", deepOffset + nextStart());
+    }
+
+    private int nextStart() {
+        call = (call + 1) % STARTS;
+        return call;
+    }
+
+    private static String cursorAfter(long customerId) {
+        // same encoding as the service; clients only ever pass back a nextCursor they were given
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(customerId).getBytes(StandardCharsets.US_ASCII));
+    }
+}
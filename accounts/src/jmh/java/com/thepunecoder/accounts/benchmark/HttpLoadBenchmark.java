@@ -0,0 +1,77 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code GET /api/customers}, which reads the database on every request, over HTTP with many concurrent clients, on Tomcat's platform thread pool and on
+ * virtual threads. The virtual thread mode only takes effect on a Java 21+ runtime. The number of clients can
+ * be changed with {@code -t}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(256)
+public class HttpLoadBenchmark {
+
+    private static final int CUSTOMERS = 100;
+    private static final long MOBILE_BASE = 1_000_000_000L;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.threads.virtual.enabled=" + virtualThreads);
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Load Test " + i);
+            customerDto.setEmail("load" + i + "@example.com");
+            customerDto.setMobileNumber(String.valueOf(MOBILE_BASE + i));
+            customerDtos.add(customerDto);
+        }
+        context.getBean(IAccountsService.class).createAccounts(customerDtos);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkApplication.port(context)
+                + "/api/customers?size=" + CUSTOMERS)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int get() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
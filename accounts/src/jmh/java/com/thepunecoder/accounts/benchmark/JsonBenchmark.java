@@ -0,0 +1,78 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thepunecoder.accounts.dto.AccountsDto;
+import com.thepunecoder.accounts.dto.CardsDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.dto.LoansDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the accounts response body and of the cards and loans responses read by
+ * fetchCustomerDetails. The mapper is built the way Spring Boot builds its default one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CustomerDto customerDto;
+    private byte[] customerJson;
+    private byte[] cardsJson;
+    private byte[] loansJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(2000000001L);
+        accountsDto.setAccountType("Savings");
+        accountsDto.setBranchAddress("123 Main Street, New York");
+        customerDto = new CustomerDto();
+        customerDto.setName("Devarsh W");
+        customerDto.setEmail("devarsh@thepunecoder.com");
+        customerDto.setMobileNumber("4354437687");
+        customerDto.setAccountsDto(accountsDto);
+
+        customerJson = objectMapper.writeValueAsBytes(customerDto);
+        cardsJson = """
+                {"mobileNumber":"4354437687","cardNumber":"100646930341","cardType":"Credit Card",
+                 "totalLimit":100000,"amountUsed":1000,"availableAmount":99000}""".getBytes(StandardCharsets.UTF_8);
+        loansJson = """
+                {"mobileNumber":"4354437687","loanNumber":"548732457654","loanType":"Home Loan",
+                 "totalLoan":100000,"amountPaid":1000,"outstandingAmount":99000}""".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerDto() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto deserializeCustomerDto() throws IOException {
+        return objectMapper.readValue(customerJson, CustomerDto.class);
+    }
+
+    @Benchmark
+    public CardsDto deserializeCardsDto() throws IOException {
+        return objectMapper.readValue(cardsJson, CardsDto.class);
+    }
+
+    @Benchmark
+    public LoansDto deserializeLoansDto() throws IOException {
+        return objectMapper.readValue(loansJson, LoansDto.class);
+    }
+}
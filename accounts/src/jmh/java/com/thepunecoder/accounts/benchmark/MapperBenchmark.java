@@ -0,0 +1,76 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.AccountsDto;
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.entity.Accounts;
+import com.thepunecoder.accounts.entity.Customer;
+import com.thepunecoder.accounts.mapper.AccountsMapper;
+import com.thepunecoder.accounts.mapper.CustomerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity/DTO mappings done on every accounts request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Customer customer;
+    private CustomerDto customerDto;
+    private Accounts accounts;
+    private AccountsDto accountsDto;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Devarsh W");
+        customer.setEmail("devarsh@thepunecoder.com");
+        customer.setMobileNumber("4354437687");
+
+        accounts = new Accounts();
+        accounts.setCustomerId(1L);
+        accounts.setAccountNumber(2000000001L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("123 Main Street, New York");
+
+        accountsDto = AccountsMapper.mapToAccountsDto(accounts, new AccountsDto());
+        customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountsDto(accountsDto);
+    }
+
+    @Benchmark
+    public CustomerDto customerToDto() {
+        return CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+    }
+
+    @Benchmark
+    public Customer dtoToCustomer() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public CustomerDetailsDto dtoToCustomerDetails() {
+        return CustomerMapper.mapToCustomerDetailsDto(customerDto, new CustomerDetailsDto());
+    }
+
+    @Benchmark
+    public AccountsDto accountsToDto() {
+        return AccountsMapper.mapToAccountsDto(accounts, new AccountsDto());
+    }
+
+    @Benchmark
+    public Accounts dtoToAccounts() {
+        return AccountsMapper.mapToAccounts(accountsDto, new Accounts());
+    }
+}
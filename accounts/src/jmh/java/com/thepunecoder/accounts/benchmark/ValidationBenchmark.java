@@ -0,0 +1,64 @@
+package com.thepunecoder.accounts.benchmark;
+
+import com.thepunecoder.accounts.dto.CustomerDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of CustomerDto as done for @Valid request bodies, for a valid body and for one
+ * failing the mobile number @Pattern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CustomerDto validCustomerDto;
+    private CustomerDto invalidCustomerDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validCustomerDto = customerDto("4354437687");
+        invalidCustomerDto = customerDto("43544-37687");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> validCustomerDto() {
+        return validator.validate(validCustomerDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> invalidMobileNumber() {
+        return validator.validate(invalidCustomerDto);
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Devarsh W");
+        customerDto.setEmail("devarsh@thepunecoder.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
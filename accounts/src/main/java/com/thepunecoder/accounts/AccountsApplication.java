@@ -1,14 +1,19 @@
 package com.thepunecoder.accounts;
 
 import com.thepunecoder.accounts.dto.AccountsContactInfoDto;
+import com.thepunecoder.accounts.dto.DownstreamServicesDto;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value={AccountsContactInfoDto.class})
+@EnableAsync
+@EnableCaching
+@EnableConfigurationProperties(value={AccountsContactInfoDto.class, DownstreamServicesDto.class})
 public class AccountsApplication {
 
 	public static void main(String[] args) {
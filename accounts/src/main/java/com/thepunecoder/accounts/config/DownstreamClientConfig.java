@@ -0,0 +1,62 @@
+package com.thepunecoder.accounts.config;
+
+import com.thepunecoder.accounts.dto.DownstreamServicesDto;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+
+/**
+ * HTTP clients for the cards and loans microservices and the executor used to call them in parallel.
+ */
+@Configuration
+public class DownstreamClientConfig {
+
+    @Bean
+    public RestClient cardsRestClient(RestClient.Builder builder, DownstreamServicesDto downstreamServicesDto) {
+        return restClient(builder, downstreamServicesDto.cards());
+    }
+
+    @Bean
+    public RestClient loansRestClient(RestClient.Builder builder, DownstreamServicesDto downstreamServicesDto) {
+        return restClient(builder, downstreamServicesDto.loans());
+    }
+
+    /**
+     * Each downstream call blocks its thread for the whole round trip, so when virtual threads are enabled
+     * every call gets its own virtual thread. Otherwise calls run on a bounded platform thread pool.
+     */
+    @Bean
+    public AsyncTaskExecutor downstreamExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("downstream-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("downstream-");
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(64);
+        executor.setQueueCapacity(1000);
+        return executor;
+    }
+
+    private static RestClient restClient(RestClient.Builder builder, DownstreamServicesDto.Downstream downstream) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(downstream.timeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(downstream.timeout());
+        return builder.clone()
+                .baseUrl(downstream.baseUrl())
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
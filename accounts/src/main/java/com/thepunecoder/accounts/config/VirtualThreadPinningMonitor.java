@@ -0,0 +1,87 @@
+package com.thepunecoder.accounts.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, which holds the carrier
+ * for the whole wait. On Java 21 this happens when blocking inside {@code synchronized} code, as the
+ * H2 driver does around every JDBC call. Listens to the JFR {@value #PINNED_EVENT} event; pins longer
+ * than {@code PINNED_THRESHOLD} are logged with their stack and counted in {@code jvm.threads.virtual.pinned}.
+ *
+ * Only created when virtual threads are enabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final int MAX_LOGGED_FRAMES = 32;
+
+    private final Counter pinnedCounter;
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier for more than "
+                        + PINNED_THRESHOLD.toMillis() + " ms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        recordingStream = stream;
+    }
+
+    @Override
+    public void stop() {
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Virtual thread {} was pinned for {} ms{}", event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), stackTrace(event.getStackTrace()));
+    }
+
+    private static String stackTrace(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder frames = new StringBuilder();
+        int count = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (count++ == MAX_LOGGED_FRAMES) {
+                frames.append(System.lineSeparator()).append("\t...");
+                break;
+            }
+            frames.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return frames.toString();
+    }
+}
@@ -10,6 +10,14 @@ public class AccountsConstants {
     public static final String  ADDRESS = "123 Main Street, New York";
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Account created successfully";
+    public static final int  BATCH_CHUNK_SIZE = 500;
+    public static final int  MAX_BATCH_SIZE = 50_000;
+    public static final String  ACCOUNT_DETAILS_CACHE = "accountDetails";
+    public static final String  ACCOUNT_NUMBER_SEQUENCE = "account_number_seq";
+    public static final int  ACCOUNT_NUMBER_BLOCK_SIZE = 1000;
+    public static final int  EXPORT_FETCH_SIZE = 1000;
+    public static final String  CUSTOMER_PAGE_DEFAULT_SIZE = "50";
+    public static final int  CUSTOMER_PAGE_MAX_SIZE = 500;
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
     public static final String  STATUS_417 = "417";
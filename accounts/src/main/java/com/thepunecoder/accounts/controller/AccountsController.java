@@ -2,6 +2,7 @@ package com.thepunecoder.accounts.controller;
 
 import com.thepunecoder.accounts.constants.AccountsConstants;
 import com.thepunecoder.accounts.dto.AccountsContactInfoDto;
+import com.thepunecoder.accounts.dto.BatchResponseDto;
 import com.thepunecoder.accounts.dto.CustomerDto;
 import com.thepunecoder.accounts.dto.ErrorResponseDto;
 import com.thepunecoder.accounts.dto.ResponseDto;
@@ -14,15 +15,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * AccountsController is a REST controller that handles HTTP requests related to customer accounts.
@@ -79,6 +87,79 @@ public class AccountsController {
                 .body(new ResponseDto(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
     }
 
+    @Operation(
+            summary = "Create Accounts in Batch REST API",
+            description = "REST API to create many Customers & Accounts in one request using JDBC batch inserts"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED"
+            ),
+            @ApiResponse(
+                    responseCode = "207",
+                    description = "Some rows could not be created, see failures"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/create/batch")
+    public ResponseEntity<BatchResponseDto> createAccounts(@RequestBody
+                                                           @Size(max = AccountsConstants.MAX_BATCH_SIZE, message = "A batch can contain at most {max} customers")
+                                                           List<CustomerDto> customerDtos) {
+        BatchResponseDto batchResponseDto = iAccountsService.createAccounts(customerDtos);
+        return ResponseEntity
+                .status(batchResponseDto.getFailures().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(batchResponseDto);
+    }
+
+    @Operation(
+            summary = "Export Accounts REST API",
+            description = "REST API to export every Customer & Account as newline-delimited JSON. "
+                    + "Rows are streamed as they are read; send Accept-Encoding: gzip for a compressed response"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                                String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody responseBody = outputStream -> {
+            if (gzip) {
+                // sync flush so every flush of the export reaches the client instead of waiting in the deflater
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192, true);
+                iAccountsService.exportAccounts(gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                iAccountsService.exportAccounts(outputStream);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(responseBody);
+    }
+
     @Operation(
             summary = "Test REST API",
             description = "This is to test spring boot app if it is working"
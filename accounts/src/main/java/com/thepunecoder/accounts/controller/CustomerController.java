@@ -0,0 +1,114 @@
+package com.thepunecoder.accounts.controller;
+
+import com.thepunecoder.accounts.constants.AccountsConstants;
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
+import com.thepunecoder.accounts.dto.CustomerPageDto;
+import com.thepunecoder.accounts.dto.ErrorResponseDto;
+import com.thepunecoder.accounts.service.ICustomersService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * CustomerController exposes customer level views that combine accounts with the cards and loans microservices.
+ */
+
+@Tag(
+        name = "REST APIs for Customers",
+        description = "REST APIs to LIST customers and FETCH customer details across accounts, cards and loans"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@Validated
+public class CustomerController {
+
+    private final ICustomersService iCustomersService;
+
+    public CustomerController(ICustomersService iCustomersService) {
+        this.iCustomersService = iCustomersService;
+    }
+
+    @Operation(
+            summary = "Fetch Customer Details REST API",
+            description = "REST API to fetch Customer, Account, Card and Loan details based on a mobile number. "
+                    + "Cards and loans are fetched in parallel; a slow or failing service is listed in unavailableServices"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/fetchCustomerDetails")
+    public ResponseEntity<CustomerDetailsDto> fetchCustomerDetails(@RequestParam
+                                                                   @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digit")
+                                                                   String mobileNumber) {
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(mobileNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(customerDetailsDto);
+    }
+
+    @Operation(
+            summary = "List Customers REST API",
+            description = "REST API to list customers in customer id order, optionally filtered by creation date. "
+                    + "Pass the nextCursor of a page as cursor to get the following page; it is null on the last page"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/customers")
+    public ResponseEntity<CustomerPageDto> fetchCustomers(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdFrom,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdTo,
+                                                          @RequestParam(defaultValue = AccountsConstants.CUSTOMER_PAGE_DEFAULT_SIZE)
+                                                          @Min(value = 1, message = "Page size must be at least {value}")
+                                                          @Max(value = AccountsConstants.CUSTOMER_PAGE_MAX_SIZE, message = "Page size must be at most {value}")
+                                                          int size) {
+        CustomerPageDto customerPageDto = iCustomersService.fetchCustomers(cursor, createdFrom, createdTo, size);
+        return ResponseEntity.status(HttpStatus.OK).body(customerPageDto);
+    }
+}
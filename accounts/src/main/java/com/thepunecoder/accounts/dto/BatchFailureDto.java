@@ -0,0 +1,13 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchFailureDto {
+
+    private int index;
+    private String mobileNumber;
+    private String reason;
+}
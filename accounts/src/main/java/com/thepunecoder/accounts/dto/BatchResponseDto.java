@@ -0,0 +1,15 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchResponseDto {
+
+    private int totalCount;
+    private int createdCount;
+    private List<BatchFailureDto> failures;
+}
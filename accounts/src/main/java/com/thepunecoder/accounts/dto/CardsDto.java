@@ -0,0 +1,19 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.Data;
+
+@Data
+public class CardsDto {
+
+    private String mobileNumber;
+
+    private String cardNumber;
+
+    private String cardType;
+
+    private int totalLimit;
+
+    private int amountUsed;
+
+    private int availableAmount;
+}
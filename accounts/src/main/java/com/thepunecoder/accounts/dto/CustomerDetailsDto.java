@@ -0,0 +1,28 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class CustomerDetailsDto {
+
+    private String name;
+
+    private String email;
+
+    private String mobileNumber;
+
+    private AccountsDto accountsDto;
+
+    private CardsDto cardsDto;
+
+    private LoansDto loansDto;
+
+    /**
+     * Downstream services that did not answer in time or failed, with the reason.
+     * The matching section of the response is left empty.
+     */
+    private Map<String, String> unavailableServices = new LinkedHashMap<>();
+}
@@ -5,8 +5,10 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class CustomerDto {
 
     @NotEmpty(message = "Name cannot be null or empty")
@@ -21,4 +23,19 @@ public class CustomerDto {
     private String mobileNumber;
 
     private AccountsDto accountsDto;
+
+    /**
+     * Projection constructor used by {@code CustomerRepository#findAccountDetailsByMobileNumber},
+     * so the joined row is read straight into the DTO without building managed entities.
+     */
+    public CustomerDto(String name, String email, String mobileNumber,
+                       Long accountNumber, String accountType, String branchAddress) {
+        this.name = name;
+        this.email = email;
+        this.mobileNumber = mobileNumber;
+        this.accountsDto = new AccountsDto();
+        this.accountsDto.setAccountNumber(accountNumber);
+        this.accountsDto.setAccountType(accountType);
+        this.accountsDto.setBranchAddress(branchAddress);
+    }
 }
@@ -0,0 +1,18 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CustomerPageDto {
+
+    private List<CustomerSummaryDto> customers;
+
+    /**
+     * Opaque token to pass as {@code cursor} for the next page, or null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.thepunecoder.accounts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the customer listing, projected straight from the customer table.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryDto {
+
+    private Long customerId;
+
+    private String name;
+
+    private String email;
+
+    private String mobileNumber;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.thepunecoder.accounts.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "downstream")
+public record DownstreamServicesDto(Downstream cards, Downstream loans) {
+
+    /**
+     * @param baseUrl - base url of the downstream microservice
+     * @param timeout - upper bound for a single call, after which the response is returned without it
+     */
+    public record Downstream(String baseUrl, Duration timeout) {
+    }
+}
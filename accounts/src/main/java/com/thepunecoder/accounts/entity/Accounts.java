@@ -3,11 +3,20 @@ package com.thepunecoder.accounts.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
+@Table(name = "accounts", indexes = {
+        @Index(name = "ix_accounts_customer_id", columnList = "customer_id")
+})
 @Getter@Setter@ToString@AllArgsConstructor@NoArgsConstructor
-public class Accounts extends BaseEntity{
+public class Accounts extends BaseEntity implements Persistable<Long> {
 
     @Column(name = "customer_id")
     private Long customerId;
@@ -21,6 +30,31 @@ public class Accounts extends BaseEntity{
 
     @Column(name = "branch_address")
     private String branchAddress;
+
+    /**
+     * The account number is assigned by the application, so Spring Data cannot tell a new account
+     * from its id. Tracking it explicitly lets save() persist directly instead of issuing a select
+     * and a merge, which also keeps the inserts batchable.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @ToString.Exclude
+    private boolean newAccount = true;
+
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newAccount;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newAccount = false;
+    }
 }
 
 /*
@@ -2,15 +2,28 @@ package com.thepunecoder.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 
 @Entity
+@Table(name = "customer", indexes = {
+        @Index(name = Customer.MOBILE_NUMBER_INDEX, columnList = "mobile_number", unique = true),
+        @Index(name = "ix_customer_created_at", columnList = "created_at, customer_id")
+})
 @Getter@Setter@ToString@AllArgsConstructor@NoArgsConstructor
 public class Customer extends BaseEntity{
 
+    /**
+     * Name of the unique index backing mobile number lookups. Duplicate customers are detected
+     * from violations of this index rather than from a pre-insert query.
+     */
+    public static final String MOBILE_NUMBER_INDEX = "ux_customer_mobile_number";
+
+    /**
+     * Pooled sequence ids are assigned without an insert round trip, which keeps Hibernate's JDBC
+     * insert batching enabled. Identity (what the native generator resolves to on H2) turns it off.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO,generator = "native")
-    @GenericGenerator(name ="native",strategy = "native")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @Column(name = "customer_id")
     private Long customerId;
 
@@ -0,0 +1,12 @@
+package com.thepunecoder.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Cursor '%s' is not a valid page token", cursor));
+    }
+}
@@ -1,5 +1,6 @@
 package com.thepunecoder.accounts.mapper;
 
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
 import com.thepunecoder.accounts.dto.CustomerDto;
 import com.thepunecoder.accounts.entity.Customer;
 
@@ -12,6 +13,14 @@ public class CustomerMapper {
         return customerDto;
     }
 
+    public static CustomerDetailsDto mapToCustomerDetailsDto(CustomerDto customerDto, CustomerDetailsDto customerDetailsDto) {
+        customerDetailsDto.setName(customerDto.getName());
+        customerDetailsDto.setEmail(customerDto.getEmail());
+        customerDetailsDto.setMobileNumber(customerDto.getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerDto.getAccountsDto());
+        return customerDetailsDto;
+    }
+
     public static Customer mapToCustomer(CustomerDto customerDto, Customer customer) {
         customer.setName(customerDto.getName());
         customer.setEmail(customerDto.getEmail());
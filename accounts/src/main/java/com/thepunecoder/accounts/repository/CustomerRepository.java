@@ -1,13 +1,52 @@
 package com.thepunecoder.accounts.repository;
 
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.dto.CustomerSummaryDto;
 import com.thepunecoder.accounts.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByMobileNumber(String mobileNumber);
+
+    @Query("""
+            select new com.thepunecoder.accounts.dto.CustomerDto(
+                c.name, c.email, c.mobileNumber, a.accountNumber, a.accountType, a.branchAddress)
+            from Customer c join Accounts a on a.customerId = c.customerId
+            where c.mobileNumber = :mobileNumber""")
+    Optional<CustomerDto> findAccountDetailsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("select c.mobileNumber from Customer c where c.mobileNumber in :mobileNumbers")
+    List<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Keyset page of customers: seeks past {@code afterCustomerId} on the primary key instead of skipping
+     * an offset, so every page costs the same however deep it is.
+     *
+     * @param afterCustomerId - last customer id of the previous page, 0 for the first page
+     * @param createdFrom - inclusive lower bound on created_at
+     * @param createdBefore - exclusive upper bound on created_at
+     * @param limit - maximum number of rows
+     */
+    @Query("""
+            select new com.thepunecoder.accounts.dto.CustomerSummaryDto(
+                c.customerId, c.name, c.email, c.mobileNumber, c.createdAt)
+            from Customer c
+            where c.customerId > :afterCustomerId
+              and c.createdAt >= :createdFrom and c.createdAt < :createdBefore
+            order by c.customerId""")
+    List<CustomerSummaryDto> findCustomerPage(@Param("afterCustomerId") long afterCustomerId,
+                                              @Param("createdFrom") LocalDateTime createdFrom,
+                                              @Param("createdBefore") LocalDateTime createdBefore,
+                                              Limit limit);
 }
@@ -1,13 +1,35 @@
 package com.thepunecoder.accounts.service;
 
+import com.thepunecoder.accounts.dto.BatchResponseDto;
 import com.thepunecoder.accounts.dto.CustomerDto;
 
+import java.io.OutputStream;
+import java.util.List;
+
 public interface IAccountsService {
 
     void createAccount(CustomerDto customerDto);
 
+    /**
+     * Create customers and their accounts in bulk using JDBC batch inserts.
+     * Rows that are invalid or already exist are skipped and reported instead of failing the whole batch.
+     *
+     * @param customerDtos - customers to onboard
+     * @return the number of created rows and the failed rows with their reasons
+     */
+    BatchResponseDto createAccounts(List<CustomerDto> customerDtos);
+
     CustomerDto fetchAccount(String mobileNumber);
 
+    /**
+     * Write every customer joined with its account to the stream as newline-delimited JSON.
+     * Rows are read with a forward-only cursor and written as they arrive, so memory use does not grow with the table.
+     *
+     * @param outputStream - destination of the export, left open
+     * @return the number of exported rows
+     */
+    long exportAccounts(OutputStream outputStream);
+
     /**
      * Update existing customer account details.
      *
@@ -0,0 +1,29 @@
+package com.thepunecoder.accounts.service;
+
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
+import com.thepunecoder.accounts.dto.CustomerPageDto;
+
+import java.time.LocalDate;
+
+public interface ICustomersService {
+
+    /**
+     * Fetch account, card and loan details of a customer. Cards and loans are called in parallel,
+     * and a downstream that fails or exceeds its timeout is reported instead of failing the request.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer details based on a given mobileNumber
+     */
+    CustomerDetailsDto fetchCustomerDetails(String mobileNumber);
+
+    /**
+     * List customers in customer id order, one page at a time.
+     *
+     * @param cursor - nextCursor of the previous page, or null for the first page
+     * @param createdFrom - only customers created on or after this day, optional
+     * @param createdTo - only customers created on or before this day, optional
+     * @param size - maximum number of customers on the page
+     * @return the page and the cursor of the next one
+     */
+    CustomerPageDto fetchCustomers(String cursor, LocalDate createdFrom, LocalDate createdTo, int size);
+}
@@ -0,0 +1,72 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.constants.AccountsConstants;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers from blocks leased from the {@value AccountsConstants#ACCOUNT_NUMBER_SEQUENCE}
+ * sequence. Every sequence value owns the next {@value AccountsConstants#ACCOUNT_NUMBER_BLOCK_SIZE}
+ * numbers, so a number is never handed out twice, across threads, instances or restarts. Numbers left
+ * in a block when the application stops are skipped, not reused.
+ *
+ * Request threads take numbers with a single atomic increment; only the thread that finds the block
+ * exhausted goes to the database for the next one.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    public AccountNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return an account number that has not been handed out before
+     */
+    public long next() {
+        while (true) {
+            Block current = block;
+            long accountNumber = current.next.getAndIncrement();
+            if (accountNumber < current.end) {
+                return accountNumber;
+            }
+            leaseAfter(current);
+        }
+    }
+
+    /**
+     * Leases a new block unless another thread already replaced the exhausted one.
+     *
+     * @param exhausted - the block the caller found empty
+     */
+    private void leaseAfter(Block exhausted) {
+        leaseLock.lock();
+        try {
+            if (block == exhausted) {
+                Long start = jdbcTemplate.queryForObject(
+                        "SELECT NEXT VALUE FOR " + AccountsConstants.ACCOUNT_NUMBER_SEQUENCE, Long.class);
+                block = new Block(start, start + AccountsConstants.ACCOUNT_NUMBER_BLOCK_SIZE);
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,47 +1,217 @@
 package com.thepunecoder.accounts.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thepunecoder.accounts.constants.AccountsConstants;
 import com.thepunecoder.accounts.dto.AccountsDto;
+import com.thepunecoder.accounts.dto.BatchFailureDto;
+import com.thepunecoder.accounts.dto.BatchResponseDto;
 import com.thepunecoder.accounts.dto.CustomerDto;
 import com.thepunecoder.accounts.entity.Accounts;
 import com.thepunecoder.accounts.entity.Customer;
+import com.thepunecoder.accounts.exception.CustomerAlreadyExistException;
 import com.thepunecoder.accounts.exception.ResourceNotFoundException;
 import com.thepunecoder.accounts.mapper.AccountsMapper;
 import com.thepunecoder.accounts.mapper.CustomerMapper;
 import com.thepunecoder.accounts.repository.AccountsRepository;
 import com.thepunecoder.accounts.repository.CustomerRepository;
 import com.thepunecoder.accounts.service.IAccountsService;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @AllArgsConstructor
 public class AccountsServiceImpl implements IAccountsService {
 
+    private static final String EXPORT_QUERY = """
+            SELECT c.customer_id, c.name, c.email, c.mobile_number, c.created_at,
+                   a.account_number, a.account_type, a.branch_address
+            FROM customer c JOIN accounts a ON a.customer_id = c.customer_id
+            ORDER BY c.customer_id""";
+
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private Validator validator;
+    private CacheManager cacheManager;
+    private AccountNumberAllocator accountNumberAllocator;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
 
     /**
-     *                  
-     * @param customerDto
+     * Creates the customer and its account in a single transaction. Duplicate mobile numbers are
+     * rejected by the unique index on {@code customer.mobile_number}, so no lookup is issued before
+     * the insert and concurrent creates for the same number cannot both succeed.
      *
-     * */
+     * @param customerDto - CustomerDto Object
+     */
     @Override
-    public void createAccount(com.thepunecoder.accounts.dto.CustomerDto customerDto) {
+    @Transactional
+    public void createAccount(CustomerDto customerDto) {
         Customer customer = CustomerMapper.mapToCustomer(customerDto,new Customer());
-        Optional<Customer> customerOptional = customerRepository.findByMobileNumber(String.valueOf(customerDto.getMobileNumber()));
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException exception) {
+            if (isMobileNumberConflict(exception)) {
+                throw new CustomerAlreadyExistException("Customer with mobile number "+customerDto.getMobileNumber()+" already exists");
+            }
+            throw exception;
+        }
+        accountsRepository.save(createNewAccount(savedCustomer));
+    }
 
-        if(customerOptional.isPresent()){
-            throw new com.thepunecoder.accounts.exception.CustomerAlreadyExistException("Customer with mobile number "+customerDto.getMobileNumber()+" already exists");
+    /**
+     * Splits the input into chunks of {@link AccountsConstants#BATCH_CHUNK_SIZE}. Each chunk is
+     * validated, checked for existing mobile numbers with a single IN query, and then inserted in
+     * its own transaction so that Hibernate sends the customer and account rows as JDBC batches.
+     *
+     * @param customerDtos - customers to onboard
+     * @return the number of created rows and the failed rows with their reasons
+     */
+    @Override
+    public BatchResponseDto createAccounts(List<CustomerDto> customerDtos) {
+        List<BatchFailureDto> failures = new ArrayList<>();
+        int createdCount = 0;
+        for (int from = 0; from < customerDtos.size(); from += AccountsConstants.BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + AccountsConstants.BATCH_CHUNK_SIZE, customerDtos.size());
+            createdCount += createChunk(customerDtos, from, to, failures);
         }
+        failures.sort(Comparator.comparingInt(BatchFailureDto::getIndex));
+        return new BatchResponseDto(customerDtos.size(), createdCount, failures);
+    }
 
-        Customer savedCustomer = customerRepository.save(customer);
-        accountsRepository.save(createNewAccount(savedCustomer));
+    /**
+     * @param customerDtos - the whole batch
+     * @param from - first index of the chunk, inclusive
+     * @param to - last index of the chunk, exclusive
+     * @param failures - collects the rows that could not be created
+     * @return the number of rows created from this chunk
+     */
+    private int createChunk(List<CustomerDto> customerDtos, int from, int to, List<BatchFailureDto> failures) {
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int index = from; index < to; index++) {
+            CustomerDto customerDto = customerDtos.get(index);
+            String violation = validate(customerDto);
+            if (violation != null) {
+                failures.add(new BatchFailureDto(index, customerDto == null ? null : customerDto.getMobileNumber(), violation));
+            } else if (candidates.putIfAbsent(customerDto.getMobileNumber(), index) != null) {
+                failures.add(new BatchFailureDto(index, customerDto.getMobileNumber(),
+                        "Mobile number "+customerDto.getMobileNumber()+" appears more than once in the batch"));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        for (String mobileNumber : customerRepository.findExistingMobileNumbers(candidates.keySet())) {
+            failures.add(new BatchFailureDto(candidates.remove(mobileNumber), mobileNumber,
+                    "Customer with mobile number "+mobileNumber+" already exists"));
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Customer> customers = new ArrayList<>(candidates.size());
+                for (int index : candidates.values()) {
+                    customers.add(CustomerMapper.mapToCustomer(customerDtos.get(index), new Customer()));
+                }
+                customerRepository.saveAll(customers);
+                List<Accounts> accounts = new ArrayList<>(customers.size());
+                for (Customer customer : customers) {
+                    accounts.add(createNewAccount(customer));
+                }
+                accountsRepository.saveAll(accounts);
+                entityManager.flush();
+            });
+            return candidates.size();
+        } catch (RuntimeException exception) {
+            // A concurrent insert of one of the mobile numbers failed the batch; retry row by row to isolate it.
+            return createIndividually(customerDtos, candidates.values(), failures);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private int createIndividually(List<CustomerDto> customerDtos, Collection<Integer> indexes, List<BatchFailureDto> failures) {
+        int createdCount = 0;
+        for (int index : indexes) {
+            CustomerDto customerDto = customerDtos.get(index);
+            try {
+                transactionTemplate.executeWithoutResult(status -> createAccount(customerDto));
+                createdCount++;
+            } catch (RuntimeException exception) {
+                failures.add(new BatchFailureDto(index, customerDto.getMobileNumber(), exception.getMessage()));
+            } finally {
+                entityManager.clear();
+            }
+        }
+        return createdCount;
+    }
+
+    /**
+     * @param customerDto - a single row of the batch
+     * @return the first constraint violation of the row, or null if it is valid
+     */
+    private String validate(CustomerDto customerDto) {
+        if (customerDto == null) {
+            return "Customer details cannot be null";
+        }
+        if (customerDto.getMobileNumber() == null || customerDto.getMobileNumber().isEmpty()) {
+            return "Mobile number cannot be null or empty";
+        }
+        for (ConstraintViolation<CustomerDto> violation : validator.validate(customerDto)) {
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * @param exception - integrity violation raised while inserting a customer
+     * @return true if the violated constraint is the unique mobile number index
+     */
+    private boolean isMobileNumberConflict(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation) {
+                String constraintName = constraintViolation.getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(Customer.MOBILE_NUMBER_INDEX);
+            }
+        }
+        return false;
     }
 
     /**
@@ -51,28 +221,83 @@ public class AccountsServiceImpl implements IAccountsService {
     private Accounts createNewAccount(Customer customer) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumberAllocator.next());
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
         
         return newAccount;
     }
 
+    /**
+     * Results are cached per mobile number in the {@value AccountsConstants#ACCOUNT_DETAILS_CACHE} cache,
+     * bounded by the caffeine spec of the active profile. Concurrent misses for the same number load once.
+     * A miss is a single joined query projected straight into the DTO.
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Customer and Account details based on a given mobileNumber
+     */
     @Override
+    @Cacheable(cacheNames = AccountsConstants.ACCOUNT_DETAILS_CACHE, key = "#mobileNumber", sync = true)
     public CustomerDto fetchAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        return customerRepository.findAccountDetailsByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer","mobileNumber",mobileNumber)
         );
+    }
 
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Accounts","customerId", String.valueOf(customer.getCustomerId())));
-
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountsDto( AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+    /**
+     * Reads the join through plain JDBC instead of entities, so nothing is kept in a persistence context.
+     * The statement is forward-only with a fetch size of {@value AccountsConstants#EXPORT_FETCH_SIZE};
+     * it runs inside a transaction because drivers such as PostgreSQL only honour the fetch size with
+     * auto-commit off. Each row is written as soon as it is read and the output is flushed after every fetch.
+     *
+     * @param outputStream - destination of the export, left open
+     * @return the number of exported rows
+     */
+    @Override
+    public long exportAccounts(OutputStream outputStream) {
+        PreparedStatementCreator exportStatement = connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(
+                    EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(AccountsConstants.EXPORT_FETCH_SIZE);
+            return preparedStatement;
+        };
+        return transactionTemplate.execute(status -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                long[] rowCount = {0};
+                jdbcTemplate.query(exportStatement, resultSet -> {
+                    try {
+                        writeExportRow(generator, resultSet);
+                        if (++rowCount[0] % AccountsConstants.EXPORT_FETCH_SIZE == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException exception) {
+                        // usually the client went away; abort the query instead of reading the rest of the table
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+                generator.flush();
+                return rowCount[0];
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
 
-        return customerDto;
+    private static void writeExportRow(JsonGenerator generator, ResultSet resultSet) throws IOException, SQLException {
+        LocalDate createdAt = resultSet.getObject("created_at", LocalDate.class);
+        generator.writeStartObject();
+        generator.writeNumberField("customerId", resultSet.getLong("customer_id"));
+        generator.writeStringField("name", resultSet.getString("name"));
+        generator.writeStringField("email", resultSet.getString("email"));
+        generator.writeStringField("mobileNumber", resultSet.getString("mobile_number"));
+        generator.writeStringField("createdAt", createdAt == null ? null : createdAt.toString());
+        generator.writeNumberField("accountNumber", resultSet.getLong("account_number"));
+        generator.writeStringField("accountType", resultSet.getString("account_type"));
+        generator.writeStringField("branchAddress", resultSet.getString("branch_address"));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
     }
 
     @Override
@@ -90,8 +315,10 @@ public class AccountsServiceImpl implements IAccountsService {
             Customer existingCustomer = customerRepository.findById(customerId).orElseThrow(
                     () -> new ResourceNotFoundException("Customer", "customerId", String.valueOf(customerId))
             );
+            String previousMobileNumber = existingCustomer.getMobileNumber();
             CustomerMapper.mapToCustomer(customerDto, existingCustomer);
             customerRepository.save(existingCustomer);
+            evictAccountDetails(previousMobileNumber, existingCustomer.getMobileNumber());
             isUpdated = true;
 
             }
@@ -99,6 +326,7 @@ public class AccountsServiceImpl implements IAccountsService {
     }
 
     @Override
+    @CacheEvict(cacheNames = AccountsConstants.ACCOUNT_DETAILS_CACHE, key = "#mobileNumber")
     public boolean deleteAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer","mobileNumber",mobileNumber)
@@ -110,5 +338,18 @@ public class AccountsServiceImpl implements IAccountsService {
         return true;
     }
 
+    /**
+     * An update may change the mobile number, so both the previous and the current key are evicted.
+     *
+     * @param mobileNumbers - cache keys touched by the update
+     */
+    private void evictAccountDetails(String... mobileNumbers) {
+        Cache cache = cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE);
+        if (cache != null) {
+            for (String mobileNumber : mobileNumbers) {
+                cache.evict(mobileNumber);
+            }
+        }
+    }
 
 }
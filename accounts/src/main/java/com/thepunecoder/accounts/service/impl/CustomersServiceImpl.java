@@ -0,0 +1,184 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.dto.CardsDto;
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.dto.CustomerPageDto;
+import com.thepunecoder.accounts.dto.CustomerSummaryDto;
+import com.thepunecoder.accounts.dto.DownstreamServicesDto;
+import com.thepunecoder.accounts.dto.LoansDto;
+import com.thepunecoder.accounts.exception.InvalidCursorException;
+import com.thepunecoder.accounts.mapper.CustomerMapper;
+import com.thepunecoder.accounts.repository.CustomerRepository;
+import com.thepunecoder.accounts.service.IAccountsService;
+import com.thepunecoder.accounts.service.ICustomersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class CustomersServiceImpl implements ICustomersService {
+
+    private static final String CARDS = "cards";
+    private static final String LOANS = "loans";
+    private static final LocalDate EARLIEST_CREATED_AT = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_CREATED_AT = LocalDate.of(9999, 12, 31);
+
+    private final IAccountsService iAccountsService;
+    private final CustomerRepository customerRepository;
+    private final RestClient cardsRestClient;
+    private final RestClient loansRestClient;
+    private final AsyncTaskExecutor downstreamExecutor;
+    private final DownstreamServicesDto downstreamServicesDto;
+    private final MeterRegistry meterRegistry;
+
+    public CustomersServiceImpl(IAccountsService iAccountsService,
+                                CustomerRepository customerRepository,
+                                @Qualifier("cardsRestClient") RestClient cardsRestClient,
+                                @Qualifier("loansRestClient") RestClient loansRestClient,
+                                @Qualifier("downstreamExecutor") AsyncTaskExecutor downstreamExecutor,
+                                DownstreamServicesDto downstreamServicesDto,
+                                MeterRegistry meterRegistry) {
+        this.iAccountsService = iAccountsService;
+        this.customerRepository = customerRepository;
+        this.cardsRestClient = cardsRestClient;
+        this.loansRestClient = loansRestClient;
+        this.downstreamExecutor = downstreamExecutor;
+        this.downstreamServicesDto = downstreamServicesDto;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The cards and loans calls are started first and run while the account details are read locally.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer details based on a given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        CompletableFuture<CardsDto> cards = fetchDownstream(CARDS, cardsRestClient,
+                downstreamServicesDto.cards().timeout(), CardsDto.class, mobileNumber);
+        CompletableFuture<LoansDto> loans = fetchDownstream(LOANS, loansRestClient,
+                downstreamServicesDto.loans().timeout(), LoansDto.class, mobileNumber);
+
+        CustomerDto customerDto;
+        try {
+            customerDto = iAccountsService.fetchAccount(mobileNumber);
+        } catch (RuntimeException exception) {
+            cards.cancel(true);
+            loans.cancel(true);
+            throw exception;
+        }
+
+        CustomerDetailsDto customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customerDto, new CustomerDetailsDto());
+        customerDetailsDto.setCardsDto(await(CARDS, cards, customerDetailsDto));
+        customerDetailsDto.setLoansDto(await(LOANS, loans, customerDetailsDto));
+        return customerDetailsDto;
+    }
+
+    /**
+     * The cursor carries the last customer id of the previous page, so the next page is a seek on the
+     * primary key rather than an offset scan. One row more than the page size is read to tell whether
+     * another page follows without a count query.
+     *
+     * @param cursor - nextCursor of the previous page, or null for the first page
+     * @param createdFrom - only customers created on or after this day, optional
+     * @param createdTo - only customers created on or before this day, optional
+     * @param size - maximum number of customers on the page
+     * @return the page and the cursor of the next one
+     */
+    @Override
+    public CustomerPageDto fetchCustomers(String cursor, LocalDate createdFrom, LocalDate createdTo, int size) {
+        long afterCustomerId = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor);
+        LocalDateTime from = (createdFrom != null ? createdFrom : EARLIEST_CREATED_AT).atStartOfDay();
+        LocalDateTime before = (createdTo != null ? createdTo.plusDays(1) : LATEST_CREATED_AT).atStartOfDay();
+
+        List<CustomerSummaryDto> customers = customerRepository.findCustomerPage(
+                afterCustomerId, from, before, Limit.of(size + 1));
+        if (customers.size() <= size) {
+            return new CustomerPageDto(customers, null);
+        }
+        customers = customers.subList(0, size);
+        return new CustomerPageDto(customers, encodeCursor(customers.get(size - 1).getCustomerId()));
+    }
+
+    private static String encodeCursor(long customerId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(customerId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            long customerId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (customerId < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            return customerId;
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * @return a future completing with the downstream details, with null if the customer has none there,
+     * or exceptionally once the timeout has passed
+     */
+    private <T> CompletableFuture<T> fetchDownstream(String service, RestClient restClient, Duration timeout,
+                                                     Class<T> type, String mobileNumber) {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> restClient.get()
+                        .uri("/api/fetch?mobileNumber={mobileNumber}", mobileNumber)
+                        .exchange((request, response) -> {
+                            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                                return null;
+                            }
+                            if (response.getStatusCode().isError()) {
+                                throw new IllegalStateException(service + " responded with " + response.getStatusCode());
+                            }
+                            return response.bodyTo(type);
+                        }), downstreamExecutor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, exception) -> Timer.builder("customer.details.downstream")
+                        .description("Latency of downstream calls made by fetchCustomerDetails")
+                        .tag("service", service)
+                        .tag("outcome", outcome(result, exception))
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private static <T> T await(String service, CompletableFuture<T> future, CustomerDetailsDto customerDetailsDto) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+            customerDetailsDto.getUnavailableServices().put(service, cause instanceof TimeoutException
+                    ? "Timed out" : String.valueOf(cause.getMessage()));
+            return null;
+        }
+    }
+
+    private static String outcome(Object result, Throwable exception) {
+        if (exception == null) {
+            return result == null ? "not_found" : "success";
+        }
+        Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause() : exception;
+        return cause instanceof TimeoutException ? "timeout" : "error";
+    }
+}
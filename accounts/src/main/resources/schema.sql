@@ -1,5 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS `customer` (
-`customer_id` int AUTO_INCREMENT  PRIMARY KEY,
+`customer_id` bigint PRIMARY KEY,
 `name` varchar(100) NOT NULL,
 `email` varchar(100) NOT NULL,
 `mobile_number` varchar(20) NOT NULL,
@@ -9,13 +11,24 @@ CREATE TABLE IF NOT EXISTS `customer` (
 `updated_by` varchar(20) DEFAULT NULL
 );
 
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_customer_mobile_number` ON `customer` (`mobile_number`);
+
+-- Customer listing pages by customer_id on the primary key; this index serves narrow created_at ranges.
+CREATE INDEX IF NOT EXISTS `ix_customer_created_at` ON `customer` (`created_at`, `customer_id`);
+
 CREATE TABLE IF NOT EXISTS `accounts` (
-`customer_id` int NOT NULL,
-`account_number` int AUTO_INCREMENT  PRIMARY KEY,
+`customer_id` bigint NOT NULL,
+`account_number` bigint PRIMARY KEY,
 `account_type` varchar(100) NOT NULL,
 `branch_address` varchar(200) NOT NULL,
 `created_at` date NOT NULL,
 `created_by` varchar(20) NOT NULL,
 `updated_at` date DEFAULT NULL,
 `updated_by` varchar(20) DEFAULT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS `ix_accounts_customer_id` ON `accounts` (`customer_id`);
+
+-- Each value is the first number of a block of 1000 account numbers leased by AccountNumberAllocator.
+-- Starts above the range previously used for random account numbers (1000000000 - 1899999999).
+CREATE SEQUENCE IF NOT EXISTS `account_number_seq` START WITH 2000000000 INCREMENT BY 1000 MAXVALUE 9999999000;
@@ -0,0 +1,84 @@
+package com.thepunecoder.accounts.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Multi-threaded uniqueness check for {@link AccountNumberAllocator}.
+ */
+class AccountNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 2_500;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createSequence() {
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(
+                "jdbc:h2:mem:allocator;DB_CLOSE_DELAY=-1", "sa", "", true));
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS account_number_seq");
+        jdbcTemplate.execute("CREATE SEQUENCE account_number_seq START WITH 2000000000 INCREMENT BY 1000 MAXVALUE 9999999000");
+    }
+
+    @Test
+    void concurrentThreadsNeverReceiveTheSameNumber() throws Exception {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(jdbcTemplate);
+        long[] numbers = new long[THREADS * PER_THREAD];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * PER_THREAD;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        numbers[offset + i] = allocator.next();
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        assertAllUniqueTenDigit(numbers);
+    }
+
+    @Test
+    void allocatorsSharingASequenceDoNotOverlap() {
+        // a second allocator stands in for another instance, or the same instance after a restart
+        AccountNumberAllocator first = new AccountNumberAllocator(jdbcTemplate);
+        AccountNumberAllocator second = new AccountNumberAllocator(jdbcTemplate);
+        long[] numbers = new long[10_000];
+        for (int i = 0; i < numbers.length; i += 2) {
+            numbers[i] = first.next();
+            numbers[i + 1] = second.next();
+        }
+        assertAllUniqueTenDigit(numbers);
+    }
+
+    private static void assertAllUniqueTenDigit(long[] numbers) {
+        long[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            assertTrue(sorted[i] != sorted[i - 1], "duplicate account number " + sorted[i]);
+        }
+        assertTrue(sorted[0] >= 1_000_000_000L && sorted[sorted.length - 1] <= 9_999_999_999L);
+    }
+}
@@ -0,0 +1,89 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.dto.BatchFailureDto;
+import com.thepunecoder.accounts.dto.BatchResponseDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.service.IAccountsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batch onboarding sends its inserts in JDBC batches and reports failed rows by index.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountsServiceImplBatchTest {
+
+    private static final int ROWS = 200;
+    private static final long BATCH_MOBILE_BASE = 7_500_000_000L;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE customer_id IN "
+                + "(SELECT customer_id FROM customer WHERE mobile_number BETWEEN '7000000000' AND '7999999999')");
+        jdbcTemplate.update("DELETE FROM customer WHERE mobile_number BETWEEN '7000000000' AND '7999999999'");
+    }
+
+    @Test
+    void rowsAreInsertedInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BatchResponseDto response = iAccountsService.createAccounts(customers(BATCH_MOBILE_BASE, ROWS));
+
+        assertEquals(ROWS, response.getCreatedCount(), () -> response.getFailures().toString());
+        // two inserts per row sent one JDBC batch at a time, plus one existence query per chunk
+        assertTrue(statistics.getPrepareStatementCount() < ROWS / 10,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void failedRowsAreReportedWithoutFailingTheBatch() {
+        iAccountsService.createAccount(customer(BATCH_MOBILE_BASE));
+
+        List<CustomerDto> customerDtos = customers(BATCH_MOBILE_BASE, 5);
+        customerDtos.add(customer(BATCH_MOBILE_BASE + 1));
+        customerDtos.get(2).setEmail("not-an-email");
+        BatchResponseDto response = iAccountsService.createAccounts(customerDtos);
+
+        assertEquals(6, response.getTotalCount());
+        assertEquals(3, response.getCreatedCount());
+        List<Integer> failedIndexes = response.getFailures().stream().map(BatchFailureDto::getIndex).toList();
+        assertEquals(List.of(0, 2, 5), failedIndexes);
+    }
+
+    private static List<CustomerDto> customers(long mobileBase, int count) {
+        List<CustomerDto> customerDtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customerDtos.add(customer(mobileBase + i));
+        }
+        return customerDtos;
+    }
+
+    private static CustomerDto customer(long mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Batch Customer");
+        customerDto.setEmail("batch@example.com");
+        customerDto.setMobileNumber(String.valueOf(mobileNumber));
+        return customerDto;
+    }
+}
@@ -0,0 +1,93 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.constants.AccountsConstants;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.exception.ResourceNotFoundException;
+import com.thepunecoder.accounts.service.IAccountsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AccountsServiceImplCacheTest {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE).clear();
+    }
+
+    @Test
+    void repeatedFetchIsServedFromCacheAndPublishedAsHit() {
+        String mobileNumber = "6000000001";
+        iAccountsService.createAccount(customer(mobileNumber, "Cached Customer"));
+        double hitsBefore = cacheGets("hit");
+
+        iAccountsService.fetchAccount(mobileNumber);
+        iAccountsService.fetchAccount(mobileNumber);
+
+        assertEquals(hitsBefore + 1, cacheGets("hit"));
+        iAccountsService.deleteAccount(mobileNumber);
+    }
+
+    @Test
+    void updateEvictsPreviousAndNewMobileNumber() {
+        String mobileNumber = "6000000002";
+        String newMobileNumber = "6000000003";
+        iAccountsService.createAccount(customer(mobileNumber, "Cached Customer"));
+        CustomerDto cached = iAccountsService.fetchAccount(mobileNumber);
+
+        CustomerDto update = customer(newMobileNumber, "Renamed Customer");
+        update.setAccountsDto(cached.getAccountsDto());
+        iAccountsService.updateAccount(update);
+
+        assertNull(cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE).get(mobileNumber));
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount(mobileNumber));
+        assertEquals("Renamed Customer", iAccountsService.fetchAccount(newMobileNumber).getName());
+        iAccountsService.deleteAccount(newMobileNumber);
+    }
+
+    @Test
+    void deleteEvictsEntry() {
+        String mobileNumber = "6000000004";
+        iAccountsService.createAccount(customer(mobileNumber, "Cached Customer"));
+        iAccountsService.fetchAccount(mobileNumber);
+        assertNotNull(cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE).get(mobileNumber));
+
+        iAccountsService.deleteAccount(mobileNumber);
+
+        assertNull(cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE).get(mobileNumber));
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount(mobileNumber));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", AccountsConstants.ACCOUNT_DETAILS_CACHE)
+                .tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static CustomerDto customer(String mobileNumber, String name) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail("cache@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
@@ -0,0 +1,95 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.entity.Customer;
+import com.thepunecoder.accounts.exception.CustomerAlreadyExistException;
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Duplicate customers are detected from the unique mobile number index.
+ */
+@SpringBootTest
+class AccountsServiceImplDuplicateTest {
+
+    private static final String MOBILE_NUMBER = "8000000001";
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE customer_id IN "
+                + "(SELECT customer_id FROM customer WHERE mobile_number = ?)", MOBILE_NUMBER);
+        jdbcTemplate.update("DELETE FROM customer WHERE mobile_number = ?", MOBILE_NUMBER);
+    }
+
+    @Test
+    void mobileNumberLookupUsesUniqueIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT * FROM customer WHERE mobile_number = '8000000001'", String.class);
+        assertTrue(plan.toLowerCase().contains(Customer.MOBILE_NUMBER_INDEX), plan);
+    }
+
+    @Test
+    void duplicateMobileNumberIsRejectedByConstraint() {
+        iAccountsService.createAccount(customer(MOBILE_NUMBER));
+
+        assertThrows(CustomerAlreadyExistException.class,
+                () -> iAccountsService.createAccount(customer(MOBILE_NUMBER)));
+    }
+
+    @Test
+    void concurrentCreatesForSameMobileNumberAdmitOnlyOne() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                attempts.add(() -> {
+                    try {
+                        iAccountsService.createAccount(customer(MOBILE_NUMBER));
+                        return true;
+                    } catch (CustomerAlreadyExistException exception) {
+                        return false;
+                    }
+                });
+            }
+            int created = 0;
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CustomerDto customer(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Duplicate Test");
+        customerDto.setEmail("duplicate@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
@@ -0,0 +1,113 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thepunecoder.accounts.service.IAccountsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams the export into a byte array and over HTTP with gzip.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccountsServiceImplExportTest {
+
+    private static final int ROWS = 100;
+    private static final long CUSTOMER_ID_BASE = 3_000_000_000L;
+    private static final long MOBILE_BASE = 3_000_000_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seedCustomers() {
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       CURRENT_TIMESTAMP, 'EXPORT_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by)
+                SELECT customer_id, 5000000000 + customer_id, 'Savings', '123 Main Street, New York',
+                       CURRENT_TIMESTAMP, 'EXPORT_TEST'
+                FROM customer WHERE created_by = 'EXPORT_TEST'""");
+    }
+
+    @AfterAll
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE created_by = 'EXPORT_TEST'");
+        jdbcTemplate.update("DELETE FROM customer WHERE created_by = 'EXPORT_TEST'");
+    }
+
+    @Test
+    void exportWritesOneLinePerRow() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rowCount = iAccountsService.exportAccounts(outputStream);
+
+        assertEquals(expectedRows(), rowCount);
+        assertEquals(rowCount, outputStream.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void gzipExportOverHttpIsValidNdjson() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/export"))
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        long lines = 0;
+        JsonNode first = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(response.body()), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode row = objectMapper.readTree(line);
+                if (first == null && row.get("customerId").asLong() == CUSTOMER_ID_BASE + 1) {
+                    first = row;
+                }
+                lines++;
+            }
+        }
+        assertEquals(expectedRows(), lines);
+        assertEquals(String.valueOf(MOBILE_BASE + 1), first.get("mobileNumber").asText());
+        assertEquals(5000000000L + CUSTOMER_ID_BASE + 1, first.get("accountNumber").asLong());
+    }
+
+    private long expectedRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer c JOIN accounts a ON a.customer_id = c.customer_id", Long.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.constants.AccountsConstants;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.service.IAccountsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * fetchAccount reads the account details with one joined projection query.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccountsServiceImplProjectionTest {
+
+    private static final int CUSTOMERS = 10;
+    private static final long CUSTOMER_ID_BASE = 2_000_000_000L;
+    private static final long MOBILE_BASE = 5_000_000_000L;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seedCustomers() {
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       CURRENT_TIMESTAMP, 'PROJECTION_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, CUSTOMERS);
+        jdbcTemplate.update("""
+                INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by)
+                SELECT customer_id, 5000000000 + customer_id, 'Savings', '123 Main Street, New York',
+                       CURRENT_TIMESTAMP, 'PROJECTION_TEST'
+                FROM customer WHERE created_by = 'PROJECTION_TEST'""");
+    }
+
+    @AfterAll
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE created_by = 'PROJECTION_TEST'");
+        jdbcTemplate.update("DELETE FROM customer WHERE created_by = 'PROJECTION_TEST'");
+    }
+
+    @Test
+    void fetchIssuesASingleQueryAndLoadsNoEntities() {
+        cacheManager.getCache(AccountsConstants.ACCOUNT_DETAILS_CACHE).clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        CustomerDto customerDto = iAccountsService.fetchAccount(String.valueOf(MOBILE_BASE + 1));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(5000000000L + CUSTOMER_ID_BASE + 1, customerDto.getAccountsDto().getAccountNumber());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
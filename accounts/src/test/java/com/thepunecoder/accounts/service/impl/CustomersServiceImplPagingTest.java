@@ -0,0 +1,117 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.thepunecoder.accounts.dto.CustomerPageDto;
+import com.thepunecoder.accounts.dto.CustomerSummaryDto;
+import com.thepunecoder.accounts.exception.InvalidCursorException;
+import com.thepunecoder.accounts.service.ICustomersService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pages through a seeded customer table with created_at spread over 50 days, 100 customers a day.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomersServiceImplPagingTest {
+
+    private static final int CUSTOMERS = 5_000;
+    private static final int PAGE_SIZE = 50;
+    private static final long CUSTOMER_ID_BASE = 4_000_000_000L;
+    private static final long MOBILE_BASE = 2_000_000_000L;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final LocalDate LAST_DAY = FIRST_DAY.plusDays(CUSTOMERS / 100 - 1);
+
+    @Autowired
+    private ICustomersService iCustomersService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedCustomers() {
+        jdbcTemplate.update("""
+                INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by)
+                SELECT ? + X, 'Customer ' || X, 'customer' || X || '@example.com', CAST(? + X AS VARCHAR),
+                       DATEADD('DAY', (X - 1) / 100, DATE '2020-01-01'), 'PAGING_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", CUSTOMER_ID_BASE, MOBILE_BASE, CUSTOMERS);
+    }
+
+    @AfterAll
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM customer WHERE created_by = 'PAGING_TEST'");
+    }
+
+    @Test
+    void pagesCoverTheFilteredRangeWithoutGapsOrDuplicates() {
+        LocalDate from = FIRST_DAY.plusDays(10);
+        LocalDate to = FIRST_DAY.plusDays(29);
+        long previousCustomerId = 0;
+        int count = 0;
+        String cursor = null;
+        do {
+            CustomerPageDto page = iCustomersService.fetchCustomers(cursor, from, to, 500);
+            for (CustomerSummaryDto customer : page.getCustomers()) {
+                assertTrue(customer.getCustomerId() > previousCustomerId);
+                LocalDate createdOn = customer.getCreatedAt().toLocalDate();
+                assertTrue(!createdOn.isBefore(from) && !createdOn.isAfter(to), createdOn.toString());
+                previousCustomerId = customer.getCustomerId();
+                count++;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(20 * 100, count);
+        assertEquals(CUSTOMER_ID_BASE + 30 * 100, previousCustomerId);
+    }
+
+    @Test
+    void deepPageStartsRightAfterTheCursor() {
+        long deepCustomerId = CUSTOMER_ID_BASE + CUSTOMERS - CUSTOMERS / 100;
+        CustomerPageDto deepPage = iCustomersService.fetchCustomers(cursorAfter(deepCustomerId), FIRST_DAY, LAST_DAY, PAGE_SIZE);
+        assertEquals(PAGE_SIZE, deepPage.getCustomers().size());
+        assertEquals(deepCustomerId + 1, deepPage.getCustomers().get(0).getCustomerId());
+    }
+
+    @Test
+    void keysetQuerySeeksOnThePrimaryKey() {
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN SELECT customer_id, name, email, mobile_number, created_at FROM customer
+                WHERE customer_id > 4000004000 AND created_at >= DATE '2020-01-01' AND created_at < DATE '9999-12-31'
+                ORDER BY customer_id FETCH FIRST 51 ROWS ONLY""", String.class);
+        assertTrue(plan.contains("PRIMARY_KEY") && plan.contains(": CUSTOMER_ID > 4000004000 */"), plan);
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(InvalidCursorException.class,
+                () -> iCustomersService.fetchCustomers("not a cursor", null, null, PAGE_SIZE));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CustomerPageDto page = iCustomersService.fetchCustomers(null, LAST_DAY, LAST_DAY, 100);
+        assertEquals(100, page.getCustomers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    private static String cursorAfter(long customerId) {
+        // same encoding as the service; clients only ever pass back a nextCursor they were given
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(customerId).getBytes(StandardCharsets.US_ASCII));
+    }
+}
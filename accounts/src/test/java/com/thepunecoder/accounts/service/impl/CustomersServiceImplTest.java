@@ -0,0 +1,160 @@
+package com.thepunecoder.accounts.service.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.thepunecoder.accounts.dto.CustomerDetailsDto;
+import com.thepunecoder.accounts.dto.CustomerDto;
+import com.thepunecoder.accounts.service.IAccountsService;
+import com.thepunecoder.accounts.service.ICustomersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs fetchCustomerDetails against local stub cards and loans servers.
+ */
+@SpringBootTest
+class CustomersServiceImplTest {
+
+    private static final String FAST = "4000000001";
+    private static final String SLOW_LOANS = "4000000002";
+    // holds the slow loans response until the tests are done, so only the client timeout can end the call
+    private static final CountDownLatch LOANS_RELEASED = new CountDownLatch(1);
+
+    private static final HttpServer CARDS = stubServer(mobileNumber -> response(200, """
+            {"mobileNumber":"%s","cardNumber":"100646930341","cardType":"Credit Card",
+             "totalLimit":100000,"amountUsed":1000,"availableAmount":99000}""".formatted(mobileNumber)));
+    private static final HttpServer LOANS = stubServer(mobileNumber -> {
+        if (SLOW_LOANS.equals(mobileNumber)) {
+            await(LOANS_RELEASED);
+        }
+        return FAST.equals(mobileNumber) ? response(404, "{}") : response(200, """
+                {"mobileNumber":"%s","loanNumber":"548732457654","loanType":"Home Loan",
+                 "totalLoan":100000,"amountPaid":1000,"outstandingAmount":99000}""".formatted(mobileNumber));
+    });
+
+    @DynamicPropertySource
+    static void downstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("downstream.cards.base-url", () -> "http://localhost:" + CARDS.getAddress().getPort());
+        registry.add("downstream.loans.base-url", () -> "http://localhost:" + LOANS.getAddress().getPort());
+        registry.add("downstream.cards.timeout", () -> "1500ms");
+        registry.add("downstream.loans.timeout", () -> "300ms");
+    }
+
+    @Autowired
+    private ICustomersService iCustomersService;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterAll
+    static void stopServers() {
+        LOANS_RELEASED.countDown();
+        CARDS.stop(0);
+        LOANS.stop(0);
+    }
+
+    @Test
+    void slowDownstreamIsReportedAndTheRestIsReturned() {
+        createCustomer(SLOW_LOANS);
+
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(SLOW_LOANS);
+
+        assertNotNull(customerDetailsDto.getAccountsDto());
+        assertEquals("100646930341", customerDetailsDto.getCardsDto().getCardNumber());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals(Map.of("loans", "Timed out"), customerDetailsDto.getUnavailableServices());
+        assertTrue(meterRegistry.get("customer.details.downstream")
+                .tag("service", "loans").tag("outcome", "timeout").timer().count() > 0);
+        iAccountsService.deleteAccount(SLOW_LOANS);
+    }
+
+    @Test
+    void missingDownstreamRecordIsNotAnError() {
+        createCustomer(FAST);
+
+        CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(FAST);
+
+        assertNotNull(customerDetailsDto.getCardsDto());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertTrue(customerDetailsDto.getUnavailableServices().isEmpty());
+        assertTrue(meterRegistry.get("customer.details.downstream")
+                .tag("service", "cards").tag("outcome", "success").timer().count() > 0);
+        iAccountsService.deleteAccount(FAST);
+    }
+
+    private void createCustomer(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Customer Details");
+        customerDto.setEmail("details@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        iAccountsService.createAccount(customerDto);
+    }
+
+    private record StubResponse(int status, String body) {
+    }
+
+    private interface StubHandler {
+        StubResponse handle(String mobileNumber);
+    }
+
+    private static StubResponse response(int status, String body) {
+        return new StubResponse(status, body);
+    }
+
+    private static HttpServer stubServer(StubHandler handler) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/fetch", exchange -> respond(exchange, handler));
+            server.start();
+            return server;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, StubHandler handler) throws IOException {
+        String mobileNumber = exchange.getRequestURI().getQuery().replace("mobileNumber=", "");
+        StubResponse response = handler.handle(mobileNumber);
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } catch (IOException exception) {
+            // the caller already gave up on a slow response
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
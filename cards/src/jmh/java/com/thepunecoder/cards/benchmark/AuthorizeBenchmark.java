@@ -0,0 +1,80 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
+import com.thepunecoder.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorizations of one unit against a single card from many threads, with the database row lock and with the
+ * in-memory hold ledger. The card is recreated for every iteration, so its limit covers a full iteration. The
+ * hold journal is kept in a temporary directory that is removed afterwards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+public class AuthorizeBenchmark {
+
+    private static final String MOBILE_NUMBER = "9100000001";
+
+    @Param({"false", "true"})
+    public boolean holdLedger;
+
+    private Path journalDirectory;
+    private ConfigurableApplicationContext context;
+    private ICardsService iCardsService;
+    private AuthorizationRequestDto request;
+
+    @Setup
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("hold-journal");
+        context = BenchmarkApplication.start("hold-ledger.enabled=" + holdLedger,
+                "hold-ledger.journal-directory=" + journalDirectory);
+        iCardsService = context.getBean(ICardsService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void createCard() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        request = new AuthorizationRequestDto(iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber(), 1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCard() {
+        iCardsService.deleteCard(MOBILE_NUMBER);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+
+    @Benchmark
+    public boolean authorize() {
+        try {
+            iCardsService.authorize(request);
+            return true;
+        } catch (InsufficientAvailableAmountException exception) {
+            return false;
+        }
+    }
+}
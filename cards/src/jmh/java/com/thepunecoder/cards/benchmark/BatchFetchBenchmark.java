@@ -0,0 +1,72 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardsBatchResponseDto;
+import com.thepunecoder.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Fetching all cards of a seeded table by mobile number with one fetchCards batch, against one fetchCard call per
+ * mobile number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class BatchFetchBenchmark {
+
+    private static final long MOBILE_BASE = 9_300_000_000L;
+    private static final long CARD_NUMBER_BASE = 300_000_000_000L;
+
+    @Param("5000")
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private ICardsService iCardsService;
+    private List<String> mobileNumbers;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iCardsService = context.getBean(ICardsService.class);
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, available_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, X, 100000 - X,
+                       CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, cards);
+        mobileNumbers = LongStream.rangeClosed(MOBILE_BASE + 1, MOBILE_BASE + cards)
+                .mapToObj(String::valueOf)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardsBatchResponseDto batch() {
+        return iCardsService.fetchCards(mobileNumbers);
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) {
+        for (String mobileNumber : mobileNumbers) {
+            blackhole.consume(iCardsService.fetchCard(mobileNumber));
+        }
+    }
+}
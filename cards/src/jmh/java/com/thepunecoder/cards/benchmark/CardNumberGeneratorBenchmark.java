@@ -0,0 +1,48 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.service.impl.CardNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * New card numbers from {@link CardNumberGenerator}, with the cards table as the lookup behind its Bloom filter.
+ * The generator is recreated for every trial, so the filter fills up as it would over that many issued cards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CardNumberGeneratorBenchmark {
+
+    private SingleConnectionDataSource dataSource;
+    private CardNumberGenerator generator;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:cardnumbers;DB_CLOSE_DELAY=-1", "sa", "", true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cards");
+        jdbcTemplate.execute("CREATE TABLE cards (card_number varchar(100) NOT NULL PRIMARY KEY)");
+        generator = new CardNumberGenerator(jdbcTemplate);
+        generator.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public String next() {
+        return generator.next();
+    }
+}
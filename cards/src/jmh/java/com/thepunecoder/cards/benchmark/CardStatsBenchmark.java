@@ -0,0 +1,70 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardStatsDto;
+import com.thepunecoder.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Card statistics read from the running totals, against the aggregate query over the cards table that they
+ * replace, for a seeded table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CardStatsBenchmark {
+
+    private static final long MOBILE_BASE = 9_500_000_000L;
+    private static final long CARD_NUMBER_BASE = 500_000_000_000L;
+
+    @Param("100000")
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private ICardsService iCardsService;
+    private JdbcTemplate jdbcTemplate;
+    private int call;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iCardsService = context.getBean(ICardsService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, available_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, MOD(X, 11) * 10000,
+                       100000 - MOD(X, 11) * 10000, CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, cards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardStatsDto runningTotals() {
+        return iCardsService.fetchStats();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> tableAggregate() {
+        // vary the query so H2 does not answer from its cache of the last result
+        return jdbcTemplate.queryForList("SELECT COUNT(*), SUM(total_limit), SUM(amount_used) FROM cards "
+                + "WHERE card_id <> ?", -(++call));
+    }
+}
@@ -0,0 +1,73 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.service.ICardsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/fetch} over HTTP answered with the full card, against the same request answered with
+ * 304 Not Modified because it carries the card's current ETag.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ConditionalFetchBenchmark {
+
+    private static final String MOBILE_NUMBER = "9600000000";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest fetch;
+    private HttpRequest conditionalFetch;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        ICardsService iCardsService = context.getBean(ICardsService.class);
+        iCardsService.createCard(MOBILE_NUMBER);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + BenchmarkApplication.port(context)
+                + "/api/fetch?mobileNumber=" + MOBILE_NUMBER);
+        fetch = HttpRequest.newBuilder(uri).build();
+        conditionalFetch = HttpRequest.newBuilder(uri)
+                .header("If-None-Match", iCardsService.fetchVersionedCard(MOBILE_NUMBER).eTag())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String full() throws IOException, InterruptedException {
+        return send(fetch, 200);
+    }
+
+    @Benchmark
+    public String notModified() throws IOException, InterruptedException {
+        return send(conditionalFetch, 304);
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body();
+    }
+}
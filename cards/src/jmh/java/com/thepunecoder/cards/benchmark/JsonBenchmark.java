@@ -0,0 +1,52 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardsDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the CardsDto request and response bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private JsonMapper jsonMapper;
+    private CardsDto cardsDto;
+    private byte[] cardsJson;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("4354437687");
+        cardsDto.setCardNumber("100646930341");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+        cardsJson = """
+                {"mobileNumber":"4354437687","cardNumber":"100646930341","cardType":"Credit Card",
+                 "totalLimit":100000,"amountUsed":1000,"availableAmount":99000}""".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeCardsDto() {
+        return jsonMapper.writeValueAsBytes(cardsDto);
+    }
+
+    @Benchmark
+    public CardsDto deserializeCardsDto() {
+        return jsonMapper.readValue(cardsJson, CardsDto.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.entity.Cards;
+import com.thepunecoder.cards.mapper.CardsMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity/DTO mappings done on every cards request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Cards cards;
+    private CardsDto cardsDto;
+
+    @Setup
+    public void setUp() {
+        cards = new Cards();
+        cards.setMobileNumber("4354437687");
+        cards.setCardNumber("100646930341");
+        cards.setCardType("Credit Card");
+        cards.setTotalLimit(100000);
+        cards.setAmountUsed(1000);
+        cards.setAvailableAmount(99000);
+        cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public CardsDto cardsToDto() {
+        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public Cards dtoToCards() {
+        return CardsMapper.mapToCards(cardsDto, new Cards());
+    }
+}
@@ -0,0 +1,66 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.ratelimit.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admitting one card create or update through a token bucket, for a key that is admitted, a key
+ * that is refused and keys spread over {@code keys} buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"100000"})
+    private int keys;
+
+    private TokenBucketLimiter admitting;
+    private TokenBucketLimiter refusing;
+    private String[] mobileNumbers;
+
+    @Setup
+    public void setUp() {
+        admitting = new TokenBucketLimiter(Integer.MAX_VALUE, Duration.ofNanos(1), keys);
+        refusing = new TokenBucketLimiter(1, Duration.ofDays(1), keys);
+        mobileNumbers = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            mobileNumbers[i] = Long.toString(9_000_000_000L + i);
+            admitting.tryAcquire(mobileNumbers[i]);
+            refusing.tryAcquire(mobileNumbers[i]);
+        }
+    }
+
+    @Benchmark
+    public long admitted() {
+        return admitting.tryAcquire(mobileNumbers[0]);
+    }
+
+    @Benchmark
+    public long refused() {
+        return refusing.tryAcquire(mobileNumbers[0]);
+    }
+
+    @Benchmark
+    public long spreadOverKeys() {
+        return admitting.tryAcquire(mobileNumbers[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long admittedContended() {
+        return admitting.tryAcquire(mobileNumbers[0]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.mapper.CardsMapper;
+import com.thepunecoder.cards.replica.CardReadReplica;
+import com.thepunecoder.cards.repository.CardsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching a card by mobile number from the read replica against the cards table, over {@code cards} seeded
+ * cards. Run with {@code -prof gc} for the bytes allocated per fetch; the direct memory held by the replica is
+ * logged when it is loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReadReplicaBenchmark {
+
+    private static final long MOBILE_BASE = 9_700_000_000L;
+    private static final long CARD_NUMBER_BASE = 700_000_000_000L;
+
+    @Param("200000")
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private CardReadReplica cardReadReplica;
+    private CardsRepository cardsRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("read-replica.enabled=true");
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, available_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, MOD(X, 1000),
+                       100000 - MOD(X, 1000), CURRENT_TIMESTAMP, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, cards);
+        cardReadReplica = context.getBean(CardReadReplica.class);
+        cardReadReplica.load();
+        cardsRepository = context.getBean(CardsRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardsDto replica() {
+        return cardReadReplica.findByMobileNumber(mobileNumber());
+    }
+
+    @Benchmark
+    public CardsDto cardsTable() {
+        return CardsMapper.mapToCardsDto(cardsRepository.findByMobileNumber(mobileNumber()).orElseThrow(),
+                new CardsDto());
+    }
+
+    private String mobileNumber() {
+        return Long.toString(MOBILE_BASE + 1 + ThreadLocalRandom.current().nextInt(cards));
+    }
+}
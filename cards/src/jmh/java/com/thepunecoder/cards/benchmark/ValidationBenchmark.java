@@ -0,0 +1,67 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.CardsDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of CardsDto as done for @Valid request bodies, for a valid body and for one
+ * failing the cardNumber @Pattern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CardsDto validCardsDto;
+    private CardsDto invalidCardsDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validCardsDto = cardsDto("100646930341");
+        invalidCardsDto = cardsDto("1006469303");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> validCardsDto() {
+        return validator.validate(validCardsDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> invalidCardNumber() {
+        return validator.validate(invalidCardsDto);
+    }
+
+    private static CardsDto cardsDto(String cardNumber) {
+        CardsDto cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("4354437687");
+        cardsDto.setCardNumber(cardNumber);
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+        return cardsDto;
+    }
+}
@@ -0,0 +1,59 @@
+package com.thepunecoder.cards.benchmark;
+
+import com.thepunecoder.cards.dto.VelocityConfigDto;
+import com.thepunecoder.cards.velocity.CardVelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity checks per second on one card and on cards spread over {@code cards} tracked cards. The rules
+ * never refuse, and every check is released again so the counters of a bucket never fill up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class VelocityBenchmark {
+
+    @Param({"1000000"})
+    private int cards;
+
+    private CardVelocityTracker tracker;
+    private String[] cardNumbers;
+
+    @Setup
+    public void setUp() {
+        tracker = new CardVelocityTracker(new VelocityConfigDto(true, Duration.ofSeconds(1), cards, List.of(
+                new VelocityConfigDto.Rule(Duration.ofSeconds(10), 0, 0),
+                new VelocityConfigDto.Rule(Duration.ofSeconds(60), 0, 0))));
+        cardNumbers = new String[cards];
+        for (int i = 0; i < cards; i++) {
+            cardNumbers[i] = Long.toString(100_000_000_000L + i * 7919L);
+            tracker.record(cardNumbers[i], 1);
+        }
+    }
+
+    @Benchmark
+    public void oneCard() {
+        check(cardNumbers[0]);
+    }
+
+    @Benchmark
+    public void spreadOverCards() {
+        check(cardNumbers[ThreadLocalRandom.current().nextInt(cards)]);
+    }
+
+    private void check(String cardNumber) {
+        tracker.release(cardNumber, 1, tracker.record(cardNumber, 1));
+    }
+}
@@ -1,6 +1,10 @@
 package com.thepunecoder.cards;
 
 import com.thepunecoder.cards.dto.CardsContactInfoDto;
+import com.thepunecoder.cards.dto.HoldLedgerConfigDto;
+import com.thepunecoder.cards.dto.OutboxConfigDto;
+import com.thepunecoder.cards.dto.RateLimitConfigDto;
+import com.thepunecoder.cards.dto.VelocityConfigDto;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -10,13 +14,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 /*@ComponentScans({ @ComponentScan("com.thepunecoder.cards.controller") })
 @EnableJpaRepositories("com.thepunecoder.cards.repository")
 @EntityScan("com.thepunecoder.cards.model")*/
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value={CardsContactInfoDto.class})
+@EnableAsync
+@EnableConfigurationProperties(value={CardsContactInfoDto.class, HoldLedgerConfigDto.class, OutboxConfigDto.class,
+		RateLimitConfigDto.class, VelocityConfigDto.class})
 @OpenAPIDefinition(
 		info = @Info(
 				title = "Cards microservice REST API Documentation",
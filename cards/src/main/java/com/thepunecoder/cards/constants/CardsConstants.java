@@ -15,6 +15,19 @@ public final class CardsConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final int  AUTHORIZE_MAX_ATTEMPTS = 3;
+    public static final int  FETCH_BATCH_MAX_SIZE = 10_000;
+    public static final int  FETCH_BATCH_CHUNK_SIZE = 1_000;
+    public static final int  CARD_NUMBER_LENGTH = 12;
+    public static final long  CARD_NUMBER_ISSUER_DIGIT = 1;
+    public static final long  CARD_NUMBER_EXPECTED_CARDS = 10_000_000;
+    public static final double  CARD_NUMBER_BLOOM_FALSE_POSITIVE_PROBABILITY = 0.01;
+    public static final int  CARD_NUMBER_MAX_ATTEMPTS = 3;
+    public static final String  CHANGE_CREATED = "CREATED";
+    public static final String  CHANGE_UPDATED = "UPDATED";
+    public static final String  CHANGE_DELETED = "DELETED";
+    public static final String  CHANGES_DEFAULT_LIMIT = "100";
+    public static final int  CHANGES_MAX_LIMIT = 1_000;
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
@@ -1,10 +1,18 @@
 package com.thepunecoder.cards.controller;
 
 import com.thepunecoder.cards.constants.CardsConstants;
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.AuthorizationResponseDto;
+import com.thepunecoder.cards.dto.CardChangesDto;
+import com.thepunecoder.cards.dto.CardStatsDto;
+import com.thepunecoder.cards.dto.CardsBatchRequestDto;
+import com.thepunecoder.cards.dto.CardsBatchResponseDto;
 import com.thepunecoder.cards.dto.CardsContactInfoDto;
 import com.thepunecoder.cards.dto.CardsDto;
 import com.thepunecoder.cards.dto.ErrorResponseDto;
 import com.thepunecoder.cards.dto.ResponseDto;
+import com.thepunecoder.cards.dto.VersionedCardsDto;
+import com.thepunecoder.cards.ratelimit.CardMutationRateLimiter;
 import com.thepunecoder.cards.service.ICardsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +20,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -23,6 +36,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * @author thepunecoder
@@ -52,6 +66,9 @@ public class CardsController {
     @Autowired
     private CardsContactInfoDto cardsContactInfoDto;
 
+    @Autowired
+    private ObjectProvider<CardMutationRateLimiter> cardMutationRateLimiter;
+
     @Operation(
             summary = "Create Card REST API",
             description = "REST API to create new Card"
@@ -61,6 +78,13 @@ public class CardsController {
                     responseCode = "201",
                     description = "HTTP Status CREATED"
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "HTTP Status Too Many Requests",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -73,7 +97,9 @@ public class CardsController {
     @PostMapping("/create")
     public ResponseEntity<ResponseDto> createCard(@Valid @RequestParam
                                                       @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                      String mobileNumber) {
+                                                      String mobileNumber,
+                                                  HttpServletRequest request) {
+        cardMutationRateLimiter.ifAvailable(limiter -> limiter.admit(request, mobileNumber));
         iCardsService.createCard(mobileNumber);
             return ResponseEntity
                     .status(HttpStatus.CREATED)
@@ -82,13 +108,18 @@ public class CardsController {
 
     @Operation(
             summary = "Fetch Card Details REST API",
-            description = "REST API to fetch card details based on a mobile number"
+            description = "REST API to fetch card details based on a mobile number. The response carries an ETag; "
+                    + "send it back in If-None-Match to get 304 Not Modified while the card is unchanged"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -100,9 +131,41 @@ public class CardsController {
     @GetMapping("/fetch")
     public ResponseEntity<CardsDto> fetchCardDetails(@RequestParam
                                                                @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                               String mobileNumber) {
-        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
-        return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
+                                                               String mobileNumber,
+                                                     WebRequest webRequest) {
+        VersionedCardsDto versionedCardsDto = iCardsService.fetchVersionedCard(mobileNumber);
+        if (webRequest.checkNotModified(versionedCardsDto.eTag())) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(versionedCardsDto.eTag()).body(versionedCardsDto.cardsDto());
+    }
+
+    @Operation(
+            summary = "Fetch Card Details in Batch REST API",
+            description = "REST API to fetch card details for up to " + CardsConstants.FETCH_BATCH_MAX_SIZE
+                    + " mobile numbers in one call. Mobile numbers without a card are listed in missingMobileNumbers"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/fetch/batch")
+    public ResponseEntity<CardsBatchResponseDto> fetchCardDetailsBatch(@Valid @RequestBody CardsBatchRequestDto cardsBatchRequestDto) {
+        CardsBatchResponseDto cardsBatchResponseDto = iCardsService.fetchCards(cardsBatchRequestDto.getMobileNumbers());
+        return ResponseEntity.status(HttpStatus.OK).body(cardsBatchResponseDto);
     }
 
     @Operation(
@@ -118,6 +181,13 @@ public class CardsController {
                     responseCode = "417",
                     description = "Expectation Failed"
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "HTTP Status Too Many Requests",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -127,7 +197,9 @@ public class CardsController {
             )
         })
     @PutMapping("/update")
-    public ResponseEntity<ResponseDto> updateCardDetails(@Valid @RequestBody CardsDto cardsDto) {
+    public ResponseEntity<ResponseDto> updateCardDetails(@Valid @RequestBody CardsDto cardsDto,
+                                                         HttpServletRequest request) {
+        cardMutationRateLimiter.ifAvailable(limiter -> limiter.admit(request, cardsDto.getMobileNumber()));
         boolean isUpdated = iCardsService.updateCard(cardsDto);
         if(isUpdated) {
             return ResponseEntity
@@ -140,6 +212,51 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Authorize Card REST API",
+            description = "REST API to debit an amount from the available amount of a card. The debit is atomic, "
+                    + "so concurrent authorizations on the same card never overdraw it"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "HTTP Status Service Unavailable",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<AuthorizationResponseDto> authorize(@Valid @RequestBody AuthorizationRequestDto authorizationRequestDto) {
+        AuthorizationResponseDto authorizationResponseDto = iCardsService.authorize(authorizationRequestDto);
+        return ResponseEntity.status(HttpStatus.OK).body(authorizationResponseDto);
+    }
+
     @Operation(
             summary = "Delete Card Details REST API",
             description = "REST API to delete Card details based on a mobile number"
@@ -177,6 +294,63 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Fetch Card Changes REST API",
+            description = "REST API to tail the feed of card creations, updates and deletions. Pass the lastSeq of a "
+                    + "response as after to get the following changes; a change can be delivered more than once"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<CardChangesDto> fetchChanges(@RequestParam(defaultValue = "0")
+                                                       @PositiveOrZero(message = "after must be zero or greater")
+                                                       long after,
+                                                       @RequestParam(defaultValue = CardsConstants.CHANGES_DEFAULT_LIMIT)
+                                                       @Min(value = 1, message = "limit must be at least {value}")
+                                                       @Max(value = CardsConstants.CHANGES_MAX_LIMIT, message = "limit must be at most {value}")
+                                                       int limit) {
+        CardChangesDto cardChangesDto = iCardsService.fetchChanges(after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(cardChangesDto);
+    }
+
+    @Operation(
+            summary = "Fetch Card Statistics REST API",
+            description = "REST API to get the card count, total limit, total used and utilization histogram across "
+                    + "all cards. Served from running totals that are checked against the cards table periodically"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<CardStatsDto> fetchStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(iCardsService.fetchStats());
+    }
+
     @Operation(
             summary = "Get Build Version REST API",
             description = "REST API to get build version of the application")
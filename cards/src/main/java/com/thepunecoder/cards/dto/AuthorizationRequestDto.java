@@ -0,0 +1,30 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "AuthorizationRequest",
+        description = "Schema to hold a card authorization request"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class AuthorizationRequestDto {
+
+    @NotEmpty(message = "Card Number can not be a null or empty")
+    @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+    @Schema(
+            description = "Card Number to debit", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Positive(message = "Amount should be greater than zero")
+    @Schema(
+            description = "Amount to debit from the available amount of the card", example = "1000"
+    )
+    private int amount;
+
+}
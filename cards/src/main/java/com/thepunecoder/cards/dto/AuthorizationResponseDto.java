@@ -0,0 +1,29 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "AuthorizationResponse",
+        description = "Schema to hold the outcome of an approved card authorization"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class AuthorizationResponseDto {
+
+    @Schema(
+            description = "Card Number that was debited", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Amount debited from the card", example = "1000"
+    )
+    private int amount;
+
+    @Schema(
+            description = "Available amount left on the card after the debit", example = "89000"
+    )
+    private int availableAmount;
+
+}
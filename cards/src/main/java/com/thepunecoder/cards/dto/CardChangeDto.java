@@ -0,0 +1,67 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "CardChange",
+        description = "Schema to hold a change to a card and the card details after it"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CardChangeDto {
+
+    @Schema(
+            description = "Position of the change in the change feed", example = "42"
+    )
+    private long seq;
+
+    @Schema(
+            description = "Identifier of the change. A change can be delivered more than once; consumers should ignore repeats",
+            example = "57"
+    )
+    private long changeId;
+
+    @Schema(
+            description = "Kind of change", example = "UPDATED", allowableValues = {"CREATED", "UPDATED", "DELETED"}
+    )
+    private String changeType;
+
+    @Schema(
+            description = "Mobile Number of Customer", example = "4354437687"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Type of the card", example = "Credit Card"
+    )
+    private String cardType;
+
+    @Schema(
+            description = "Total amount limit available against a card", example = "100000"
+    )
+    private int totalLimit;
+
+    @Schema(
+            description = "Total amount used by a Customer", example = "1000"
+    )
+    private int amountUsed;
+
+    @Schema(
+            description = "Total available amount against a card", example = "90000"
+    )
+    private int availableAmount;
+
+    @Schema(
+            description = "Time of the change"
+    )
+    private LocalDateTime changedAt;
+
+}
@@ -0,0 +1,26 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(name = "CardChanges",
+        description = "Schema to hold a page of the card change feed"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CardChangesDto {
+
+    @Schema(
+            description = "Changes in feed order"
+    )
+    private List<CardChangeDto> changes;
+
+    @Schema(
+            description = "Pass as after to get the following changes", example = "42"
+    )
+    private long lastSeq;
+
+}
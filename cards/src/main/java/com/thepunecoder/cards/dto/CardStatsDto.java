@@ -0,0 +1,47 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Schema(name = "CardStats",
+        description = "Schema to hold limit and utilization statistics across all cards"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CardStatsDto {
+
+    @Schema(
+            description = "Number of cards", example = "1200"
+    )
+    private long cardCount;
+
+    @Schema(
+            description = "Sum of the total limits of all cards", example = "120000000"
+    )
+    private long totalLimit;
+
+    @Schema(
+            description = "Sum of the amounts used on all cards", example = "30000000"
+    )
+    private long totalUsed;
+
+    @Schema(
+            description = "Total used as a fraction of total limit", example = "0.25"
+    )
+    private double utilization;
+
+    @Schema(
+            description = "Number of cards by the share of their limit that is used, in 10% steps"
+    )
+    private Map<String, Long> utilizationHistogram;
+
+    @Schema(
+            description = "When the statistics were last checked against the cards table"
+    )
+    private LocalDateTime reconciledAt;
+
+}
@@ -0,0 +1,29 @@
+package com.thepunecoder.cards.dto;
+
+import com.thepunecoder.cards.constants.CardsConstants;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(name = "CardsBatchRequest",
+        description = "Schema to hold the mobile numbers to fetch card details for"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CardsBatchRequestDto {
+
+    @NotEmpty(message = "Mobile Numbers can not be a null or empty")
+    @Size(max = CardsConstants.FETCH_BATCH_MAX_SIZE, message = "At most {max} Mobile Numbers can be fetched at once")
+    @ArraySchema(
+            schema = @Schema(description = "Mobile Number of Customer", example = "4354437687")
+    )
+    private List<@NotEmpty(message = "Mobile Number can not be a null or empty")
+            @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile Number must be 10 digits") String> mobileNumbers;
+
+}
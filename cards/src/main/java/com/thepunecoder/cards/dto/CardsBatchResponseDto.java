@@ -0,0 +1,27 @@
+package com.thepunecoder.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "CardsBatchResponse",
+        description = "Schema to hold Card information for many mobile numbers"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class CardsBatchResponseDto {
+
+    @Schema(
+            description = "Card details by Mobile Number, in request order"
+    )
+    private Map<String, CardsDto> cards;
+
+    @Schema(
+            description = "Requested Mobile Numbers that have no card"
+    )
+    private List<String> missingMobileNumbers;
+
+}
@@ -0,0 +1,16 @@
+package com.thepunecoder.cards.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled - authorize against the in-memory hold ledger instead of updating the cards table per request
+ * @param flushInterval - how often journaled holds are applied to the cards table
+ * @param maxPendingHolds - holds that may wait for a flush before new holds are refused
+ * @param journalDirectory - absolute path of the hold journal directory; it must survive a restart of the service
+ */
+@ConfigurationProperties(prefix = "hold-ledger")
+public record HoldLedgerConfigDto(boolean enabled, Duration flushInterval, int maxPendingHolds,
+                                  String journalDirectory) {
+}
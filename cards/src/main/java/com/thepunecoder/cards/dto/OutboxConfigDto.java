@@ -0,0 +1,14 @@
+package com.thepunecoder.cards.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param relayInterval - how often the relay publishes new card changes
+ * @param batchSize - most changes published in one relay transaction
+ * @param retention - how long published changes stay available from the change feed
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxConfigDto(Duration relayInterval, int batchSize, Duration retention) {
+}
@@ -0,0 +1,27 @@
+package com.thepunecoder.cards.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled - admit card creates and updates through per mobile number and per client token buckets
+ * @param mobileNumber - bucket of each mobile number
+ * @param client - bucket of each client
+ * @param clientHeader - request header naming the client, set by a gateway listed in trustedProxies
+ * @param trustedProxies - remote addresses whose clientHeader is believed; from any other address the header is
+ *                       ignored and the client is its authenticated user or else its remote address
+ * @param maxKeys - buckets kept per limiter; requests for further keys are refused until idle buckets expire
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitConfigDto(boolean enabled, Bucket mobileNumber, Bucket client, String clientHeader,
+                                 List<String> trustedProxies, int maxKeys) {
+
+    /**
+     * @param capacity - requests that may be made at once
+     * @param refillInterval - time in which one more request is allowed
+     */
+    public record Bucket(int capacity, Duration refillInterval) {
+    }
+}
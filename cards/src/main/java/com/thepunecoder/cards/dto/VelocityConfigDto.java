@@ -0,0 +1,25 @@
+package com.thepunecoder.cards.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled - check every authorization against the velocity rules of its card
+ * @param bucketWidth - time covered by one counter; every rule window must be a multiple of it
+ * @param maxCards - cards tracked at most; memory grows with the cards seen within the longest window up to this.
+ *                   Authorizations of cards beyond it are allowed unchecked (fail open)
+ * @param rules - limits on the authorizations of a card within a window
+ */
+@ConfigurationProperties(prefix = "velocity")
+public record VelocityConfigDto(boolean enabled, Duration bucketWidth, int maxCards, List<Rule> rules) {
+
+    /**
+     * @param window - time over which authorizations are counted
+     * @param maxCount - authorizations allowed in the window, at most 255; 0 for no limit
+     * @param maxAmount - amount allowed in the window, at most 16777215; 0 for no limit
+     */
+    public record Rule(Duration window, int maxCount, int maxAmount) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.thepunecoder.cards.dto;
+
+/**
+ * @param cardsDto - the card
+ * @param eTag - a strong ETag that changes whenever the card changes
+ */
+public record VersionedCardsDto(CardsDto cardsDto, String eTag) {
+}
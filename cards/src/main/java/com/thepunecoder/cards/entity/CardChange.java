@@ -0,0 +1,45 @@
+package com.thepunecoder.cards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a card, written to the outbox in the same transaction as the change itself. The feed position
+ * {@code seq} stays empty until the relay publishes the change.
+ */
+@Entity
+@Table(name = "card_change_outbox", indexes = {
+		@Index(name = "ux_card_change_outbox_seq", columnList = "seq", unique = true)
+})
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardChange {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long changeId;
+
+	private Long seq;
+
+	private String changeType;
+
+	private String mobileNumber;
+
+	private String cardNumber;
+
+	private String cardType;
+
+	private int totalLimit;
+
+	private int amountUsed;
+
+	private int availableAmount;
+
+	private LocalDateTime changedAt;
+
+}
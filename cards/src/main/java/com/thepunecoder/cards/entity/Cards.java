@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(name = "cards", indexes = {
+		@Index(name = "ix_cards_mobile_number", columnList = "mobile_number"),
+		@Index(name = Cards.CARD_NUMBER_INDEX, columnList = "card_number", unique = true)
+})
 @Getter
 @Setter
 @ToString
@@ -11,6 +15,12 @@ import lombok.*;
 @NoArgsConstructor
 public class Cards extends BaseEntity {
 
+	/**
+	 * Name of the unique index on card numbers. A card number issued twice is detected from a violation
+	 * of this index and the card is saved again with a new number.
+	 */
+	public static final String CARD_NUMBER_INDEX = "ux_cards_card_number";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long cardId;
@@ -26,5 +36,11 @@ public class Cards extends BaseEntity {
 	private int amountUsed;
 
 	private int availableAmount;
+
+	/**
+	 * Raised on every write to the card, including the bulk updates of authorizations, so that it can serve as an ETag.
+	 */
+	@Version
+	private long version;
 	
 }
@@ -0,0 +1,12 @@
+package com.thepunecoder.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class HoldLedgerFullException extends RuntimeException {
+
+    public HoldLedgerFullException(int maxPendingHolds) {
+        super(String.format("%d authorizations are waiting to be written. Please try again shortly", maxPendingHolds));
+    }
+}
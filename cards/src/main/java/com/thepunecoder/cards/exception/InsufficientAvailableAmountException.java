@@ -0,0 +1,12 @@
+package com.thepunecoder.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InsufficientAvailableAmountException extends RuntimeException {
+
+    public InsufficientAvailableAmountException(String cardNumber, int amount) {
+        super(String.format("Card '%s' does not have %d available", cardNumber, amount));
+    }
+}
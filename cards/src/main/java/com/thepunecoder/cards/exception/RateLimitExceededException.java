@@ -0,0 +1,26 @@
+package com.thepunecoder.cards.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@Getter
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Whole seconds until the request can be made again, at least one.
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        this(Math.max(1, retryAfter.plusNanos(999_999_999).getSeconds()));
+    }
+
+    private RateLimitExceededException(long retryAfterSeconds) {
+        super(String.format("Too many requests for this card. Please retry after %d seconds", retryAfterSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.thepunecoder.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.util.Locale;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class VelocityLimitExceededException extends RuntimeException {
+
+    public VelocityLimitExceededException(String cardNumber, Duration window) {
+        super(String.format("Card '%s' has reached its authorization limit for the last %s", cardNumber,
+                window.toString().substring(2).toLowerCase(Locale.ROOT)));
+    }
+}
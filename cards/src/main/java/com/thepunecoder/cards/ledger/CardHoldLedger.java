@@ -0,0 +1,438 @@
+package com.thepunecoder.cards.ledger;
+
+import com.thepunecoder.cards.dto.HoldLedgerConfigDto;
+import com.thepunecoder.cards.entity.Cards;
+import com.thepunecoder.cards.exception.HoldLedgerFullException;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
+import com.thepunecoder.cards.exception.ResourceNotFoundException;
+import com.thepunecoder.cards.replica.CardReadReplica;
+import com.thepunecoder.cards.repository.CardsRepository;
+import com.thepunecoder.cards.service.impl.CardPortfolioStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes card holds in memory and writes them to the cards table in batches.
+ *
+ * Each card number maps to the amount used on the card, raised with a compare-and-set against the card's
+ * total limit, so holds on different cards never contend and holds on one card only share a read lock. The
+ * card map is a {@link ConcurrentHashMap}, whose bins stripe updates to the map itself. A card is read from the
+ * cards table after its entry is published, outside the map's bin locks. An approved hold is appended to the
+ * {@link HoldJournal} and acknowledged once it is on disk. A hold whose record may have reached the journal
+ * without being confirmed is refused but kept, since the journal may still apply it.
+ *
+ * Every flush closes the current journal segment and applies its holds to the cards table, one update per card,
+ * in a transaction that also records the last applied sequence number in {@code card_hold_checkpoint}. Segments
+ * are deleted only after that commit, and on start every segment left on disk is applied unless the checkpoint
+ * shows it already was, so an acknowledged hold is written exactly once whatever point a crash happens at.
+ * At most {@code maxPendingHolds} holds wait for a flush; beyond that new holds are refused.
+ *
+ * Card balances are loaded on first use and afterwards owned by the ledger; change a card in the cards table only
+ * through {@link #evict}, which takes the card's write lock, so no hold on the card is in progress while its
+ * balance is written and changed. Only created when {@code hold-ledger.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnBooleanProperty("hold-ledger.enabled")
+public class CardHoldLedger implements SmartLifecycle {
+
+    private static final String FLUSH_SQL = "UPDATE cards SET amount_used = amount_used + ?, "
+            + "available_amount = available_amount - ?, updated_at = ?, updated_by = ?, version = version + 1 "
+            + "WHERE card_number = ?";
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final HoldLedgerConfigDto holdLedgerConfigDto;
+    private final CardsRepository cardsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final ObjectProvider<CardReadReplica> cardReadReplica;
+    private final CardPortfolioStatistics cardPortfolioStatistics;
+    private final String journalId;
+    private final HoldJournal journal;
+
+    private final Map<String, CardHold> cards = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingHolds = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile ScheduledExecutorService scheduler;
+
+    public CardHoldLedger(HoldLedgerConfigDto holdLedgerConfigDto, CardsRepository cardsRepository,
+                          JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          AuditorAware<String> auditorAware, ObjectProvider<CardReadReplica> cardReadReplica,
+                          CardPortfolioStatistics cardPortfolioStatistics) throws IOException {
+        this.holdLedgerConfigDto = holdLedgerConfigDto;
+        this.cardsRepository = cardsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorAware = auditorAware;
+        this.cardReadReplica = cardReadReplica;
+        this.cardPortfolioStatistics = cardPortfolioStatistics;
+        String journalDirectory = holdLedgerConfigDto.journalDirectory();
+        if (journalDirectory == null || journalDirectory.isBlank() || !Path.of(journalDirectory).isAbsolute()) {
+            throw new IllegalStateException("hold-ledger.journal-directory must be set to an absolute path");
+        }
+        Path directory = Path.of(journalDirectory).normalize();
+        this.journalId = directory.toString();
+        this.journal = new HoldJournal(directory);
+    }
+
+    /**
+     * Places a hold of {@code amount} on the card.
+     *
+     * @return the amount still available on the card
+     */
+    public int hold(String cardNumber, int amount) {
+        if (!isRunning()) {
+            throw new IllegalStateException("Hold ledger is not running");
+        }
+        while (true) {
+            CardHold cardHold = cards.get(cardNumber);
+            if (cardHold == null && (cardHold = load(cardNumber)) == null) {
+                throw new ResourceNotFoundException("Card", "CardNumber", cardNumber);
+            }
+            Lock readLock = cardHold.lock.readLock();
+            readLock.lock();
+            try {
+                if (!cardHold.retired) {
+                    return hold(cardNumber, cardHold, amount);
+                }
+            } finally {
+                readLock.unlock();
+            }
+            // the card was evicted while this hold waited for it, so read it again
+        }
+    }
+
+    private int hold(String cardNumber, CardHold cardHold, int amount) {
+        int maxPendingHolds = holdLedgerConfigDto.maxPendingHolds();
+        int pending = pendingHolds.incrementAndGet();
+        if (pending > maxPendingHolds) {
+            pendingHolds.decrementAndGet();
+            requestFlush();
+            throw new HoldLedgerFullException(maxPendingHolds);
+        }
+        int availableAmount = cardHold.reserve(amount);
+        if (availableAmount < 0) {
+            pendingHolds.decrementAndGet();
+            throw new InsufficientAvailableAmountException(cardNumber, amount);
+        }
+        try {
+            journal.append(cardNumber, amount);
+        } catch (HoldJournal.UncertainAppendException exception) {
+            // the record may be on disk and be applied by the next flush or on recovery, so the hold is kept;
+            // the flush also rolls the journal past the failed segment
+            requestFlush();
+            throw new UncheckedIOException(exception);
+        } catch (IOException exception) {
+            cardHold.release(amount);
+            pendingHolds.decrementAndGet();
+            throw new UncheckedIOException(exception);
+        }
+        if (pending >= maxPendingHolds / 2) {
+            requestFlush();
+        }
+        return availableAmount;
+    }
+
+    /**
+     * Writes every journaled hold to the cards table.
+     *
+     * @return the number of holds written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            journal.roll();
+            int flushed = 0;
+            for (Path segment : journal.closedSegments()) {
+                int applied = apply(HoldJournal.read(segment));
+                Files.delete(segment);
+                pendingHolds.addAndGet(-applied);
+                flushed += applied;
+            }
+            return flushed;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending holds, makes a change to the card in the cards table and forgets the card, so that its
+     * balance is read again from the table. Holds on the card wait until the change is done.
+     *
+     * @param change - the change to the cards table, run after the holds on the card are written
+     * @return the result of the change
+     */
+    public <T> T evict(String cardNumber, Supplier<T> change) {
+        flushLock.lock();
+        try {
+            CardHold cardHold = lockForEviction(cardNumber);
+            try {
+                flush();
+                return change.get();
+            } finally {
+                cardHold.retired = true;
+                cards.remove(cardNumber, cardHold);
+                cardHold.lock.writeLock().unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingHolds() {
+        return pendingHolds.get();
+    }
+
+    @Override
+    public void start() {
+        flushLock.lock();
+        try {
+            for (Path segment : journal.closedSegments()) {
+                int applied = apply(HoldJournal.read(segment));
+                Files.delete(segment);
+                if (applied > 0) {
+                    log.info("Recovered {} card holds from {}", applied, segment);
+                }
+            }
+            journal.open(checkpoint());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            flushLock.unlock();
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = holdLedgerConfigDto.flushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            flush();
+            journal.close();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Publishes a write-locked entry for the card and then reads the card from the cards table, unless another
+     * thread published one first. Any earlier entry was evicted, and its holds written, before the put succeeded.
+     *
+     * @return the card's entry, or null when there is no such card
+     */
+    private CardHold load(String cardNumber) {
+        CardHold loading = CardHold.writeLocked();
+        try {
+            CardHold existing = cards.putIfAbsent(cardNumber, loading);
+            if (existing != null) {
+                return existing;
+            }
+            Optional<Cards> card = cardsRepository.findByCardNumber(cardNumber);
+            card.ifPresent(loaded -> loading.load(loaded.getTotalLimit(), loaded.getAmountUsed()));
+            return card.isPresent() ? loading : null;
+        } finally {
+            if (!loading.loaded) {
+                loading.retired = true;
+                cards.remove(cardNumber, loading);
+            }
+            loading.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the card's entry, write-locked; a new placeholder when the card has none, so it cannot be loaded
+     * until the eviction is over
+     */
+    private CardHold lockForEviction(String cardNumber) {
+        while (true) {
+            CardHold placeholder = CardHold.writeLocked();
+            CardHold cardHold = cards.putIfAbsent(cardNumber, placeholder);
+            if (cardHold == null) {
+                return placeholder;
+            }
+            placeholder.lock.writeLock().unlock();
+            cardHold.lock.writeLock().lock();
+            if (!cardHold.retired) {
+                return cardHold;
+            }
+            // a load of the card failed; its entry is already gone
+            cardHold.lock.writeLock().unlock();
+        }
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null && flushRequested.compareAndSet(false, true)) {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            // the segments stay on disk and are retried by the next flush
+            log.error("Could not write card holds, {} waiting", pendingHolds.get(), exception);
+        }
+    }
+
+    /**
+     * Applies the records not yet covered by the checkpoint and moves the checkpoint past them, in one transaction.
+     *
+     * @return the number of records in the segment, applied now or before
+     */
+    private int apply(List<HoldJournal.HoldRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Map<String, Long> appliedAmounts = transactionTemplate.execute(status -> {
+            long checkpoint = checkpoint();
+            // sorted by card number so concurrent flushes of overlapping cards lock rows in the same order
+            Map<String, Long> amounts = new TreeMap<>();
+            long lastSeq = checkpoint;
+            for (HoldJournal.HoldRecord record : records) {
+                if (record.seq() > checkpoint) {
+                    amounts.merge(record.cardNumber(), (long) record.amount(), Long::sum);
+                    lastSeq = Math.max(lastSeq, record.seq());
+                }
+            }
+            if (amounts.isEmpty()) {
+                return amounts;
+            }
+            LocalDateTime updatedAt = LocalDateTime.now();
+            String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+            List<Object[]> batch = new ArrayList<>(Math.min(amounts.size(), FLUSH_BATCH_SIZE));
+            for (Map.Entry<String, Long> entry : amounts.entrySet()) {
+                batch.add(new Object[]{entry.getValue(), entry.getValue(), updatedAt, updatedBy, entry.getKey()});
+                if (batch.size() == FLUSH_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            }
+            jdbcTemplate.update("UPDATE card_hold_checkpoint SET last_seq = ? WHERE journal_id = ?", lastSeq, journalId);
+            return amounts;
+        });
+        // the flushed cards are read back for the statistics and the replica; evictions wait on the flush lock,
+        // so no other change to these cards commits in between
+        CardReadReplica replica = cardReadReplica.getIfAvailable();
+        List<String> flushedCardNumbers = new ArrayList<>(appliedAmounts.keySet());
+        for (int from = 0; from < flushedCardNumbers.size(); from += FLUSH_BATCH_SIZE) {
+            for (Cards card : cardsRepository.findByCardNumberIn(flushedCardNumbers.subList(from,
+                    Math.min(from + FLUSH_BATCH_SIZE, flushedCardNumbers.size())))) {
+                int applied = appliedAmounts.get(card.getCardNumber()).intValue();
+                cardPortfolioStatistics.cardUpdated(card.getTotalLimit(), card.getAmountUsed() - applied,
+                        card.getTotalLimit(), card.getAmountUsed());
+                if (replica != null) {
+                    replica.update(card);
+                }
+            }
+        }
+        return records.size();
+    }
+
+    private long checkpoint() {
+        List<Long> lastSeq = jdbcTemplate.queryForList(
+                "SELECT last_seq FROM card_hold_checkpoint WHERE journal_id = ?", Long.class, journalId);
+        if (lastSeq.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO card_hold_checkpoint (journal_id, last_seq) VALUES (?, 0)", journalId);
+            return 0;
+        }
+        return lastSeq.get(0);
+    }
+
+    /**
+     * The amount used on one card, including holds not yet written to the cards table. Holds take the read lock;
+     * loading and eviction take the write lock. A retired entry is no longer in the card map.
+     */
+    private static final class CardHold {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicInteger amountUsed = new AtomicInteger();
+        private int totalLimit;
+        private boolean loaded;
+        private boolean retired;
+
+        private static CardHold writeLocked() {
+            CardHold cardHold = new CardHold();
+            cardHold.lock.writeLock().lock();
+            return cardHold;
+        }
+
+        private void load(int totalLimit, int amountUsed) {
+            this.totalLimit = totalLimit;
+            this.amountUsed.set(amountUsed);
+            this.loaded = true;
+        }
+
+        /**
+         * @return the amount available after the hold, or -1 when the hold would exceed the total limit
+         */
+        private int reserve(int amount) {
+            while (true) {
+                int used = amountUsed.get();
+                if (used > totalLimit - amount) {
+                    return -1;
+                }
+                if (amountUsed.compareAndSet(used, used + amount)) {
+                    return totalLimit - used - amount;
+                }
+            }
+        }
+
+        private void release(int amount) {
+            amountUsed.addAndGet(-amount);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.thepunecoder.cards.ledger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of authorization holds, split into segment files named after their first sequence number.
+ * {@link #append} returns once the record is forced to disk. Appenders that arrive while another thread is
+ * forcing the file wait for it and are usually covered by the same force, so a busy journal pays for one
+ * {@code fsync} per group of holds rather than per hold.
+ *
+ * Each record is {@code crc32, seq, amount, length, cardNumber}. A record cut short by a crash fails its
+ * checksum and ends the segment when it is read back; it was never forced, so its hold was never acknowledged.
+ *
+ * A write that fails cuts the segment back to the end of the last whole record, so no record written after
+ * it is hidden behind a torn one. A force that fails leaves records in the segment that may or may not be on
+ * disk: their appends throw {@link UncertainAppendException}, and the journal refuses appends until a
+ * {@link #roll} forces the segment and starts a new one. So does a write failure the segment could not be
+ * cut back from.
+ */
+class HoldJournal {
+
+    private static final String SEGMENT_PREFIX = "holds-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    record HoldRecord(long seq, String cardNumber, int amount) {
+    }
+
+    /**
+     * The record was written to the segment but could not be forced to disk; it may still be read back and
+     * applied, so its hold must be kept.
+     */
+    static final class UncertainAppendException extends IOException {
+
+        UncertainAppendException(IOException cause) {
+            super("Hold journal record written but not forced to disk", cause);
+        }
+    }
+
+    private final Path directory;
+    // lock order is syncLock before appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private Path segment;
+    private long lastSeq;
+    // bytes of the current segment taken by whole records
+    private long writtenBytes;
+    private volatile long durableSeq;
+    private volatile boolean failed;
+
+    HoldJournal(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Starts a new segment. Every segment already on disk is left for the caller to apply and delete.
+     */
+    void open(long afterSeq) throws IOException {
+        lastSeq = afterSeq;
+        durableSeq = afterSeq;
+        openSegment();
+    }
+
+    /**
+     * @return the sequence number of the record, which is on disk when this method returns
+     * @throws UncertainAppendException when the record was written but could not be forced to disk
+     * @throws IOException when the record was not written
+     */
+    long append(String cardNumber, int amount) throws IOException {
+        byte[] cardNumberBytes = cardNumber.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + cardNumberBytes.length);
+        long seq;
+        appendLock.lock();
+        try {
+            if (failed) {
+                throw new IOException("Hold journal failed; appends resume after the next roll");
+            }
+            seq = lastSeq + 1;
+            encode(buffer, seq, amount, cardNumberBytes);
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException exception) {
+                discardPartialRecord(exception);
+                throw exception;
+            }
+            writtenBytes += buffer.limit();
+            lastSeq = seq;
+        } finally {
+            appendLock.unlock();
+        }
+        sync(seq);
+        return seq;
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return the closed segment, or {@code null} when it had no records and was reused
+     */
+    Path roll() throws IOException {
+        syncLock.lock();
+        appendLock.lock();
+        try {
+            if (channel.size() == 0 && !failed) {
+                return null;
+            }
+            channel.force(false);
+            durableSeq = lastSeq;
+            channel.close();
+            Path closed = segment;
+            openSegment();
+            failed = false;
+            return closed;
+        } finally {
+            appendLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * @return the segments on disk other than the one being appended to, oldest first
+     */
+    List<Path> closedSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> !file.equals(segment))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    void close() throws IOException {
+        syncLock.lock();
+        appendLock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            appendLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    static List<HoldRecord> read(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<HoldRecord> records = new ArrayList<>();
+        CRC32 crc32 = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int crc = buffer.getInt();
+            long seq = buffer.getLong();
+            int amount = buffer.getInt();
+            int length = buffer.getShort();
+            if (length < 0 || buffer.remaining() < length) {
+                break;
+            }
+            crc32.reset();
+            crc32.update(buffer.array(), start + Integer.BYTES, HEADER_BYTES - Integer.BYTES + length);
+            if ((int) crc32.getValue() != crc) {
+                break;
+            }
+            byte[] cardNumberBytes = new byte[length];
+            buffer.get(cardNumberBytes);
+            records.add(new HoldRecord(seq, new String(cardNumberBytes, StandardCharsets.US_ASCII), amount));
+        }
+        return records;
+    }
+
+    private void sync(long seq) throws IOException {
+        if (durableSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) {
+                return;
+            }
+            if (failed) {
+                throw new UncertainAppendException(new IOException("An earlier force of the hold journal failed"));
+            }
+            long written;
+            appendLock.lock();
+            try {
+                written = lastSeq;
+            } finally {
+                appendLock.unlock();
+            }
+            // the segment cannot be rolled while syncLock is held, so everything up to written is in this channel
+            try {
+                channel.force(false);
+            } catch (IOException exception) {
+                failed = true;
+                throw new UncertainAppendException(exception);
+            }
+            durableSeq = written;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Cuts the segment back to its last whole record after a failed write, or fails the journal when it cannot.
+     */
+    private void discardPartialRecord(IOException exception) {
+        try {
+            channel.truncate(writtenBytes);
+            channel.position(writtenBytes);
+        } catch (IOException truncateException) {
+            exception.addSuppressed(truncateException);
+            failed = true;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, lastSeq + 1, SEGMENT_SUFFIX));
+        channel = openChannel(segment);
+        writtenBytes = 0;
+    }
+
+    /**
+     * Opens a segment for writing, truncating any file left under its name.
+     */
+    FileChannel openChannel(Path segment) throws IOException {
+        return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void encode(ByteBuffer buffer, long seq, int amount, byte[] cardNumberBytes) {
+        buffer.position(Integer.BYTES);
+        buffer.putLong(seq).putInt(amount).putShort((short) cardNumberBytes.length).put(cardNumberBytes);
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), Integer.BYTES, buffer.position() - Integer.BYTES);
+        buffer.putInt(0, (int) crc32.getValue());
+        buffer.flip();
+    }
+}
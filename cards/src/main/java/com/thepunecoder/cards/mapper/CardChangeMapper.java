@@ -0,0 +1,37 @@
+package com.thepunecoder.cards.mapper;
+
+import com.thepunecoder.cards.dto.CardChangeDto;
+import com.thepunecoder.cards.entity.CardChange;
+import com.thepunecoder.cards.entity.Cards;
+
+import java.time.LocalDateTime;
+
+public class CardChangeMapper {
+
+    public static CardChange mapToCardChange(String changeType, Cards cards, CardChange cardChange) {
+        cardChange.setChangeType(changeType);
+        cardChange.setMobileNumber(cards.getMobileNumber());
+        cardChange.setCardNumber(cards.getCardNumber());
+        cardChange.setCardType(cards.getCardType());
+        cardChange.setTotalLimit(cards.getTotalLimit());
+        cardChange.setAmountUsed(cards.getAmountUsed());
+        cardChange.setAvailableAmount(cards.getAvailableAmount());
+        cardChange.setChangedAt(LocalDateTime.now());
+        return cardChange;
+    }
+
+    public static CardChangeDto mapToCardChangeDto(CardChange cardChange, CardChangeDto cardChangeDto) {
+        cardChangeDto.setSeq(cardChange.getSeq());
+        cardChangeDto.setChangeId(cardChange.getChangeId());
+        cardChangeDto.setChangeType(cardChange.getChangeType());
+        cardChangeDto.setMobileNumber(cardChange.getMobileNumber());
+        cardChangeDto.setCardNumber(cardChange.getCardNumber());
+        cardChangeDto.setCardType(cardChange.getCardType());
+        cardChangeDto.setTotalLimit(cardChange.getTotalLimit());
+        cardChangeDto.setAmountUsed(cardChange.getAmountUsed());
+        cardChangeDto.setAvailableAmount(cardChange.getAvailableAmount());
+        cardChangeDto.setChangedAt(cardChange.getChangedAt());
+        return cardChangeDto;
+    }
+
+}
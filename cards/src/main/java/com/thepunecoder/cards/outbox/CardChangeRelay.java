@@ -0,0 +1,118 @@
+package com.thepunecoder.cards.outbox;
+
+import com.thepunecoder.cards.dto.CardChangeDto;
+import com.thepunecoder.cards.dto.OutboxConfigDto;
+import com.thepunecoder.cards.entity.CardChange;
+import com.thepunecoder.cards.mapper.CardChangeMapper;
+import com.thepunecoder.cards.repository.CardChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes card changes from the outbox table to every {@link CardChangeSink}, oldest first, in batches of
+ * {@code outbox.batch-size}.
+ *
+ * Each batch is numbered in the same transaction that publishes it, so feed positions are handed out in commit
+ * order: a consumer reading the feed from {@code seq} onwards never misses a change that commits late. Published
+ * changes are deleted once they are older than {@code outbox.retention}.
+ */
+@Slf4j
+@Component
+public class CardChangeRelay implements SmartLifecycle {
+
+    private final OutboxConfigDto outboxConfigDto;
+    private final CardChangeRepository cardChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<CardChangeSink> cardChangeSinks;
+    private volatile ScheduledExecutorService scheduler;
+
+    public CardChangeRelay(OutboxConfigDto outboxConfigDto, CardChangeRepository cardChangeRepository,
+                           TransactionTemplate transactionTemplate, List<CardChangeSink> cardChangeSinks) {
+        this.outboxConfigDto = outboxConfigDto;
+        this.cardChangeRepository = cardChangeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cardChangeSinks = cardChangeSinks;
+    }
+
+    /**
+     * Publishes one batch of changes.
+     *
+     * @return the number of changes published
+     */
+    public int relay() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<CardChange> cardChanges = cardChangeRepository.findBySeqIsNullOrderByChangeId(
+                    Limit.of(outboxConfigDto.batchSize()));
+            if (cardChanges.isEmpty()) {
+                return 0;
+            }
+            long seq = cardChangeRepository.findLastSeq();
+            List<CardChangeDto> changes = new ArrayList<>(cardChanges.size());
+            for (CardChange cardChange : cardChanges) {
+                cardChange.setSeq(++seq);
+                changes.add(CardChangeMapper.mapToCardChangeDto(cardChange, new CardChangeDto()));
+            }
+            for (CardChangeSink cardChangeSink : cardChangeSinks) {
+                cardChangeSink.publish(changes);
+            }
+            return changes.size();
+        });
+        return published == null ? 0 : published;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "card-change-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = outboxConfigDto.relayInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::relayQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void relayQuietly() {
+        try {
+            // keep going while full batches come back, so a backlog drains without waiting for the next run
+            while (relay() == outboxConfigDto.batchSize()) {
+                if (scheduler == null) {
+                    return;
+                }
+            }
+            LocalDateTime changedBefore = LocalDateTime.now().minus(outboxConfigDto.retention());
+            transactionTemplate.executeWithoutResult(
+                    status -> cardChangeRepository.deletePublishedBefore(changedBefore));
+        } catch (RuntimeException exception) {
+            // the changes stay unpublished and are retried by the next run
+            log.error("Could not relay card changes", exception);
+        }
+    }
+}
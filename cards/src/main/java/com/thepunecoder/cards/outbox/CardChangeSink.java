@@ -0,0 +1,18 @@
+package com.thepunecoder.cards.outbox;
+
+import com.thepunecoder.cards.dto.CardChangeDto;
+
+import java.util.List;
+
+/**
+ * Destination of card changes relayed from the outbox. Every sink bean receives every change, in feed order.
+ *
+ * {@link #publish} runs inside the relay transaction. If it throws, or the transaction fails afterwards, the
+ * batch is published again by the next relay run, so a sink can see the same change twice and should ignore a
+ * {@code changeId} it has already handled.
+ */
+public interface CardChangeSink {
+
+    void publish(List<CardChangeDto> changes);
+
+}
@@ -0,0 +1,32 @@
+package com.thepunecoder.cards.outbox;
+
+import com.thepunecoder.cards.dto.CardChangeDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hands relayed card changes to subscribers in the same JVM, on the relay thread.
+ */
+@Component
+public class InProcessCardChangeBroker implements CardChangeSink {
+
+    private final List<Consumer<List<CardChangeDto>>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<List<CardChangeDto>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<List<CardChangeDto>> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void publish(List<CardChangeDto> changes) {
+        for (Consumer<List<CardChangeDto>> subscriber : subscribers) {
+            subscriber.accept(changes);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.thepunecoder.cards.ratelimit;
+
+import com.thepunecoder.cards.dto.RateLimitConfigDto;
+import com.thepunecoder.cards.exception.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Admits card creates and updates while both the client and the mobile number have a token left, so that
+ * retry storms are turned away before they reach the database. A request refused for its client takes no token
+ * from the mobile number. Only created when {@code rate-limit.enabled} is set.
+ *
+ * The client is the authenticated user when there is one. Otherwise it is the client header, but only on requests
+ * from a trusted proxy, since any caller can set a header; every other request is keyed on its remote address.
+ */
+@Component
+@ConditionalOnBooleanProperty("rate-limit.enabled")
+public class CardMutationRateLimiter {
+
+    private final TokenBucketLimiter clientLimiter;
+    private final TokenBucketLimiter mobileNumberLimiter;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+
+    public CardMutationRateLimiter(RateLimitConfigDto rateLimitConfigDto) {
+        this.clientLimiter = limiter(rateLimitConfigDto.client(), rateLimitConfigDto.maxKeys());
+        this.mobileNumberLimiter = limiter(rateLimitConfigDto.mobileNumber(), rateLimitConfigDto.maxKeys());
+        this.clientHeader = rateLimitConfigDto.clientHeader();
+        this.trustedProxies = rateLimitConfigDto.trustedProxies() == null
+                ? Set.of() : Set.copyOf(rateLimitConfigDto.trustedProxies());
+    }
+
+    /**
+     * @throws RateLimitExceededException when the client or the mobile number has no token left
+     */
+    public void admit(HttpServletRequest request, String mobileNumber) {
+        long waitNanos = clientLimiter.tryAcquire(client(request));
+        if (waitNanos == 0) {
+            waitNanos = mobileNumberLimiter.tryAcquire(mobileNumber);
+        }
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        String client = trustedProxies.contains(remoteAddress) ? request.getHeader(clientHeader) : null;
+        return client != null ? "client:" + client : "address:" + remoteAddress;
+    }
+
+    private static TokenBucketLimiter limiter(RateLimitConfigDto.Bucket bucket, int maxKeys) {
+        return new TokenBucketLimiter(bucket.capacity(), bucket.refillInterval(), maxKeys);
+    }
+}
@@ -0,0 +1,103 @@
+package com.thepunecoder.cards.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, each taking one token per request.
+ *
+ * A bucket is kept as the single time at which it will be full again, so taking a token is one compare-and-set
+ * on an {@link AtomicLong} and a bucket costs one map entry. A bucket that is full again is no different from a
+ * new one, which is what lets it expire: when the map holds {@code maxKeys} buckets the full ones are removed,
+ * at most once per refill of a whole bucket. A new key that still finds no room is refused until a sweep makes
+ * some, so memory stays bounded however many keys are seen and no key is ever admitted on another's bucket.
+ */
+public class TokenBucketLimiter {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long nextSweep;
+
+    public TokenBucketLimiter(int capacity, Duration refillInterval, int maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, Duration refillInterval, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || refillInterval.isNegative() || refillInterval.isZero() || maxKeys < 1) {
+            throw new IllegalArgumentException("Token buckets need a capacity, a refill interval and room for a key");
+        }
+        this.refillNanos = refillInterval.toNanos();
+        this.burstNanos = refillNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.nextSweep = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until the bucket has one
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            // no room for a new key before the next sweep; a sweep still in progress may make some right away
+            long untilSweep = nextSweep - now;
+            return untilSweep > 0 ? Math.max(refillNanos, untilSweep) : refillNanos;
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long emptyFrom = Math.max(fullAt, now);
+            long wait = emptyFrom - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, emptyFrom + refillNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * @return the bucket of the key, or null when it has none and there is no room for one
+     */
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep(now);
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        // a bucket swept while a request still holds it loses at most that request's token
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void sweep(long now) {
+        if (now < nextSweep || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+            nextSweep = now + burstNanos + refillNanos;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
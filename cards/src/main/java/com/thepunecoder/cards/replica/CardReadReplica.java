@@ -0,0 +1,446 @@
+package com.thepunecoder.cards.replica;
+
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.entity.Cards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A copy of the cards table in direct memory, indexed by mobile number and by card number, for fetches that
+ * touch neither the database nor the heap beyond the returned {@link CardsDto}.
+ *
+ * Every card is a fixed {@value #RECORD_BYTES} byte record: the card id, the mobile and card numbers as longs,
+ * the version, the three amounts and the card type as an index into a small dictionary of card types.
+ * Each index is an open addressing table of record numbers with linear probing, at most half full. Records
+ * and indexes double when the records run out; a deleted record is put on a free list threaded through the
+ * card id field.
+ *
+ * Writes take the write lock of a {@link StampedLock}; reads are optimistic and only take the read lock when a
+ * write got in between. Changes are applied after they are committed, and an update is only applied over an
+ * older version of the same card, so late updates and updates of deleted cards are ignored. A card whose mobile
+ * or card number is not a number of up to 18 digits is not held, and is logged when it is written; fetches
+ * of it through the replica find nothing. Only created when {@code read-replica.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnBooleanProperty("read-replica.enabled")
+public class CardReadReplica implements InitializingBean {
+
+    static final int RECORD_BYTES = 48;
+    private static final int CARD_ID = 0;
+    private static final int MOBILE_NUMBER = 8;
+    private static final int CARD_NUMBER = 16;
+    private static final int VERSION = 24;
+    private static final int TOTAL_LIMIT = 32;
+    private static final int AMOUNT_USED = 36;
+    private static final int AVAILABLE_AMOUNT = 40;
+    private static final int CARD_TYPE = 44;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int NOT_FOUND = -1;
+
+    private static final String LOAD_SQL = "SELECT card_id, mobile_number, card_number, card_type, total_limit, "
+            + "amount_used, available_amount, version FROM cards";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Integer> cardTypeCodes = new HashMap<>();
+    private volatile String[] cardTypes = new String[0];
+    private volatile Tables tables = new Tables(MIN_CAPACITY);
+    private int size;
+    private int freeRecord = NOT_FOUND;
+    private int nextRecord;
+
+    public CardReadReplica(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load();
+    }
+
+    /**
+     * Streams the cards table into the replica, adding the cards it does not have and updating those it has
+     * an older version of.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        Cards cards = new Cards();
+        jdbcTemplate.query(LOAD_SQL, resultSet -> {
+            cards.setCardId(resultSet.getLong(1));
+            cards.setMobileNumber(resultSet.getString(2));
+            cards.setCardNumber(resultSet.getString(3));
+            cards.setCardType(resultSet.getString(4));
+            cards.setTotalLimit(resultSet.getInt(5));
+            cards.setAmountUsed(resultSet.getInt(6));
+            cards.setAvailableAmount(resultSet.getInt(7));
+            cards.setVersion(resultSet.getLong(8));
+            insert(cards);
+        });
+        log.info("Loaded {} cards into the read replica in {} ms, {} bytes of direct memory",
+                size(), (System.nanoTime() - start) / 1_000_000, getDirectBytes());
+    }
+
+    /**
+     * @return the card, or null when no card has the mobile number
+     */
+    public CardsDto findByMobileNumber(String mobileNumber) {
+        return find(MOBILE_NUMBER, key(mobileNumber));
+    }
+
+    /**
+     * @return the card, or null when no card has the card number
+     */
+    public CardsDto findByCardNumber(String cardNumber) {
+        return find(CARD_NUMBER, key(cardNumber));
+    }
+
+    /**
+     * @return the card id and version as {@code cardId.version}, or null when no card has the mobile number
+     */
+    public String findVersionTagByMobileNumber(String mobileNumber) {
+        long key = key(mobileNumber);
+        long stamp = lock.tryOptimisticRead();
+        Tables current = tables;
+        int record = current.locate(MOBILE_NUMBER, key);
+        long cardId = record == NOT_FOUND ? 0 : current.records.getLong(record + CARD_ID);
+        long version = record == NOT_FOUND ? 0 : current.records.getLong(record + VERSION);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = tables;
+                record = current.locate(MOBILE_NUMBER, key);
+                cardId = record == NOT_FOUND ? 0 : current.records.getLong(record + CARD_ID);
+                version = record == NOT_FOUND ? 0 : current.records.getLong(record + VERSION);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return record == NOT_FOUND ? null : cardId + "." + version;
+    }
+
+    /**
+     * Adds a new card, or updates it when the replica already has an older version of it.
+     */
+    public void insert(Cards cards) {
+        long mobileNumber = key(cards.getMobileNumber());
+        long cardNumber = key(cards.getCardNumber());
+        long stamp = lock.writeLock();
+        try {
+            int record = cardNumber < 0 ? NOT_FOUND : tables.locate(CARD_NUMBER, cardNumber);
+            if (mobileNumber < 0 || cardNumber < 0) {
+                skip(record, cards);
+            } else if (record == NOT_FOUND) {
+                add(cards, mobileNumber, cardNumber);
+            } else {
+                replace(record, cards, mobileNumber, cardNumber);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Updates a card the replica has an older version of; anything else is ignored.
+     */
+    public void update(Cards cards) {
+        long mobileNumber = key(cards.getMobileNumber());
+        long cardNumber = key(cards.getCardNumber());
+        long stamp = lock.writeLock();
+        try {
+            int record = cardNumber < 0 ? NOT_FOUND : tables.locate(CARD_NUMBER, cardNumber);
+            if (mobileNumber < 0 || cardNumber < 0) {
+                skip(record, cards);
+            } else if (record != NOT_FOUND) {
+                replace(record, cards, mobileNumber, cardNumber);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void delete(Cards cards) {
+        long cardNumber = key(cards.getCardNumber());
+        if (cardNumber < 0) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int record = tables.locate(CARD_NUMBER, cardNumber);
+            if (record != NOT_FOUND && tables.records.getLong(record + CARD_ID) == cards.getCardId()) {
+                remove(record);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return bytes of direct memory held by the records and both indexes
+     */
+    public long getDirectBytes() {
+        Tables current = tables;
+        return current.records.capacity() + 4L * (current.mobileNumbers.capacity() + current.cardNumbers.capacity());
+    }
+
+    private CardsDto find(int keyOffset, long key) {
+        CardsDto cardsDto = new CardsDto();
+        long stamp = lock.tryOptimisticRead();
+        boolean found = read(keyOffset, key, cardsDto);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = read(keyOffset, key, cardsDto);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found ? cardsDto : null;
+    }
+
+    /**
+     * Copies the card into {@code cardsDto}; under an optimistic read the copy may be torn and is only used
+     * after the stamp is validated.
+     */
+    private boolean read(int keyOffset, long key, CardsDto cardsDto) {
+        Tables current = tables;
+        int record = current.locate(keyOffset, key);
+        if (record == NOT_FOUND) {
+            return false;
+        }
+        ByteBuffer records = current.records;
+        String[] types = cardTypes;
+        int cardType = records.getShort(record + CARD_TYPE);
+        cardsDto.setMobileNumber(digits(records.getLong(record + MOBILE_NUMBER), 10));
+        cardsDto.setCardNumber(digits(records.getLong(record + CARD_NUMBER), 12));
+        cardsDto.setCardType(cardType < types.length ? types[cardType] : null);
+        cardsDto.setTotalLimit(records.getInt(record + TOTAL_LIMIT));
+        cardsDto.setAmountUsed(records.getInt(record + AMOUNT_USED));
+        cardsDto.setAvailableAmount(records.getInt(record + AVAILABLE_AMOUNT));
+        return true;
+    }
+
+    /**
+     * Leaves out a card that cannot be indexed, removing the older version of it the replica may hold.
+     */
+    private void skip(int record, Cards cards) {
+        log.warn("Card {} is not held in the read replica: its mobile or card number is not a number",
+                cards.getCardId());
+        Tables current = tables;
+        if (record != NOT_FOUND && current.records.getLong(record + CARD_ID) == cards.getCardId()
+                && current.records.getLong(record + VERSION) < cards.getVersion()) {
+            remove(record);
+        }
+    }
+
+    private void remove(int record) {
+        Tables current = tables;
+        current.unindex(MOBILE_NUMBER, current.records.getLong(record + MOBILE_NUMBER));
+        current.unindex(CARD_NUMBER, current.records.getLong(record + CARD_NUMBER));
+        current.records.putLong(record + CARD_ID, freeRecord);
+        freeRecord = record / RECORD_BYTES;
+        size--;
+    }
+
+    private void add(Cards cards, long mobileNumber, long cardNumber) {
+        int recordNumber;
+        if (freeRecord != NOT_FOUND) {
+            recordNumber = freeRecord;
+            freeRecord = (int) tables.records.getLong(recordNumber * RECORD_BYTES + CARD_ID);
+        } else {
+            if (nextRecord == tables.recordCapacity) {
+                tables = tables.grow(nextRecord);
+            }
+            recordNumber = nextRecord++;
+        }
+        int record = recordNumber * RECORD_BYTES;
+        write(record, cards, mobileNumber, cardNumber);
+        tables.index(MOBILE_NUMBER, record);
+        tables.index(CARD_NUMBER, record);
+        size++;
+    }
+
+    private void replace(int record, Cards cards, long newMobileNumber, long cardNumber) {
+        Tables current = tables;
+        if (current.records.getLong(record + CARD_ID) != cards.getCardId()
+                || current.records.getLong(record + VERSION) >= cards.getVersion()) {
+            return;
+        }
+        long oldMobileNumber = current.records.getLong(record + MOBILE_NUMBER);
+        if (oldMobileNumber != newMobileNumber) {
+            current.unindex(MOBILE_NUMBER, oldMobileNumber);
+        }
+        write(record, cards, newMobileNumber, cardNumber);
+        if (oldMobileNumber != newMobileNumber) {
+            current.index(MOBILE_NUMBER, record);
+        }
+    }
+
+    private void write(int record, Cards cards, long mobileNumber, long cardNumber) {
+        ByteBuffer records = tables.records;
+        records.putLong(record + CARD_ID, cards.getCardId());
+        records.putLong(record + MOBILE_NUMBER, mobileNumber);
+        records.putLong(record + CARD_NUMBER, cardNumber);
+        records.putLong(record + VERSION, cards.getVersion());
+        records.putInt(record + TOTAL_LIMIT, cards.getTotalLimit());
+        records.putInt(record + AMOUNT_USED, cards.getAmountUsed());
+        records.putInt(record + AVAILABLE_AMOUNT, cards.getAvailableAmount());
+        records.putShort(record + CARD_TYPE, cardTypeCode(cards.getCardType()));
+    }
+
+    private short cardTypeCode(String cardType) {
+        Integer code = cardTypeCodes.get(cardType);
+        if (code == null) {
+            code = cardTypes.length;
+            if (code > Short.MAX_VALUE) {
+                throw new IllegalStateException("The read replica holds at most 32768 card types");
+            }
+            cardTypeCodes.put(cardType, code);
+            String[] types = Arrays.copyOf(cardTypes, code + 1);
+            types[code] = cardType;
+            cardTypes = types;
+        }
+        return code.shortValue();
+    }
+
+    /**
+     * @return the number as a key, or -1, which matches no card, when it is not a number of up to 18 digits
+     */
+    private static long key(String number) {
+        if (number == null || number.isEmpty() || number.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < number.length(); i++) {
+            if (number.charAt(i) < '0' || number.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(number);
+    }
+
+    private static String digits(long number, int length) {
+        String digits = Long.toString(number);
+        return digits.length() >= length ? digits : "0".repeat(length - digits.length()) + digits;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * The records and both indexes; replaced as a whole when the replica grows. An index slot holds the record
+     * number plus one, 0 for a free slot.
+     */
+    private static final class Tables {
+
+        private final int recordCapacity;
+        private final ByteBuffer records;
+        private final IntBuffer mobileNumbers;
+        private final IntBuffer cardNumbers;
+        private final int mask;
+
+        private Tables(int recordCapacity) {
+            this.recordCapacity = recordCapacity;
+            this.records = ByteBuffer.allocateDirect(recordCapacity * RECORD_BYTES);
+            this.mobileNumbers = ByteBuffer.allocateDirect(8 * recordCapacity).asIntBuffer();
+            this.cardNumbers = ByteBuffer.allocateDirect(8 * recordCapacity).asIntBuffer();
+            this.mask = 2 * recordCapacity - 1;
+        }
+
+        /**
+         * @return a copy with twice the records, holding the first {@code used} records
+         */
+        private Tables grow(int used) {
+            Tables grown = new Tables(recordCapacity * 2);
+            grown.records.put(0, records, 0, used * RECORD_BYTES);
+            for (int slot = 0; slot <= mask; slot++) {
+                int mobileNumberEntry = mobileNumbers.get(slot);
+                if (mobileNumberEntry != 0) {
+                    grown.index(MOBILE_NUMBER, (mobileNumberEntry - 1) * RECORD_BYTES);
+                }
+                int cardNumberEntry = cardNumbers.get(slot);
+                if (cardNumberEntry != 0) {
+                    grown.index(CARD_NUMBER, (cardNumberEntry - 1) * RECORD_BYTES);
+                }
+            }
+            return grown;
+        }
+
+        /**
+         * @return the byte offset of the record with the key, or {@link #NOT_FOUND}
+         */
+        private int locate(int keyOffset, long key) {
+            IntBuffer index = index(keyOffset);
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                int entry = index.get(slot);
+                if (entry == 0) {
+                    return NOT_FOUND;
+                }
+                int record = (entry - 1) * RECORD_BYTES;
+                if (records.getLong(record + keyOffset) == key) {
+                    return record;
+                }
+            }
+        }
+
+        private void index(int keyOffset, int record) {
+            IntBuffer index = index(keyOffset);
+            int slot = hash(records.getLong(record + keyOffset)) & mask;
+            while (index.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index.put(slot, record / RECORD_BYTES + 1);
+        }
+
+        /**
+         * Removes the key and shifts back the entries after it that would no longer be found.
+         */
+        private void unindex(int keyOffset, long key) {
+            IntBuffer index = index(keyOffset);
+            int hole = hash(key) & mask;
+            while (index.get(hole) != 0 && records.getLong((index.get(hole) - 1) * RECORD_BYTES + keyOffset) != key) {
+                hole = (hole + 1) & mask;
+            }
+            if (index.get(hole) == 0) {
+                return;
+            }
+            for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+                int entry = index.get(slot);
+                if (entry == 0) {
+                    break;
+                }
+                int home = hash(records.getLong((entry - 1) * RECORD_BYTES + keyOffset)) & mask;
+                boolean reachable = hole < slot ? home > hole && home <= slot : home > hole || home <= slot;
+                if (!reachable) {
+                    index.put(hole, entry);
+                    hole = slot;
+                }
+            }
+            index.put(hole, 0);
+        }
+
+        private IntBuffer index(int keyOffset) {
+            return keyOffset == MOBILE_NUMBER ? mobileNumbers : cardNumbers;
+        }
+    }
+}
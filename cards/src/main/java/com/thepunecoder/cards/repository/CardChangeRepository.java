@@ -0,0 +1,34 @@
+package com.thepunecoder.cards.repository;
+
+import com.thepunecoder.cards.entity.CardChange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CardChangeRepository extends JpaRepository<CardChange, Long> {
+
+    /**
+     * Locks the oldest unpublished changes, so that relays on several instances never publish the same change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<CardChange> findBySeqIsNullOrderByChangeId(Limit limit);
+
+    @Query("select coalesce(max(c.seq), 0) from CardChange c")
+    long findLastSeq();
+
+    List<CardChange> findBySeqGreaterThanOrderBySeq(long seq, Limit limit);
+
+    @Modifying
+    @Query("delete from CardChange c where c.seq is not null and c.changedAt < :changedBefore")
+    int deletePublishedBefore(@Param("changedBefore") LocalDateTime changedBefore);
+
+}
@@ -2,8 +2,14 @@ package com.thepunecoder.cards.repository;
 
 import com.thepunecoder.cards.entity.Cards;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +19,26 @@ public interface CardsRepository extends JpaRepository<Cards, Long> {
 
     Optional<Cards> findByCardNumber(String cardNumber);
 
+    List<Cards> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    List<Cards> findByCardNumberIn(Collection<String> cardNumbers);
+
+    /**
+     * Moves {@code amount} from the available amount to the amount used in a single statement. The balance
+     * check is part of the update, so concurrent debits can never take the available amount below zero.
+     *
+     * @return the number of rows updated, 0 when the card does not exist or has less than {@code amount} available
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Cards c set c.availableAmount = c.availableAmount - :amount,
+                               c.amountUsed = c.amountUsed + :amount,
+                               c.updatedAt = :updatedAt, c.updatedBy = :updatedBy, c.version = c.version + 1
+            where c.cardNumber = :cardNumber and c.availableAmount >= :amount""")
+    int debitAvailableAmount(@Param("cardNumber") String cardNumber, @Param("amount") int amount,
+                             @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    @Query("select c.availableAmount from Cards c where c.cardNumber = :cardNumber")
+    Optional<Integer> findAvailableAmountByCardNumber(@Param("cardNumber") String cardNumber);
+
 }
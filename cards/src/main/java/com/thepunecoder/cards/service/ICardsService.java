@@ -1,6 +1,14 @@
 package com.thepunecoder.cards.service;
 
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.AuthorizationResponseDto;
+import com.thepunecoder.cards.dto.CardChangesDto;
+import com.thepunecoder.cards.dto.CardStatsDto;
+import com.thepunecoder.cards.dto.CardsBatchResponseDto;
 import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.dto.VersionedCardsDto;
+
+import java.util.List;
 
 public interface ICardsService {
 
@@ -17,6 +25,20 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details based on a given mobileNumber, with a strong ETag that changes whenever the card changes
+     */
+    VersionedCardsDto fetchVersionedCard(String mobileNumber);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details by mobile number and the mobile numbers without a card
+     */
+    CardsBatchResponseDto fetchCards(List<String> mobileNumbers);
+
     /**
      *
      * @param cardsDto - CardsDto Object
@@ -31,4 +53,25 @@ public interface ICardsService {
      */
     boolean deleteCard(String mobileNumber);
 
+    /**
+     *
+     * @param authorizationRequestDto - Card Number and amount to debit
+     * @return the debited amount and the available amount left on the card
+     */
+    AuthorizationResponseDto authorize(AuthorizationRequestDto authorizationRequestDto);
+
+    /**
+     *
+     * @param afterSeq - feed position of the last change already seen
+     * @param limit - most changes to return
+     * @return the published changes after afterSeq, in feed order
+     */
+    CardChangesDto fetchChanges(long afterSeq, int limit);
+
+    /**
+     *
+     * @return card count, limit and utilization totals across all cards
+     */
+    CardStatsDto fetchStats();
+
 }
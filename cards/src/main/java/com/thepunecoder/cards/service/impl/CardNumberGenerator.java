@@ -0,0 +1,148 @@
+package com.thepunecoder.cards.service.impl;
+
+import com.thepunecoder.cards.constants.CardsConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
+
+/**
+ * Generates {@value CardsConstants#CARD_NUMBER_LENGTH} digit card numbers: the issuer digit
+ * {@value CardsConstants#CARD_NUMBER_ISSUER_DIGIT}, ten random digits and a Luhn check digit.
+ *
+ * Every number issued or found in the cards table at startup goes into a Bloom filter. A candidate the filter has
+ * never seen is certainly unused and is returned without a database round trip; only the few candidates it may
+ * have seen are looked up. The unique index on {@code card_number} is the final guard against two instances, or
+ * two threads, issuing the same number before either card is saved.
+ */
+@Slf4j
+@Component
+public class CardNumberGenerator implements InitializingBean {
+
+    private static final long RANDOM_DIGITS_BOUND = 10_000_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LongPredicate issuedBefore;
+    private final LongBloomFilter issued;
+    private final SecureRandom random = new SecureRandom();
+    private final LongAdder lookups = new LongAdder();
+
+    @Autowired
+    public CardNumberGenerator(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, cardNumber -> existsInCardsTable(jdbcTemplate, cardNumber),
+                CardsConstants.CARD_NUMBER_EXPECTED_CARDS);
+    }
+
+    /**
+     * @param issuedBefore - lookup used when the Bloom filter may have seen a candidate, instead of the cards table
+     */
+    CardNumberGenerator(LongPredicate issuedBefore, long expectedCards) {
+        this(null, issuedBefore, expectedCards);
+    }
+
+    private CardNumberGenerator(JdbcTemplate jdbcTemplate, LongPredicate issuedBefore, long expectedCards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.issuedBefore = issuedBefore;
+        this.issued = new LongBloomFilter(expectedCards, CardsConstants.CARD_NUMBER_BLOOM_FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * Loads the card numbers already in the cards table into the Bloom filter.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] count = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("SELECT card_number FROM cards");
+            statement.setFetchSize(CardsConstants.FETCH_BATCH_CHUNK_SIZE);
+            return statement;
+        }, resultSet -> {
+            String cardNumber = resultSet.getString(1);
+            if (isCardNumber(cardNumber)) {
+                issued.put(Long.parseLong(cardNumber));
+                count[0]++;
+            }
+        });
+        log.info("Loaded {} card numbers into a {} KB Bloom filter in {} ms", count[0],
+                issued.sizeInBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return a Luhn-valid card number that is not in the cards table and has not been returned before
+     */
+    public String next() {
+        while (true) {
+            long payload = CardsConstants.CARD_NUMBER_ISSUER_DIGIT * RANDOM_DIGITS_BOUND + random.nextLong(RANDOM_DIGITS_BOUND);
+            long cardNumber = payload * 10 + luhnCheckDigit(payload);
+            if (issued.put(cardNumber)) {
+                return Long.toString(cardNumber);
+            }
+            lookups.increment();
+            if (!issuedBefore.test(cardNumber)) {
+                return Long.toString(cardNumber);
+            }
+        }
+    }
+
+    /**
+     * @return false when the card number has certainly not been issued or loaded at startup
+     */
+    boolean mightBeIssued(String cardNumber) {
+        return isCardNumber(cardNumber) && issued.mightContain(Long.parseLong(cardNumber));
+    }
+
+    /**
+     * @return the number of candidates that had to be looked up because the Bloom filter may have seen them
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return the digit that makes {@code payload} followed by it pass the Luhn check
+     */
+    static int luhnCheckDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = payload; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static boolean isCardNumber(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() != CardsConstants.CARD_NUMBER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char digit = cardNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean existsInCardsTable(JdbcTemplate jdbcTemplate, long cardNumber) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM cards WHERE card_number = ?", Integer.class,
+                Long.toString(cardNumber)).isEmpty();
+    }
+}
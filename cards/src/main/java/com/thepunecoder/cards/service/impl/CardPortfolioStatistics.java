@@ -0,0 +1,163 @@
+package com.thepunecoder.cards.service.impl;
+
+import com.thepunecoder.cards.dto.CardStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Card count, limit and utilization totals kept in {@link LongAdder}s, so that reading them costs the same
+ * however many cards there are. The card service records every create, update, delete and debit after it
+ * commits, and the hold ledger every flush of holds to the cards table.
+ *
+ * As a safety net against changes made to the table by other means, the totals are replaced from one aggregate
+ * query over the cards table every {@code stats.reconcile-interval}. A change that commits while that query runs
+ * may be counted twice or not at all until the next reconciliation.
+ */
+@Slf4j
+@Component
+public class CardPortfolioStatistics implements SmartLifecycle {
+
+    private static final int BUCKETS = 11;
+    private static final String RECONCILE_SQL = """
+            SELECT CASE WHEN total_limit <= 0 THEN 0
+                        ELSE LEAST(10, GREATEST(0, CAST(amount_used AS BIGINT) * 10 / total_limit)) END AS bucket,
+                   COUNT(*), SUM(CAST(total_limit AS BIGINT)), SUM(CAST(amount_used AS BIGINT))
+            FROM cards GROUP BY bucket""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration reconcileInterval;
+    private volatile Totals totals = new Totals();
+    private volatile ScheduledExecutorService scheduler;
+
+    public CardPortfolioStatistics(JdbcTemplate jdbcTemplate,
+                                   @Value("${stats.reconcile-interval:5m}") Duration reconcileInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    public void cardCreated(int totalLimit, int amountUsed) {
+        Totals current = totals;
+        current.cardCount.increment();
+        current.add(totalLimit, amountUsed, 1);
+    }
+
+    public void cardUpdated(int oldTotalLimit, int oldAmountUsed, int totalLimit, int amountUsed) {
+        Totals current = totals;
+        current.add(oldTotalLimit, oldAmountUsed, -1);
+        current.add(totalLimit, amountUsed, 1);
+    }
+
+    public void cardDeleted(int totalLimit, int amountUsed) {
+        Totals current = totals;
+        current.cardCount.decrement();
+        current.add(totalLimit, amountUsed, -1);
+    }
+
+    public CardStatsDto getStats() {
+        Totals current = totals;
+        long totalLimit = current.totalLimit.sum();
+        long totalUsed = current.totalUsed.sum();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            histogram.put(bucketLabel(bucket), current.buckets[bucket].sum());
+        }
+        return new CardStatsDto(current.cardCount.sum(), totalLimit, totalUsed,
+                totalLimit == 0 ? 0 : (double) totalUsed / totalLimit, histogram, current.reconciledAt);
+    }
+
+    /**
+     * Replaces the totals with ones computed from the cards table.
+     */
+    public void reconcile() {
+        Totals reconciled = new Totals();
+        jdbcTemplate.query(RECONCILE_SQL, resultSet -> {
+            long cards = resultSet.getLong(2);
+            reconciled.buckets[resultSet.getInt(1)].add(cards);
+            reconciled.cardCount.add(cards);
+            reconciled.totalLimit.add(resultSet.getLong(3));
+            reconciled.totalUsed.add(resultSet.getLong(4));
+        });
+        long drift = reconciled.totalUsed.sum() - totals.totalUsed.sum();
+        if (drift != 0) {
+            log.debug("Card statistics reconciled, total used was off by {}", drift);
+        }
+        totals = reconciled;
+    }
+
+    @Override
+    public void start() {
+        reconcile();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "card-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = reconcileInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reconcileQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException exception) {
+            log.error("Could not reconcile card statistics", exception);
+        }
+    }
+
+    static int bucket(int totalLimit, int amountUsed) {
+        if (totalLimit <= 0) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.max(0, (long) amountUsed * 10 / totalLimit));
+    }
+
+    private static String bucketLabel(int bucket) {
+        return bucket == BUCKETS - 1 ? "100%" : (bucket * 10) + "-" + (bucket * 10 + 10) + "%";
+    }
+
+    private static final class Totals {
+
+        private final LongAdder cardCount = new LongAdder();
+        private final LongAdder totalLimit = new LongAdder();
+        private final LongAdder totalUsed = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LocalDateTime reconciledAt = LocalDateTime.now();
+
+        private Totals() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void add(int limit, int used, int sign) {
+            totalLimit.add((long) sign * limit);
+            totalUsed.add((long) sign * used);
+            buckets[bucket(limit, used)].add(sign);
+        }
+    }
+}
@@ -1,24 +1,61 @@
 package com.thepunecoder.cards.service.impl;
 
 import com.thepunecoder.cards.constants.CardsConstants;
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.AuthorizationResponseDto;
+import com.thepunecoder.cards.dto.CardChangeDto;
+import com.thepunecoder.cards.dto.CardChangesDto;
+import com.thepunecoder.cards.dto.CardStatsDto;
+import com.thepunecoder.cards.dto.CardsBatchResponseDto;
 import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.dto.VersionedCardsDto;
+import com.thepunecoder.cards.entity.CardChange;
 import com.thepunecoder.cards.entity.Cards;
 import com.thepunecoder.cards.exception.CardAlreadyExistsException;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
 import com.thepunecoder.cards.exception.ResourceNotFoundException;
+import com.thepunecoder.cards.ledger.CardHoldLedger;
+import com.thepunecoder.cards.mapper.CardChangeMapper;
 import com.thepunecoder.cards.mapper.CardsMapper;
+import com.thepunecoder.cards.replica.CardReadReplica;
+import com.thepunecoder.cards.repository.CardChangeRepository;
 import com.thepunecoder.cards.repository.CardsRepository;
 import com.thepunecoder.cards.service.ICardsService;
+import com.thepunecoder.cards.velocity.CardVelocityTracker;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
     private CardsRepository cardsRepository;
+    private TransactionTemplate transactionTemplate;
+    private AuditorAware<String> auditorAware;
+    private ObjectProvider<CardHoldLedger> cardHoldLedger;
+    private CardNumberGenerator cardNumberGenerator;
+    private CardChangeRepository cardChangeRepository;
+    private CardPortfolioStatistics cardPortfolioStatistics;
+    private ObjectProvider<CardVelocityTracker> cardVelocityTracker;
+    private ObjectProvider<CardReadReplica> cardReadReplica;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
@@ -29,7 +66,24 @@ public class CardsServiceImpl implements ICardsService {
         if(optionalCards.isPresent()){
             throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
         }
-        cardsRepository.save(createNewCard(mobileNumber));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Cards newCard = createNewCard(mobileNumber);
+                Cards savedCard = transactionTemplate.execute(status -> {
+                    Cards saved = cardsRepository.save(newCard);
+                    recordChange(CardsConstants.CHANGE_CREATED, saved);
+                    return saved;
+                });
+                cardPortfolioStatistics.cardCreated(newCard.getTotalLimit(), newCard.getAmountUsed());
+                cardReadReplica.ifAvailable(replica -> replica.insert(savedCard));
+                return;
+            } catch (DataIntegrityViolationException exception) {
+                // another instance issued the same card number between our check and our insert
+                if (!isCardNumberConflict(exception) || attempt >= CardsConstants.CARD_NUMBER_MAX_ATTEMPTS) {
+                    throw exception;
+                }
+            }
+        }
     }
 
     /**
@@ -38,8 +92,7 @@ public class CardsServiceImpl implements ICardsService {
      */
     private Cards createNewCard(String mobileNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(cardNumberGenerator.next());
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -48,6 +101,31 @@ public class CardsServiceImpl implements ICardsService {
         return newCard;
     }
 
+    /**
+     * Writes the change to the outbox; called inside the transaction that makes the change.
+     *
+     * @param changeType - Kind of change
+     * @param cards - the card after the change
+     */
+    private void recordChange(String changeType, Cards cards) {
+        cardChangeRepository.save(CardChangeMapper.mapToCardChange(changeType, cards, new CardChange()));
+    }
+
+    /**
+     * @param exception - integrity violation raised while inserting a card
+     * @return true if the violated constraint is the unique card number index
+     */
+    private boolean isCardNumberConflict(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException constraintViolation) {
+                String constraintName = constraintViolation.getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(Cards.CARD_NUMBER_INDEX);
+            }
+        }
+        return false;
+    }
+
     /**
      *
      * @param mobileNumber - Input mobile Number
@@ -55,12 +133,94 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public CardsDto fetchCard(String mobileNumber) {
+        CardReadReplica replica = cardReadReplica.getIfAvailable();
+        if (replica != null) {
+            CardsDto cardsDto = replica.findByMobileNumber(mobileNumber);
+            if (cardsDto == null) {
+                throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+            }
+            return cardsDto;
+        }
         Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
         return CardsMapper.mapToCardsDto(cards, new CardsDto());
     }
 
+    /**
+     * Reads the card with one query, or from the replica when it is enabled.
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details with the card id and version as a quoted ETag
+     */
+    @Override
+    public VersionedCardsDto fetchVersionedCard(String mobileNumber) {
+        CardReadReplica replica = cardReadReplica.getIfAvailable();
+        if (replica != null) {
+            // the tag is read first: a change in between pairs a newer card with an older tag, which only costs
+            // the client one more full response
+            String versionTag = replica.findVersionTagByMobileNumber(mobileNumber);
+            CardsDto cardsDto = versionTag == null ? null : replica.findByMobileNumber(mobileNumber);
+            if (cardsDto == null) {
+                throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+            }
+            return new VersionedCardsDto(cardsDto, "\"" + versionTag + "\"");
+        }
+        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
+        );
+        return new VersionedCardsDto(CardsMapper.mapToCardsDto(cards, new CardsDto()),
+                "\"" + cards.getCardId() + "." + cards.getVersion() + "\"");
+    }
+
+    /**
+     * Looks the cards up with one IN query per {@code FETCH_BATCH_CHUNK_SIZE} distinct mobile numbers.
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details by mobile number and the mobile numbers without a card
+     */
+    @Override
+    public CardsBatchResponseDto fetchCards(List<String> mobileNumbers) {
+        List<String> distinctMobileNumbers = new ArrayList<>(new LinkedHashSet<>(mobileNumbers));
+        CardReadReplica replica = cardReadReplica.getIfAvailable();
+        if (replica != null) {
+            return fetchCards(distinctMobileNumbers, replica);
+        }
+        Map<String, Cards> found = new LinkedHashMap<>();
+        for (int from = 0; from < distinctMobileNumbers.size(); from += CardsConstants.FETCH_BATCH_CHUNK_SIZE) {
+            List<String> chunk = distinctMobileNumbers.subList(from,
+                    Math.min(from + CardsConstants.FETCH_BATCH_CHUNK_SIZE, distinctMobileNumbers.size()));
+            for (Cards cards : cardsRepository.findByMobileNumberIn(chunk)) {
+                found.putIfAbsent(cards.getMobileNumber(), cards);
+            }
+        }
+        Map<String, CardsDto> cardsDtos = new LinkedHashMap<>();
+        List<String> missingMobileNumbers = new ArrayList<>();
+        for (String mobileNumber : distinctMobileNumbers) {
+            Cards cards = found.get(mobileNumber);
+            if (cards == null) {
+                missingMobileNumbers.add(mobileNumber);
+            } else {
+                cardsDtos.put(mobileNumber, CardsMapper.mapToCardsDto(cards, new CardsDto()));
+            }
+        }
+        return new CardsBatchResponseDto(cardsDtos, missingMobileNumbers);
+    }
+
+    private CardsBatchResponseDto fetchCards(List<String> distinctMobileNumbers, CardReadReplica replica) {
+        Map<String, CardsDto> cardsDtos = new LinkedHashMap<>();
+        List<String> missingMobileNumbers = new ArrayList<>();
+        for (String mobileNumber : distinctMobileNumbers) {
+            CardsDto cardsDto = replica.findByMobileNumber(mobileNumber);
+            if (cardsDto == null) {
+                missingMobileNumbers.add(mobileNumber);
+            } else {
+                cardsDtos.put(mobileNumber, cardsDto);
+            }
+        }
+        return new CardsBatchResponseDto(cardsDtos, missingMobileNumbers);
+    }
+
     /**
      *
      * @param cardsDto - CardsDto Object
@@ -68,10 +228,23 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public boolean updateCard(CardsDto cardsDto) {
+        CardHoldLedger ledger = cardHoldLedger.getIfAvailable();
+        return ledger == null ? saveCard(cardsDto) : ledger.evict(cardsDto.getCardNumber(), () -> saveCard(cardsDto));
+    }
+
+    private boolean saveCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
+        int oldTotalLimit = cards.getTotalLimit();
+        int oldAmountUsed = cards.getAmountUsed();
         CardsMapper.mapToCards(cardsDto, cards);
-        cardsRepository.save(cards);
+        Cards savedCard = transactionTemplate.execute(status -> {
+            Cards saved = cardsRepository.save(cards);
+            recordChange(CardsConstants.CHANGE_UPDATED, saved);
+            return saved;
+        });
+        cardPortfolioStatistics.cardUpdated(oldTotalLimit, oldAmountUsed, cards.getTotalLimit(), cards.getAmountUsed());
+        cardReadReplica.ifAvailable(replica -> replica.update(savedCard));
         return  true;
     }
 
@@ -84,9 +257,117 @@ public class CardsServiceImpl implements ICardsService {
         Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        cardsRepository.deleteById(cards.getCardId());
+        CardHoldLedger ledger = cardHoldLedger.getIfAvailable();
+        return ledger == null ? removeCard(cards) : ledger.evict(cards.getCardNumber(),
+                // read again: the ledger has just written the card's pending holds
+                () -> removeCard(cardsRepository.findById(cards.getCardId()).orElse(cards)));
+    }
+
+    private boolean removeCard(Cards cards) {
+        transactionTemplate.executeWithoutResult(status -> {
+            cardsRepository.deleteById(cards.getCardId());
+            recordChange(CardsConstants.CHANGE_DELETED, cards);
+        });
+        cardPortfolioStatistics.cardDeleted(cards.getTotalLimit(), cards.getAmountUsed());
+        cardReadReplica.ifAvailable(replica -> replica.delete(cards));
         return true;
     }
 
+    /**
+     * Debits the card with one conditional update, so the balance check and the debit cannot be split by
+     * another request. A lock conflict reported by the database rolls the attempt back and it is retried
+     * in a fresh transaction. When the hold ledger is enabled the debit is a hold in the ledger instead.
+     * When velocity checks are enabled the authorization is counted against the card's velocity rules first,
+     * and taken back if the debit fails.
+     *
+     * @param authorizationRequestDto - Card Number and amount to debit
+     * @return the debited amount and the available amount left on the card
+     */
+    @Override
+    public AuthorizationResponseDto authorize(AuthorizationRequestDto authorizationRequestDto) {
+        CardVelocityTracker tracker = cardVelocityTracker.getIfAvailable();
+        if (tracker == null) {
+            return debitOrHold(authorizationRequestDto);
+        }
+        String cardNumber = authorizationRequestDto.getCardNumber();
+        int amount = authorizationRequestDto.getAmount();
+        int bucket = tracker.record(cardNumber, amount);
+        try {
+            return debitOrHold(authorizationRequestDto);
+        } catch (RuntimeException exception) {
+            tracker.release(cardNumber, amount, bucket);
+            throw exception;
+        }
+    }
+
+    private AuthorizationResponseDto debitOrHold(AuthorizationRequestDto authorizationRequestDto) {
+        CardHoldLedger ledger = cardHoldLedger.getIfAvailable();
+        if (ledger != null) {
+            int availableAmount = ledger.hold(authorizationRequestDto.getCardNumber(), authorizationRequestDto.getAmount());
+            return new AuthorizationResponseDto(authorizationRequestDto.getCardNumber(),
+                    authorizationRequestDto.getAmount(), availableAmount);
+        }
+        CardReadReplica replica = cardReadReplica.getIfAvailable();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> debit(authorizationRequestDto, replica));
+            } catch (ConcurrencyFailureException exception) {
+                if (attempt >= CardsConstants.AUTHORIZE_MAX_ATTEMPTS) {
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    private AuthorizationResponseDto debit(AuthorizationRequestDto authorizationRequestDto, CardReadReplica replica) {
+        String cardNumber = authorizationRequestDto.getCardNumber();
+        int amount = authorizationRequestDto.getAmount();
+        int updated = cardsRepository.debitAvailableAmount(cardNumber, amount, LocalDateTime.now(),
+                auditorAware.getCurrentAuditor().orElse(null));
+        if (updated == 0) {
+            cardsRepository.findAvailableAmountByCardNumber(cardNumber).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+            throw new InsufficientAvailableAmountException(cardNumber, amount);
+        }
+        // the statistics and the replica take the card with its new balance once the debit is committed
+        Cards cards = cardsRepository.findByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cardPortfolioStatistics.cardUpdated(cards.getTotalLimit(), cards.getAmountUsed() - amount,
+                        cards.getTotalLimit(), cards.getAmountUsed());
+                if (replica != null) {
+                    replica.update(cards);
+                }
+            }
+        });
+        return new AuthorizationResponseDto(cardNumber, amount, cards.getAvailableAmount());
+    }
+
+    /**
+     *
+     * @param afterSeq - feed position of the last change already seen
+     * @param limit - most changes to return
+     * @return the published changes after afterSeq, in feed order
+     */
+    @Override
+    public CardChangesDto fetchChanges(long afterSeq, int limit) {
+        List<CardChangeDto> changes = new ArrayList<>();
+        long lastSeq = afterSeq;
+        for (CardChange cardChange : cardChangeRepository.findBySeqGreaterThanOrderBySeq(afterSeq, Limit.of(limit))) {
+            changes.add(CardChangeMapper.mapToCardChangeDto(cardChange, new CardChangeDto()));
+            lastSeq = cardChange.getSeq();
+        }
+        return new CardChangesDto(changes, lastSeq);
+    }
+
+    /**
+     * @return card count, limit and utilization totals, read from the running aggregates
+     */
+    @Override
+    public CardStatsDto fetchStats() {
+        return cardPortfolioStatistics.getStats();
+    }
 
 }
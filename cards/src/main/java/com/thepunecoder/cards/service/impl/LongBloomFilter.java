@@ -0,0 +1,74 @@
+package com.thepunecoder.cards.service.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over {@code long} keys. Bits are set with compare-and-set, so {@link #put} never
+ * blocks and never loses a concurrent insert.
+ */
+class LongBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    /**
+     * @param expectedKeys - keys the filter is sized for; beyond it the false positive rate climbs
+     * @param falsePositiveProbability - chance that {@link #mightContain} is true for a key never put
+     */
+    LongBloomFilter(long expectedKeys, double falsePositiveProbability) {
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = wordCount * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedKeys * Math.log(2)));
+    }
+
+    /**
+     * @return true when the key is certainly new, that is when at least one of its bits was not yet set
+     */
+    boolean put(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    changed = true;
+                    break;
+                }
+                current = witness;
+            }
+        }
+        return changed;
+    }
+
+    boolean mightContain(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    // SplitMix64 finalizer: card numbers are dense decimal values, so they need spreading before use as bit indexes
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,322 @@
+package com.thepunecoder.cards.velocity;
+
+import com.thepunecoder.cards.dto.VelocityConfigDto;
+import com.thepunecoder.cards.exception.VelocityLimitExceededException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the authorizations of each card over the last few minutes, so that velocity rules are checked
+ * without a query.
+ *
+ * Each card has a ring of counters, one per {@code bucketWidth}, reaching back over the longest rule window.
+ * A counter is one int holding the number of authorizations in its upper 8 bits and their amount in the lower
+ * 24. An authorization that would overflow either field is declined like one that breaks a rule, since it could
+ * no longer be counted. A rule over a window of k buckets sums the current bucket and the k - 1 before it, so
+ * the window slides in steps of one bucket width.
+ *
+ * Cards live in open addressing tables keyed by the card number as a long, split into segments that each
+ * have their own lock. A card whose newest bucket has left the ring counts nothing and is dropped the next time
+ * its segment fills up; a segment only grows when dropping idle cards did not free a quarter of it, and never
+ * beyond its share of {@code maxCards} plus some slack for uneven hashing. Cards beyond that are not checked:
+ * their authorizations are allowed, so a full tracker fails open rather than declining every new card, and are
+ * counted in {@link #getUntrackedChecks()}. Only created when {@code velocity.enabled} is set.
+ */
+@Component
+@ConditionalOnBooleanProperty("velocity.enabled")
+public class CardVelocityTracker {
+
+    private static final int SEGMENTS = 256;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final int COUNT_SHIFT = 24;
+    private static final int MAX_COUNT = 0xFF;
+    private static final int MAX_AMOUNT = 0xFF_FFFF;
+    private static final int COUNTER_FULL = -2;
+
+    private final List<VelocityConfigDto.Rule> rules;
+    private final int[] ruleBuckets;
+    private final long bucketMillis;
+    private final int ringSize;
+    private final int stride;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder untrackedChecks = new LongAdder();
+
+    public CardVelocityTracker(VelocityConfigDto velocityConfigDto) {
+        this(velocityConfigDto.bucketWidth(), velocityConfigDto.maxCards(), velocityConfigDto.rules(),
+                System::currentTimeMillis);
+    }
+
+    CardVelocityTracker(Duration bucketWidth, int maxCards, List<VelocityConfigDto.Rule> rules, LongSupplier clock) {
+        this.bucketMillis = bucketWidth.toMillis();
+        if (bucketMillis <= 0 || rules.isEmpty()) {
+            throw new IllegalArgumentException("Velocity checks need a bucket width and at least one rule");
+        }
+        this.rules = List.copyOf(rules);
+        this.ruleBuckets = new int[rules.size()];
+        int longest = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            VelocityConfigDto.Rule rule = rules.get(i);
+            long windowMillis = rule.window().toMillis();
+            if (windowMillis <= 0 || windowMillis % bucketMillis != 0 || rule.maxCount() < 0
+                    || rule.maxCount() > MAX_COUNT || rule.maxAmount() < 0 || rule.maxAmount() > MAX_AMOUNT) {
+                throw new IllegalArgumentException("Invalid velocity rule " + rule);
+            }
+            ruleBuckets[i] = Math.toIntExact(windowMillis / bucketMillis);
+            longest = Math.max(longest, ruleBuckets[i]);
+        }
+        this.ringSize = longest;
+        this.stride = 1 + longest;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        // cards hash unevenly over the segments, so each segment may take four standard deviations over its share
+        int share = Math.max(1, (maxCards + SEGMENTS - 1) / SEGMENTS);
+        int maxSegmentSize = share + (int) Math.ceil(4 * Math.sqrt(share));
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSegmentSize);
+        }
+    }
+
+    /**
+     * Counts an authorization of {@code amount} on the card, unless that breaks one of the rules.
+     *
+     * @return the bucket the authorization was counted in, to pass to {@link #release} if it does not go through
+     * @throws VelocityLimitExceededException when the authorization would break a rule, or no longer fits the
+     *                                         counter of the current bucket
+     */
+    public int record(String cardNumber, int amount) {
+        int bucket = currentBucket();
+        long key = Long.parseLong(cardNumber);
+        int brokenRule = segment(key).record(key, amount, bucket);
+        if (brokenRule == COUNTER_FULL) {
+            throw new VelocityLimitExceededException(cardNumber, Duration.ofMillis(bucketMillis));
+        }
+        if (brokenRule >= 0) {
+            throw new VelocityLimitExceededException(cardNumber, rules.get(brokenRule).window());
+        }
+        return bucket;
+    }
+
+    /**
+     * Takes back an authorization counted by {@link #record}.
+     */
+    public void release(String cardNumber, int amount, int bucket) {
+        long key = Long.parseLong(cardNumber);
+        segment(key).release(key, amount, bucket);
+    }
+
+    public long getUntrackedChecks() {
+        return untrackedChecks.sum();
+    }
+
+    public int getTrackedCards() {
+        int trackedCards = 0;
+        for (Segment segment : segments) {
+            trackedCards += segment.size();
+        }
+        return trackedCards;
+    }
+
+    /**
+     * @return bytes held by the tables of all segments
+     */
+    public long getTableBytes() {
+        long tableBytes = 0;
+        for (Segment segment : segments) {
+            tableBytes += segment.tableBytes();
+        }
+        return tableBytes;
+    }
+
+    private int currentBucket() {
+        return Math.toIntExact((clock.getAsLong() - startMillis) / bucketMillis);
+    }
+
+    private Segment segment(long key) {
+        return segments[(int) (mix(key) >>> 56)];
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * One open addressing table with linear probing. A slot of {@code counters} holds the newest bucket of the
+     * card followed by its ring of counters; a key of 0 marks a free slot, card numbers are never 0.
+     */
+    private final class Segment {
+
+        private final int maxSize;
+        private long[] keys;
+        private int[] counters;
+        private int size;
+
+        private Segment(int maxSize) {
+            this.maxSize = maxSize;
+            allocate(Math.min(INITIAL_SEGMENT_CAPACITY, capacityFor(maxSize)));
+        }
+
+        private synchronized int record(long key, int amount, int bucket) {
+            int base = find(key, bucket);
+            if (base < 0) {
+                untrackedChecks.increment();
+                return -1;
+            }
+            advance(base, bucket);
+            for (int r = 0; r < ruleBuckets.length; r++) {
+                int count = 0;
+                long total = 0;
+                for (int b = bucket - ruleBuckets[r] + 1; b <= bucket; b++) {
+                    int counter = counters[base + 1 + Math.floorMod(b, ringSize)];
+                    count += counter >>> COUNT_SHIFT;
+                    total += counter & MAX_AMOUNT;
+                }
+                VelocityConfigDto.Rule rule = rules.get(r);
+                if ((rule.maxCount() > 0 && count >= rule.maxCount())
+                        || (rule.maxAmount() > 0 && total + amount > rule.maxAmount())) {
+                    return r;
+                }
+            }
+            int index = base + 1 + Math.floorMod(bucket, ringSize);
+            int counter = counters[index];
+            int count = (counter >>> COUNT_SHIFT) + 1;
+            long total = (long) (counter & MAX_AMOUNT) + amount;
+            if (count > MAX_COUNT || total > MAX_AMOUNT) {
+                return COUNTER_FULL;
+            }
+            counters[index] = count << COUNT_SHIFT | (int) total;
+            return -1;
+        }
+
+        private synchronized void release(long key, int amount, int bucket) {
+            int slot = slotOf(key);
+            if (keys[slot] != key) {
+                return;
+            }
+            int base = slot * stride;
+            if (counters[base] - bucket >= ringSize) {
+                return;
+            }
+            int index = base + 1 + Math.floorMod(bucket, ringSize);
+            int counter = counters[index];
+            int count = Math.max(0, (counter >>> COUNT_SHIFT) - 1);
+            int total = Math.max(0, (counter & MAX_AMOUNT) - amount);
+            counters[index] = count << COUNT_SHIFT | total;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long tableBytes() {
+            return 8L * keys.length + 4L * counters.length;
+        }
+
+        /**
+         * @return the start of the card's slot in {@code counters}, or -1 when the segment has no room for it
+         */
+        private int find(long key, int bucket) {
+            int slot = slotOf(key);
+            if (keys[slot] == key) {
+                return slot * stride;
+            }
+            if (size >= maxSize || size + 1 > keys.length * 3 / 4) {
+                if (!makeRoom(bucket)) {
+                    return -1;
+                }
+                slot = slotOf(key);
+            }
+            keys[slot] = key;
+            size++;
+            int base = slot * stride;
+            counters[base] = bucket;
+            return base;
+        }
+
+        /**
+         * @return the slot holding the key, or the free slot where it belongs
+         */
+        private int slotOf(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Drops the idle cards, growing the table when that frees less than a quarter of it.
+         *
+         * @return false when the segment holds its share of {@code maxCards} cards that are all active
+         */
+        private boolean makeRoom(int bucket) {
+            int capacity = keys.length;
+            int active = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (keys[slot] != 0 && bucket - counters[slot * stride] < ringSize) {
+                    active++;
+                }
+            }
+            int newCapacity = capacity;
+            while (active + 1 > newCapacity / 2 && newCapacity < capacityFor(maxSize)) {
+                newCapacity *= 2;
+            }
+            if (active + 1 > Math.min(maxSize, newCapacity * 3 / 4)) {
+                return false;
+            }
+            long[] oldKeys = keys;
+            int[] oldCounters = counters;
+            allocate(newCapacity);
+            for (int slot = 0; slot < capacity; slot++) {
+                int oldBase = slot * stride;
+                if (oldKeys[slot] != 0 && bucket - oldCounters[oldBase] < ringSize) {
+                    int newSlot = slotOf(oldKeys[slot]);
+                    keys[newSlot] = oldKeys[slot];
+                    System.arraycopy(oldCounters, oldBase, counters, newSlot * stride, stride);
+                    size++;
+                }
+            }
+            return true;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            counters = new int[capacity * stride];
+            size = 0;
+        }
+
+        /**
+         * Moves the card's newest bucket up to {@code bucket}, clearing the counters that fall out of the ring.
+         */
+        private void advance(int base, int bucket) {
+            int newest = counters[base];
+            if (bucket <= newest) {
+                return;
+            }
+            if (bucket - newest >= ringSize) {
+                Arrays.fill(counters, base + 1, base + stride, 0);
+            } else {
+                for (int b = newest + 1; b <= bucket; b++) {
+                    counters[base + 1 + Math.floorMod(b, ringSize)] = 0;
+                }
+            }
+            counters[base] = bucket;
+        }
+    }
+
+    /**
+     * @return the power of two table size that holds {@code cards} at three quarters full
+     */
+    private static int capacityFor(int cards) {
+        return Integer.highestOneBit(Math.max(1, cards * 4 / 3 + 1) * 2 - 1);
+    }
+}
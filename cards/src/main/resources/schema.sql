@@ -6,9 +6,36 @@ CREATE TABLE IF NOT EXISTS `cards` (
   `total_limit` int NOT NULL,
   `amount_used` int NOT NULL,
   `available_amount` int NOT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
   `created_at` date NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
   PRIMARY KEY (`card_id`)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS `ix_cards_mobile_number` ON `cards` (`mobile_number`);
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_cards_card_number` ON `cards` (`card_number`);
+
+CREATE TABLE IF NOT EXISTS `card_hold_checkpoint` (
+  `journal_id` varchar(255) NOT NULL,
+  `last_seq` bigint NOT NULL,
+  PRIMARY KEY (`journal_id`)
+);
+
+CREATE TABLE IF NOT EXISTS `card_change_outbox` (
+  `change_id` bigint NOT NULL AUTO_INCREMENT,
+  `seq` bigint DEFAULT NULL,
+  `change_type` varchar(20) NOT NULL,
+  `mobile_number` varchar(15) NOT NULL,
+  `card_number` varchar(100) NOT NULL,
+  `card_type` varchar(100) NOT NULL,
+  `total_limit` int NOT NULL,
+  `amount_used` int NOT NULL,
+  `available_amount` int NOT NULL,
+  `changed_at` timestamp NOT NULL,
+  PRIMARY KEY (`change_id`)
+);
+
+-- the feed reads by seq; unpublished changes (seq is null) are found through the same index
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_card_change_outbox_seq` ON `card_change_outbox` (`seq`);
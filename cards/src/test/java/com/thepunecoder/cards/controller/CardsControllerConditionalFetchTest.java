@@ -0,0 +1,125 @@
+package com.thepunecoder.cards.controller;
+
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conditional {@code GET /api/fetch} and gzip compression over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CardsControllerConditionalFetchTest {
+
+    private static final int BATCH_CARDS = 200;
+    private static final long MOBILE_BASE = 9_600_000_000L;
+    private static final String MOBILE_NUMBER = Long.toString(MOBILE_BASE);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    void createCards() {
+        for (int i = 0; i <= BATCH_CARDS; i++) {
+            iCardsService.createCard(Long.toString(MOBILE_BASE + i));
+        }
+    }
+
+    @AfterAll
+    void deleteCards() {
+        for (int i = 0; i <= BATCH_CARDS; i++) {
+            iCardsService.deleteCard(Long.toString(MOBILE_BASE + i));
+        }
+    }
+
+    @Test
+    void unchangedCardIsNotModified() throws Exception {
+        HttpResponse<String> first = client.send(fetch(MOBILE_NUMBER, null), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, first.statusCode());
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+        assertTrue(eTag.startsWith("\""), eTag);
+
+        HttpResponse<String> second = client.send(fetch(MOBILE_NUMBER, eTag), HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, second.statusCode());
+        assertEquals("", second.body());
+        assertEquals(eTag, second.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void updateAndAuthorizationChangeTheETag() throws Exception {
+        String mobileNumber = Long.toString(MOBILE_BASE + 1);
+        String created = iCardsService.fetchVersionedCard(mobileNumber).eTag();
+
+        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+        cardsDto.setCardType("Debit Card");
+        iCardsService.updateCard(cardsDto);
+        String updated = iCardsService.fetchVersionedCard(mobileNumber).eTag();
+        assertNotEquals(created, updated);
+
+        AuthorizationRequestDto authorizationRequestDto = new AuthorizationRequestDto();
+        authorizationRequestDto.setCardNumber(cardsDto.getCardNumber());
+        authorizationRequestDto.setAmount(100);
+        iCardsService.authorize(authorizationRequestDto);
+        String authorized = iCardsService.fetchVersionedCard(mobileNumber).eTag();
+        assertNotEquals(updated, authorized);
+
+        HttpResponse<String> stale = client.send(fetch(mobileNumber, updated), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, stale.statusCode());
+        assertEquals(authorized, stale.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void largeBatchIsCompressed() throws Exception {
+        String body = IntStream.rangeClosed(1, BATCH_CARDS)
+                .mapToObj(i -> "\"" + (MOBILE_BASE + i) + "\"")
+                .collect(Collectors.joining(",", "{\"mobileNumbers\":[", "]}"));
+        HttpResponse<byte[]> plain = client.send(fetchBatch(body, "identity"), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> gzip = client.send(fetchBatch(body, "gzip"), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, plain.statusCode());
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(200, gzip.statusCode());
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzip.body().length * 4 < plain.body().length, gzip.body().length + " vs " + plain.body().length);
+    }
+
+    private HttpRequest fetch(String mobileNumber, String ifNoneMatch) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/fetch?mobileNumber=" + mobileNumber));
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest fetchBatch(String body, String acceptEncoding) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/fetch/batch"))
+                .header("Content-Type", "application/json")
+                .header("Accept-Encoding", acceptEncoding)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
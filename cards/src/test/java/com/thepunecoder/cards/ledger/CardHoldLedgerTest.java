@@ -0,0 +1,229 @@
+package com.thepunecoder.cards.ledger;
+
+import com.thepunecoder.cards.constants.CardsConstants;
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.dto.HoldLedgerConfigDto;
+import com.thepunecoder.cards.exception.HoldLedgerFullException;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
+import com.thepunecoder.cards.replica.CardReadReplica;
+import com.thepunecoder.cards.repository.CardsRepository;
+import com.thepunecoder.cards.service.ICardsService;
+import com.thepunecoder.cards.service.impl.CardPortfolioStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Authorizes through the hold ledger from many threads, also while the card is evicted, and checks that
+ * journaled holds reach the cards table exactly once, including after a crash.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "hold-ledger.enabled=true", "hold-ledger.flush-interval=1h"})
+class CardHoldLedgerTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 20;
+    private static final int AMOUNT = CardsConstants.NEW_CARD_LIMIT / 100;
+    private static final String LEDGER_MOBILE_NUMBER = "9200000001";
+    private static final Path JOURNAL_DIRECTORY = temporaryDirectory();
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("hold-ledger.journal-directory", () -> JOURNAL_DIRECTORY.resolve("service").toString());
+    }
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardHoldLedger cardHoldLedger;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private ObjectProvider<CardReadReplica> cardReadReplica;
+
+    @Autowired
+    private CardPortfolioStatistics cardPortfolioStatistics;
+
+    private String ledgerCardNumber;
+
+    @BeforeEach
+    void createCard() {
+        iCardsService.createCard(LEDGER_MOBILE_NUMBER);
+        ledgerCardNumber = iCardsService.fetchCard(LEDGER_MOBILE_NUMBER).getCardNumber();
+    }
+
+    @AfterEach
+    void deleteCard() {
+        iCardsService.deleteCard(LEDGER_MOBILE_NUMBER);
+    }
+
+    @Test
+    void ledgerHoldsAreWrittenExactlyOnce() throws Exception {
+        long totalUsedBefore = iCardsService.fetchStats().getTotalUsed();
+        AtomicInteger approved = new AtomicInteger();
+        hammer(() -> iCardsService.authorize(new AuthorizationRequestDto(ledgerCardNumber, AMOUNT)), approved);
+
+        int flushed = cardHoldLedger.flush();
+        assertEquals(CardsConstants.NEW_CARD_LIMIT / AMOUNT, approved.get());
+        assertEquals(approved.get(), flushed);
+        assertEquals(totalUsedBefore + approved.get() * AMOUNT, iCardsService.fetchStats().getTotalUsed());
+        assertBalanced(LEDGER_MOBILE_NUMBER, approved.get() * AMOUNT);
+        assertEquals(0, cardHoldLedger.getPendingHolds());
+    }
+
+    @Test
+    void holdsDuringEvictionsAreNeitherLostNorOverAuthorized() throws Exception {
+        AtomicBoolean holding = new AtomicBoolean(true);
+        AtomicInteger evictions = new AtomicInteger();
+        ExecutorService evictor = Executors.newSingleThreadExecutor();
+        Future<?> evicting = evictor.submit(() -> {
+            while (holding.get()) {
+                // a change that leaves the balance alone, as updateCard makes it
+                cardHoldLedger.evict(ledgerCardNumber, () -> jdbcTemplate.update(
+                        "UPDATE cards SET updated_by = ? WHERE card_number = ?", "EVICTION_TEST", ledgerCardNumber));
+                evictions.incrementAndGet();
+            }
+        });
+        AtomicInteger approved = new AtomicInteger();
+        try {
+            hammer(() -> iCardsService.authorize(new AuthorizationRequestDto(ledgerCardNumber, AMOUNT)), approved);
+        } finally {
+            holding.set(false);
+            evicting.get();
+            evictor.shutdown();
+        }
+
+        cardHoldLedger.flush();
+        assertTrue(evictions.get() > 0);
+        assertEquals(CardsConstants.NEW_CARD_LIMIT / AMOUNT, approved.get());
+        assertBalanced(LEDGER_MOBILE_NUMBER, approved.get() * AMOUNT);
+    }
+
+    @Test
+    void journaledHoldsAreWrittenAfterACrash() throws IOException {
+        HoldLedgerConfigDto config = new HoldLedgerConfigDto(true, Duration.ofHours(1), 1000,
+                JOURNAL_DIRECTORY.resolve("crash").toString());
+        CardHoldLedger crashed = newLedger(config);
+        crashed.start();
+        for (int i = 0; i < 5; i++) {
+            crashed.hold(ledgerCardNumber, 100);
+        }
+        // the crashed ledger is never stopped or flushed
+        assertEquals(0, iCardsService.fetchCard(LEDGER_MOBILE_NUMBER).getAmountUsed());
+
+        CardHoldLedger restarted = newLedger(config);
+        restarted.start();
+        assertBalanced(LEDGER_MOBILE_NUMBER, 500);
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 600, restarted.hold(ledgerCardNumber, 100));
+        restarted.stop();
+        assertBalanced(LEDGER_MOBILE_NUMBER, 600);
+
+        // a restart after a clean stop finds nothing left to write
+        CardHoldLedger again = newLedger(config);
+        again.start();
+        again.stop();
+        assertBalanced(LEDGER_MOBILE_NUMBER, 600);
+    }
+
+    @Test
+    void pendingHoldsStayWithinTheBound() throws IOException {
+        CardHoldLedger ledger = newLedger(new HoldLedgerConfigDto(true, Duration.ofHours(1), 10,
+                JOURNAL_DIRECTORY.resolve("bounded").toString()));
+        ledger.start();
+        int approved = 0;
+        int refused = 0;
+        for (int i = 0; i < 1000; i++) {
+            try {
+                ledger.hold(ledgerCardNumber, 1);
+                approved++;
+            } catch (HoldLedgerFullException exception) {
+                refused++;
+            }
+            assertTrue(ledger.getPendingHolds() <= 10);
+        }
+        ledger.stop();
+        assertTrue(refused > 0);
+        assertBalanced(LEDGER_MOBILE_NUMBER, approved);
+    }
+
+    private CardHoldLedger newLedger(HoldLedgerConfigDto config) throws IOException {
+        return new CardHoldLedger(config, cardsRepository, jdbcTemplate, transactionTemplate, auditorAware,
+                cardReadReplica, cardPortfolioStatistics);
+    }
+
+    private void assertBalanced(String mobileNumber, int expectedAmountUsed) {
+        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+        assertEquals(expectedAmountUsed, cardsDto.getAmountUsed());
+        assertEquals(cardsDto.getTotalLimit(), cardsDto.getAmountUsed() + cardsDto.getAvailableAmount());
+    }
+
+    private static void hammer(Runnable authorization, AtomicInteger approved) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < PER_THREAD; j++) {
+                    try {
+                        authorization.run();
+                        approved.incrementAndGet();
+                    } catch (InsufficientAvailableAmountException exception) {
+                        // declined
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    private static Path temporaryDirectory() {
+        try {
+            return Files.createTempDirectory("hold-journal");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.thepunecoder.cards.ledger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The hold journal over a channel that fails writes, forces and truncates on demand.
+ */
+class HoldJournalTest {
+
+    private static final String CARD_NUMBER = "100000000001";
+
+    @TempDir
+    private Path directory;
+
+    private HoldJournal journal;
+    private boolean failWritePartway;
+    private boolean failForce;
+    private boolean failTruncate;
+
+    @BeforeEach
+    void openJournal() throws IOException {
+        journal = new HoldJournal(directory) {
+            @Override
+            FileChannel openChannel(Path segment) throws IOException {
+                return new FailingChannel(super.openChannel(segment));
+            }
+        };
+        journal.open(0);
+    }
+
+    @Test
+    void failedWriteIsCutBackSoLaterRecordsAreRead() throws IOException {
+        journal.append(CARD_NUMBER, 10);
+        failWritePartway = true;
+        IOException exception = assertThrows(IOException.class, () -> journal.append(CARD_NUMBER, 20));
+        assertFalse(exception instanceof HoldJournal.UncertainAppendException);
+        journal.append(CARD_NUMBER, 30);
+
+        assertEquals(List.of(new HoldJournal.HoldRecord(1, CARD_NUMBER, 10), new HoldJournal.HoldRecord(2, CARD_NUMBER, 30)),
+                HoldJournal.read(journal.roll()));
+    }
+
+    @Test
+    void failedForceKeepsTheRecordAndRefusesAppendsUntilTheNextRoll() throws IOException {
+        journal.append(CARD_NUMBER, 10);
+        failForce = true;
+        assertThrows(HoldJournal.UncertainAppendException.class, () -> journal.append(CARD_NUMBER, 20));
+        failForce = false;
+        IOException refused = assertThrows(IOException.class, () -> journal.append(CARD_NUMBER, 30));
+        assertFalse(refused instanceof HoldJournal.UncertainAppendException);
+
+        // the unconfirmed record is kept and applied like any other
+        assertEquals(List.of(new HoldJournal.HoldRecord(1, CARD_NUMBER, 10), new HoldJournal.HoldRecord(2, CARD_NUMBER, 20)),
+                HoldJournal.read(journal.roll()));
+        journal.append(CARD_NUMBER, 40);
+        assertEquals(List.of(new HoldJournal.HoldRecord(3, CARD_NUMBER, 40)), HoldJournal.read(journal.roll()));
+    }
+
+    @Test
+    void writeThatCannotBeCutBackFailsTheJournal() throws IOException {
+        journal.append(CARD_NUMBER, 10);
+        failWritePartway = true;
+        failTruncate = true;
+        assertThrows(IOException.class, () -> journal.append(CARD_NUMBER, 20));
+        failTruncate = false;
+        assertThrows(IOException.class, () -> journal.append(CARD_NUMBER, 30));
+
+        // reading stops at the torn record, and nothing was appended after it
+        assertEquals(List.of(new HoldJournal.HoldRecord(1, CARD_NUMBER, 10)), HoldJournal.read(journal.roll()));
+        journal.append(CARD_NUMBER, 40);
+        assertEquals(List.of(new HoldJournal.HoldRecord(2, CARD_NUMBER, 40)), HoldJournal.read(journal.roll()));
+    }
+
+    /**
+     * Delegates to a file channel, failing the operations the test asks for.
+     */
+    private final class FailingChannel extends FileChannel {
+
+        private final FileChannel channel;
+
+        private FailingChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (failWritePartway) {
+                failWritePartway = false;
+                ByteBuffer part = source.slice();
+                part.limit(Math.min(part.remaining(), 5));
+                source.position(source.position() + channel.write(part));
+                throw new IOException("No space left on device");
+            }
+            return channel.write(source);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Input/output error");
+            }
+            channel.force(metaData);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("Input/output error");
+            }
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return channel.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return channel.read(destinations, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return channel.write(sources, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return channel.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return channel.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return channel.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
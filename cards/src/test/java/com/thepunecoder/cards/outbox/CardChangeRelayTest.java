@@ -0,0 +1,133 @@
+package com.thepunecoder.cards.outbox;
+
+import com.thepunecoder.cards.dto.CardChangeDto;
+import com.thepunecoder.cards.dto.CardChangesDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.exception.ResourceNotFoundException;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs card changes through the outbox and relay into a recording sink and the change feed.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "outbox.relay-interval=50ms", "outbox.batch-size=20"})
+class CardChangeRelayTest {
+
+    private static final String MOBILE_NUMBER = "9400000001";
+    private static final int BATCH_CARDS = 50;
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements CardChangeSink {
+
+        private final List<List<CardChangeDto>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(List<CardChangeDto> changes) {
+            batches.add(List.copyOf(changes));
+        }
+
+        List<CardChangeDto> changesFor(String mobileNumber) {
+            List<CardChangeDto> changes = new ArrayList<>();
+            batches.forEach(batch -> batch.stream()
+                    .filter(change -> change.getMobileNumber().equals(mobileNumber))
+                    .forEach(changes::add));
+            return changes;
+        }
+    }
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private InProcessCardChangeBroker inProcessCardChangeBroker;
+
+    @Test
+    void createUpdateAndDeleteAreRelayedInOrderAndAppearInTheFeed() throws InterruptedException {
+        List<CardChangeDto> brokered = new CopyOnWriteArrayList<>();
+        inProcessCardChangeBroker.subscribe(brokered::addAll);
+
+        iCardsService.createCard(MOBILE_NUMBER);
+        CardsDto cardsDto = iCardsService.fetchCard(MOBILE_NUMBER);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(cardsDto.getTotalLimit() - 1000);
+        iCardsService.updateCard(cardsDto);
+        iCardsService.deleteCard(MOBILE_NUMBER);
+
+        List<CardChangeDto> changes = awaitChanges(MOBILE_NUMBER, 3);
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), changes.stream().map(CardChangeDto::getChangeType).toList());
+        assertEquals(1000, changes.get(1).getAmountUsed());
+        assertTrue(changes.get(0).getSeq() < changes.get(1).getSeq() && changes.get(1).getSeq() < changes.get(2).getSeq());
+        assertEquals(3, brokered.stream().filter(change -> change.getMobileNumber().equals(MOBILE_NUMBER)).count());
+
+        List<CardChangeDto> feed = new ArrayList<>();
+        long after = 0;
+        CardChangesDto page;
+        do {
+            page = iCardsService.fetchChanges(after, 2);
+            page.getChanges().stream().filter(change -> change.getMobileNumber().equals(MOBILE_NUMBER)).forEach(feed::add);
+            after = page.getLastSeq();
+        } while (!page.getChanges().isEmpty());
+        assertEquals(changes.stream().map(CardChangeDto::getSeq).toList(), feed.stream().map(CardChangeDto::getSeq).toList());
+    }
+
+    @Test
+    void failedChangeWritesNothingToTheOutbox() throws InterruptedException {
+        CardsDto unknown = new CardsDto();
+        unknown.setCardNumber("999999999999");
+        unknown.setMobileNumber("9400000099");
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.updateCard(unknown));
+
+        iCardsService.createCard("9400000098");
+        iCardsService.deleteCard("9400000098");
+        awaitChanges("9400000098", 2);
+        assertTrue(recordingSink.changesFor("9400000099").isEmpty());
+    }
+
+    @Test
+    void backlogIsRelayedInBoundedBatches() throws InterruptedException {
+        for (int i = 1; i <= BATCH_CARDS; i++) {
+            iCardsService.createCard(String.valueOf(9_400_001_000L + i));
+        }
+        for (int i = 1; i <= BATCH_CARDS; i++) {
+            awaitChanges(String.valueOf(9_400_001_000L + i), 1);
+        }
+        assertTrue(recordingSink.batches.stream().allMatch(batch -> batch.size() <= 20));
+        for (int i = 1; i <= BATCH_CARDS; i++) {
+            iCardsService.deleteCard(String.valueOf(9_400_001_000L + i));
+        }
+    }
+
+    private List<CardChangeDto> awaitChanges(String mobileNumber, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        List<CardChangeDto> changes = recordingSink.changesFor(mobileNumber);
+        while (changes.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            changes = recordingSink.changesFor(mobileNumber);
+        }
+        assertEquals(count, changes.size(), "changes for " + mobileNumber);
+        return changes;
+    }
+}
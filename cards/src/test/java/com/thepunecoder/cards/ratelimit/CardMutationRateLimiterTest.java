@@ -0,0 +1,58 @@
+package com.thepunecoder.cards.ratelimit;
+
+import com.thepunecoder.cards.dto.RateLimitConfigDto;
+import com.thepunecoder.cards.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CardMutationRateLimiterTest {
+
+    private static final String GATEWAY = "10.0.0.1";
+
+    // one request per client a day, and mobile numbers that never run out
+    private final CardMutationRateLimiter limiter = new CardMutationRateLimiter(new RateLimitConfigDto(true,
+            new RateLimitConfigDto.Bucket(1_000, Duration.ofNanos(1)), new RateLimitConfigDto.Bucket(1, Duration.ofDays(1)),
+            "X-Client-Id", List.of(GATEWAY), 1_000));
+
+    @Test
+    void clientHeaderFromAnUntrustedAddressIsIgnored() {
+        limiter.admit(request("192.0.2.7", "first"), "9100000001");
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.admit(request("192.0.2.7", "second"), "9100000002"));
+    }
+
+    @Test
+    void clientHeaderFromATrustedProxyNamesTheClient() {
+        limiter.admit(request(GATEWAY, "first"), "9100000001");
+
+        assertDoesNotThrow(() -> limiter.admit(request(GATEWAY, "second"), "9100000002"));
+        assertThrows(RateLimitExceededException.class, () -> limiter.admit(request(GATEWAY, "first"), "9100000003"));
+    }
+
+    @Test
+    void authenticatedUserNamesTheClient() {
+        MockHttpServletRequest first = request("192.0.2.8", null);
+        first.setUserPrincipal(() -> "alice");
+        MockHttpServletRequest second = request("192.0.2.8", null);
+        second.setUserPrincipal(() -> "bob");
+        limiter.admit(first, "9100000001");
+
+        assertDoesNotThrow(() -> limiter.admit(second, "9100000002"));
+        assertThrows(RateLimitExceededException.class, () -> limiter.admit(first, "9100000003"));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/create");
+        request.setRemoteAddr(remoteAddress);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        return request;
+    }
+}
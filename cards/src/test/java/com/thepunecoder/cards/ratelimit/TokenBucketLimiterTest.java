@@ -0,0 +1,120 @@
+package com.thepunecoder.cards.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void burstIsAdmittedAndThenOneRequestPerRefill() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, Duration.ofSeconds(1), 100, clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("9100000001"));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("9100000001"));
+        assertEquals(0, limiter.tryAcquire("9100000002"));
+
+        clock.addAndGet(SECOND / 4);
+        assertEquals(3 * SECOND / 4, limiter.tryAcquire("9100000001"));
+        clock.addAndGet(3 * SECOND / 4);
+        assertEquals(0, limiter.tryAcquire("9100000001"));
+        assertEquals(SECOND, limiter.tryAcquire("9100000001"));
+
+        // an idle bucket fills up to its capacity and no further
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("9100000001"));
+        }
+        assertTrue(limiter.tryAcquire("9100000001") > 0);
+    }
+
+    @Test
+    void fullBucketsExpireAndExtraKeysAreRefused() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(1), 3, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+        assertEquals(3, limiter.size());
+
+        // no bucket is full yet, so there is no room for d and e
+        assertTrue(limiter.tryAcquire("d") > 0);
+        assertTrue(limiter.tryAcquire("e") > 0);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(3, limiter.size());
+
+        clock.addAndGet(2 * SECOND);
+        limiter.tryAcquire("c");
+        assertEquals(0, limiter.tryAcquire("d"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void newKeysRacingForTheLastRoomWaitAtMostOneBucket() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int attempt = 0; attempt < 2_000; attempt++) {
+                TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(1), 1, clock::get);
+                limiter.tryAcquire("a");
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<Long> b = executor.submit(() -> {
+                    barrier.await();
+                    return limiter.tryAcquire("b");
+                });
+                Future<Long> c = executor.submit(() -> {
+                    barrier.await();
+                    return limiter.tryAcquire("c");
+                });
+                // the one that does not sweep is told to come back within the time the sweep would take
+                assertTrue(b.get() <= 2 * SECOND, Long.toString(b.get()));
+                assertTrue(c.get() <= 2 * SECOND, Long.toString(c.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentRequestsNeverTakeMoreThanTheCapacity() throws Exception {
+        int capacity = 10_000;
+        TokenBucketLimiter limiter = new TokenBucketLimiter(capacity, Duration.ofDays(1), 100, clock::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                admitted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < capacity; i++) {
+                        if (limiter.tryAcquire("9100000001") == 0) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future : admitted) {
+                total += future.get();
+            }
+            assertEquals(capacity, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.thepunecoder.cards.replica;
+
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.entity.Cards;
+import com.thepunecoder.cards.exception.ResourceNotFoundException;
+import com.thepunecoder.cards.mapper.CardsMapper;
+import com.thepunecoder.cards.repository.CardsRepository;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The read replica against a seeded cards table.
+ */
+@SpringBootTest(properties = {"read-replica.enabled=true", "spring.jpa.show-sql=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CardReadReplicaTest {
+
+    private static final int CARDS = 2_000;
+    private static final long MOBILE_BASE = 9_700_000_000L;
+    private static final long CARD_NUMBER_BASE = 700_000_000_000L;
+    private static final String MOBILE_NUMBER = "9600009999";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardReadReplica cardReadReplica;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedCards() {
+        jdbcTemplate.update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used,
+                                   available_amount, created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, MOD(X, 1000),
+                       100000 - MOD(X, 1000), CURRENT_DATE, 'REPLICA_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, CARDS);
+        cardReadReplica.load();
+    }
+
+    @AfterAll
+    void removeCards() {
+        jdbcTemplate.update("DELETE FROM cards WHERE created_by = 'REPLICA_TEST'");
+    }
+
+    @Test
+    void replicaFollowsEveryWrite() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        assertMatchesTable(MOBILE_NUMBER);
+
+        CardsDto cardsDto = iCardsService.fetchCard(MOBILE_NUMBER);
+        cardsDto.setCardType("Debit Card");
+        cardsDto.setTotalLimit(50_000);
+        cardsDto.setAvailableAmount(50_000);
+        iCardsService.updateCard(cardsDto);
+        assertMatchesTable(MOBILE_NUMBER);
+
+        AuthorizationRequestDto authorizationRequestDto = new AuthorizationRequestDto();
+        authorizationRequestDto.setCardNumber(cardsDto.getCardNumber());
+        authorizationRequestDto.setAmount(1_000);
+        iCardsService.authorize(authorizationRequestDto);
+        assertMatchesTable(MOBILE_NUMBER);
+        assertEquals(49_000, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+
+        iCardsService.deleteCard(MOBILE_NUMBER);
+        assertNull(cardReadReplica.findByMobileNumber(MOBILE_NUMBER));
+        assertNull(cardReadReplica.findByCardNumber(cardsDto.getCardNumber()));
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.fetchCard(MOBILE_NUMBER));
+    }
+
+    @Test
+    void indexesSurviveGrowthAndDeletes() {
+        CardReadReplica replica = new CardReadReplica(jdbcTemplate);
+        int cards = 100_000;
+        for (int i = 1; i <= cards; i++) {
+            replica.insert(card(i, "0" + (100_000_000L + i), Long.toString(CARD_NUMBER_BASE + i)));
+        }
+        for (int i = 3; i <= cards; i += 3) {
+            replica.delete(card(i, "0" + (100_000_000L + i), Long.toString(CARD_NUMBER_BASE + i)));
+        }
+        assertEquals(cards - cards / 3, replica.size());
+        for (int i = 1; i <= cards; i++) {
+            CardsDto byMobileNumber = replica.findByMobileNumber("0" + (100_000_000L + i));
+            CardsDto byCardNumber = replica.findByCardNumber(Long.toString(CARD_NUMBER_BASE + i));
+            if (i % 3 == 0) {
+                assertNull(byMobileNumber);
+                assertNull(byCardNumber);
+            } else {
+                assertEquals(Long.toString(CARD_NUMBER_BASE + i), byMobileNumber.getCardNumber());
+                assertEquals("0" + (100_000_000L + i), byCardNumber.getMobileNumber());
+            }
+        }
+        // deleted records are reused
+        long directBytes = replica.getDirectBytes();
+        for (int i = 3; i <= cards; i += 3) {
+            replica.insert(card(cards + i, Long.toString(MOBILE_BASE + i), Long.toString(CARD_NUMBER_BASE + cards + i)));
+        }
+        assertEquals(cards, replica.size());
+        assertEquals(directBytes, replica.getDirectBytes());
+        assertNotNull(replica.findByMobileNumber(Long.toString(MOBILE_BASE + 3)));
+    }
+
+    @Test
+    void loadCopiesTheCardsTable() {
+        CardReadReplica replica = new CardReadReplica(jdbcTemplate);
+        replica.load();
+        assertEquals(cardsRepository.count(), replica.size());
+        for (long i = 1; i <= CARDS; i += 97) {
+            String mobileNumber = Long.toString(MOBILE_BASE + i);
+            assertEquals(CardsMapper.mapToCardsDto(cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(),
+                    new CardsDto()), replica.findByMobileNumber(mobileNumber));
+        }
+    }
+
+    @Test
+    void cardsWithoutANumericMobileNumberAreLeftOut() {
+        CardReadReplica replica = new CardReadReplica(jdbcTemplate);
+        String cardNumber = Long.toString(CARD_NUMBER_BASE + CARDS + 1);
+        replica.insert(new Cards(1L, "", cardNumber, "Credit Card", 100_000, 0, 100_000, 0));
+        assertEquals(0, replica.size());
+        assertNull(replica.findByCardNumber(cardNumber));
+
+        // an update to an empty mobile number takes out the older version of the card
+        replica.insert(new Cards(1L, MOBILE_NUMBER, cardNumber, "Credit Card", 100_000, 0, 100_000, 0));
+        replica.update(new Cards(1L, "", cardNumber, "Credit Card", 100_000, 0, 100_000, 1));
+        assertEquals(0, replica.size());
+        assertNull(replica.findByMobileNumber(MOBILE_NUMBER));
+        assertNull(replica.findByMobileNumber(""));
+        replica.delete(new Cards(1L, "", cardNumber, "Credit Card", 100_000, 0, 100_000, 1));
+    }
+
+    @Test
+    void updateToAnEmptyMobileNumberIsCommittedAndLeavesTheReplica() {
+        String mobileNumber = "9600009998";
+        iCardsService.createCard(mobileNumber);
+        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+        cardsDto.setMobileNumber("");
+        try {
+            iCardsService.updateCard(cardsDto);
+            assertEquals("", cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow().getMobileNumber());
+            assertNull(cardReadReplica.findByCardNumber(cardsDto.getCardNumber()));
+            assertNull(cardReadReplica.findByMobileNumber(mobileNumber));
+        } finally {
+            cardsRepository.findByCardNumber(cardsDto.getCardNumber())
+                    .ifPresent(cards -> iCardsService.deleteCard(cards.getMobileNumber()));
+        }
+    }
+
+    private void assertMatchesTable(String mobileNumber) {
+        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow();
+        assertEquals(CardsMapper.mapToCardsDto(cards, new CardsDto()), cardReadReplica.findByMobileNumber(mobileNumber));
+        assertEquals(cards.getCardId() + "." + cards.getVersion(), cardReadReplica.findVersionTagByMobileNumber(mobileNumber));
+    }
+
+    private static Cards card(long cardId, String mobileNumber, String cardNumber) {
+        return new Cards(cardId, mobileNumber, cardNumber, "Credit Card", 100_000, 0, 100_000, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.thepunecoder.cards.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uniqueness and Luhn validity check for {@link CardNumberGenerator}.
+ */
+class CardNumberGeneratorTest {
+
+    private static final int CARD_NUMBERS = 200_000;
+
+    @Test
+    void generatedNumbersAreUniqueAndLuhnValid() {
+        LongSet issued = new LongSet(CARD_NUMBERS);
+        CardNumberGenerator generator = new CardNumberGenerator(issued::contains, CARD_NUMBERS);
+
+        for (int i = 0; i < CARD_NUMBERS; i++) {
+            String cardNumber = generator.next();
+            assertTrue(issued.add(Long.parseLong(cardNumber)), "duplicate card number " + cardNumber);
+            if (i % 1000 == 0) {
+                assertLuhnValid(cardNumber);
+            }
+        }
+
+        assertTrue(generator.getLookups() < CARD_NUMBERS * 0.02, "lookups " + generator.getLookups());
+    }
+
+    @Test
+    void everyGeneratedNumberPassesTheLuhnCheck() {
+        CardNumberGenerator generator = new CardNumberGenerator(cardNumber -> false, 100_000);
+        for (int i = 0; i < 100_000; i++) {
+            String cardNumber = generator.next();
+            assertEquals(12, cardNumber.length());
+            assertTrue(cardNumber.startsWith("1"), cardNumber);
+            assertLuhnValid(cardNumber);
+        }
+        // well known valid test numbers
+        assertEquals(3, CardNumberGenerator.luhnCheckDigit(7992739871L));
+        assertEquals(1, CardNumberGenerator.luhnCheckDigit(411111111111111L));
+    }
+
+    @Test
+    void existingCardNumbersAreLoadedAtStartup() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(
+                "jdbc:h2:mem:cardnumbers;DB_CLOSE_DELAY=-1", "sa", "", true));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cards");
+        jdbcTemplate.execute("CREATE TABLE cards (card_number varchar(100) NOT NULL)");
+        CardNumberGenerator previous = new CardNumberGenerator(cardNumber -> false, 1_000);
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            existing.add(previous.next());
+        }
+        existing.forEach(cardNumber -> jdbcTemplate.update("INSERT INTO cards (card_number) VALUES (?)", cardNumber));
+        jdbcTemplate.update("INSERT INTO cards (card_number) VALUES ('not a number')");
+
+        CardNumberGenerator generator = new CardNumberGenerator(jdbcTemplate);
+        generator.afterPropertiesSet();
+
+        existing.forEach(cardNumber -> assertTrue(generator.mightBeIssued(cardNumber), cardNumber));
+        String cardNumber = generator.next();
+        assertFalse(existing.contains(cardNumber));
+        assertTrue(generator.mightBeIssued(cardNumber));
+    }
+
+    private static void assertLuhnValid(String cardNumber) {
+        int sum = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            int digit = cardNumber.charAt(cardNumber.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+        }
+        assertEquals(0, sum % 10, "not Luhn valid: " + cardNumber);
+    }
+
+    /**
+     * Open addressing set of positive longs, so the issued card numbers fit in a single {@code long[]}.
+     */
+    private static final class LongSet {
+
+        private final long[] slots;
+        private final int mask;
+
+        private LongSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1);
+            slots = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        private boolean add(long value) {
+            int slot = index(value);
+            while (slots[slot] != 0) {
+                if (slots[slot] == value) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = value;
+            return true;
+        }
+
+        private boolean contains(long value) {
+            int slot = index(value);
+            while (slots[slot] != 0) {
+                if (slots[slot] == value) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private int index(long value) {
+            return (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
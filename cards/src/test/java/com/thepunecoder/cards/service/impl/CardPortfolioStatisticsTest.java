@@ -0,0 +1,115 @@
+package com.thepunecoder.cards.service.impl;
+
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.CardStatsDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the running card statistics against the cards table.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "stats.reconcile-interval=1h"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CardPortfolioStatisticsTest {
+
+    private static final int CARDS = 1_100;
+    private static final long MOBILE_BASE = 9_500_000_000L;
+    private static final long CARD_NUMBER_BASE = 500_000_000_000L;
+    private static final String MOBILE_NUMBER = "9400009999";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardPortfolioStatistics cardPortfolioStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedCards() {
+        // one card in every utilization bucket from 0% to 100%, over and over
+        jdbcTemplate.update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, available_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, MOD(X, 11) * 10000,
+                       100000 - MOD(X, 11) * 10000, CURRENT_TIMESTAMP, 'STATS_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, CARDS);
+        cardPortfolioStatistics.reconcile();
+    }
+
+    @AfterAll
+    void removeCards() {
+        jdbcTemplate.update("DELETE FROM cards WHERE created_by = 'STATS_TEST'");
+    }
+
+    @Test
+    void statisticsFollowCreateUpdateAndDelete() {
+        CardStatsDto before = iCardsService.fetchStats();
+
+        iCardsService.createCard(MOBILE_NUMBER);
+        CardStatsDto created = iCardsService.fetchStats();
+        assertEquals(before.getCardCount() + 1, created.getCardCount());
+        assertEquals(before.getTotalLimit() + 100_000, created.getTotalLimit());
+        assertEquals(before.getUtilizationHistogram().get("0-10%") + 1, created.getUtilizationHistogram().get("0-10%"));
+
+        CardsDto cardsDto = iCardsService.fetchCard(MOBILE_NUMBER);
+        cardsDto.setAmountUsed(55_000);
+        cardsDto.setAvailableAmount(45_000);
+        iCardsService.updateCard(cardsDto);
+        CardStatsDto updated = iCardsService.fetchStats();
+        assertEquals(before.getTotalUsed() + 55_000, updated.getTotalUsed());
+        assertEquals(before.getUtilizationHistogram().get("0-10%"), updated.getUtilizationHistogram().get("0-10%"));
+        assertEquals(before.getUtilizationHistogram().get("50-60%") + 1, updated.getUtilizationHistogram().get("50-60%"));
+
+        iCardsService.deleteCard(MOBILE_NUMBER);
+        CardStatsDto deleted = iCardsService.fetchStats();
+        assertEquals(before.getCardCount(), deleted.getCardCount());
+        assertEquals(before.getTotalLimit(), deleted.getTotalLimit());
+        assertEquals(before.getTotalUsed(), deleted.getTotalUsed());
+        assertEquals(before.getUtilizationHistogram(), deleted.getUtilizationHistogram());
+    }
+
+    @Test
+    void reconciliationMatchesTheTableAndRepairsDrift() {
+        jdbcTemplate.update("UPDATE cards SET amount_used = amount_used + 1, available_amount = available_amount - 1 "
+                + "WHERE card_number = ?", String.valueOf(CARD_NUMBER_BASE + 1));
+        cardPortfolioStatistics.reconcile();
+
+        CardStatsDto stats = iCardsService.fetchStats();
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards", Long.class), stats.getCardCount());
+        assertEquals(jdbcTemplate.queryForObject("SELECT SUM(total_limit) FROM cards", Long.class), stats.getTotalLimit());
+        assertEquals(jdbcTemplate.queryForObject("SELECT SUM(amount_used) FROM cards", Long.class), stats.getTotalUsed());
+        assertEquals(stats.getCardCount(), stats.getUtilizationHistogram().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals((CARDS + 1) / 11, stats.getUtilizationHistogram().get("100%").longValue());
+    }
+
+    @Test
+    void statisticsFollowAuthorizations() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        String cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+        CardStatsDto before = iCardsService.fetchStats();
+
+        iCardsService.authorize(new AuthorizationRequestDto(cardNumber, 25_000));
+        CardStatsDto authorized = iCardsService.fetchStats();
+        assertEquals(before.getTotalUsed() + 25_000, authorized.getTotalUsed());
+        assertEquals(before.getUtilizationHistogram().get("0-10%") - 1, authorized.getUtilizationHistogram().get("0-10%"));
+        assertEquals(before.getUtilizationHistogram().get("20-30%") + 1, authorized.getUtilizationHistogram().get("20-30%"));
+
+        assertThrows(InsufficientAvailableAmountException.class,
+                () -> iCardsService.authorize(new AuthorizationRequestDto(cardNumber, 100_000)));
+        assertEquals(authorized.getTotalUsed(), iCardsService.fetchStats().getTotalUsed());
+        iCardsService.deleteCard(MOBILE_NUMBER);
+    }
+}
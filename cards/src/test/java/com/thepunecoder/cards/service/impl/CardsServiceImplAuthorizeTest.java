@@ -0,0 +1,101 @@
+package com.thepunecoder.cards.service.impl;
+
+import com.thepunecoder.cards.constants.CardsConstants;
+import com.thepunecoder.cards.dto.AuthorizationRequestDto;
+import com.thepunecoder.cards.dto.CardsDto;
+import com.thepunecoder.cards.exception.InsufficientAvailableAmountException;
+import com.thepunecoder.cards.exception.ResourceNotFoundException;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Hammers a single card with authorizations from many threads. The requested total is more than the card
+ * limit, so some requests must be declined and the books must still balance.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class CardsServiceImplAuthorizeTest {
+
+    private static final int THREADS = 16;
+    private static final int PER_THREAD = 10;
+    private static final int AMOUNT = CardsConstants.NEW_CARD_LIMIT / 100;
+    private static final String MOBILE_NUMBER = "9100000001";
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    private String cardNumber;
+
+    @BeforeEach
+    void createCard() {
+        iCardsService.createCard(MOBILE_NUMBER);
+        cardNumber = iCardsService.fetchCard(MOBILE_NUMBER).getCardNumber();
+    }
+
+    @AfterEach
+    void deleteCard() {
+        iCardsService.deleteCard(MOBILE_NUMBER);
+    }
+
+    @Test
+    void concurrentAuthorizationsNeitherLoseNorCreateMoney() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < PER_THREAD; j++) {
+                    try {
+                        iCardsService.authorize(new AuthorizationRequestDto(cardNumber, AMOUNT));
+                        approved.incrementAndGet();
+                    } catch (InsufficientAvailableAmountException exception) {
+                        declined.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        CardsDto cardsDto = iCardsService.fetchCard(MOBILE_NUMBER);
+        int expectedApproved = Math.min(THREADS * PER_THREAD, CardsConstants.NEW_CARD_LIMIT / AMOUNT);
+        assertEquals(THREADS * PER_THREAD, approved.get() + declined.get());
+        assertEquals(expectedApproved, approved.get());
+        assertEquals(approved.get() * AMOUNT, cardsDto.getAmountUsed());
+        assertEquals(cardsDto.getTotalLimit(), cardsDto.getAmountUsed() + cardsDto.getAvailableAmount());
+    }
+
+    @Test
+    void authorizationAboveTheAvailableAmountIsDeclined() {
+        assertThrows(InsufficientAvailableAmountException.class, () -> iCardsService.authorize(
+                new AuthorizationRequestDto(cardNumber, CardsConstants.NEW_CARD_LIMIT + 1)));
+        assertEquals(CardsConstants.NEW_CARD_LIMIT, iCardsService.fetchCard(MOBILE_NUMBER).getAvailableAmount());
+    }
+
+    @Test
+    void authorizationOfUnknownCardIsNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> iCardsService.authorize(new AuthorizationRequestDto("999999999999", AMOUNT)));
+    }
+}
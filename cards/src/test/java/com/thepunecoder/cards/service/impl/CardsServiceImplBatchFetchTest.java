@@ -0,0 +1,118 @@
+package com.thepunecoder.cards.service.impl;
+
+import com.thepunecoder.cards.dto.CardsBatchResponseDto;
+import com.thepunecoder.cards.service.ICardsService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fetches seeded cards by mobile number in batches, through the service and over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CardsServiceImplBatchFetchTest {
+
+    private static final int CARDS = 2_500;
+    private static final long MOBILE_BASE = 9_300_000_000L;
+    private static final long CARD_NUMBER_BASE = 300_000_000_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @BeforeAll
+    void seedCards() {
+        jdbcTemplate.update("""
+                INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, available_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Credit Card', 100000, X, 100000 - X,
+                       CURRENT_TIMESTAMP, 'BATCH_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, CARD_NUMBER_BASE, CARDS);
+    }
+
+    @AfterAll
+    void removeCards() {
+        jdbcTemplate.update("DELETE FROM cards WHERE created_by = 'BATCH_TEST'");
+    }
+
+    @Test
+    void batchSpanningSeveralChunksReturnsHitsAndMisses() {
+        List<String> mobileNumbers = new ArrayList<>(mobileNumbers(1, CARDS));
+        List<String> missing = mobileNumbers(CARDS + 1, CARDS + 10);
+        mobileNumbers.addAll(missing);
+        mobileNumbers.add(mobileNumber(1));
+
+        CardsBatchResponseDto response = iCardsService.fetchCards(mobileNumbers);
+
+        assertEquals(CARDS, response.getCards().size());
+        assertEquals(missing, response.getMissingMobileNumbers());
+        assertEquals(mobileNumbers(1, CARDS), List.copyOf(response.getCards().keySet()));
+        assertEquals(String.valueOf(CARD_NUMBER_BASE + 42), response.getCards().get(mobileNumber(42)).getCardNumber());
+        assertEquals(42, response.getCards().get(mobileNumber(42)).getAmountUsed());
+    }
+
+    @Test
+    void batchOverHttpListsMisses() throws Exception {
+        String body = jsonMapper.writeValueAsString(Map.of("mobileNumbers",
+                List.of(mobileNumber(7), "9399999999")));
+        HttpResponse<String> response = post(body);
+
+        assertEquals(200, response.statusCode());
+        JsonNode json = jsonMapper.readTree(response.body());
+        assertEquals(String.valueOf(CARD_NUMBER_BASE + 7), json.get("cards").get(mobileNumber(7)).get("cardNumber").asString());
+        assertEquals("9399999999", json.get("missingMobileNumbers").get(0).asString());
+    }
+
+    @Test
+    void malformedMobileNumberIsRejected() throws Exception {
+        HttpResponse<String> response = post("{\"mobileNumbers\":[\"123\"]}");
+
+        assertEquals(400, response.statusCode());
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/fetch/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static List<String> mobileNumbers(int from, int to) {
+        return IntStream.rangeClosed(from, to)
+                .mapToObj(CardsServiceImplBatchFetchTest::mobileNumber)
+                .collect(Collectors.toList());
+    }
+
+    private static String mobileNumber(int index) {
+        return String.valueOf(MOBILE_BASE + index);
+    }
+}
@@ -0,0 +1,106 @@
+package com.thepunecoder.cards.velocity;
+
+import com.thepunecoder.cards.dto.VelocityConfigDto;
+import com.thepunecoder.cards.exception.VelocityLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Velocity rules on a clock moved by hand.
+ */
+class CardVelocityTrackerTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final List<VelocityConfigDto.Rule> RULES = List.of(
+            new VelocityConfigDto.Rule(Duration.ofMinutes(1), 5, 0),
+            new VelocityConfigDto.Rule(Duration.ofMinutes(10), 20, 50_000));
+    private static final String CARD_NUMBER = "100000000001";
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MINUTE);
+
+    @Test
+    void rulesSlideOneBucketAtATime() {
+        CardVelocityTracker tracker = tracker(1000);
+        for (int minute = 0; minute < 4; minute++) {
+            for (int i = 0; i < 5; i++) {
+                tracker.record(CARD_NUMBER, 100);
+            }
+            assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 100));
+            clock.addAndGet(MINUTE);
+        }
+        // 20 authorizations in the last 10 minutes
+        VelocityLimitExceededException exception =
+                assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 100));
+        assertTrue(exception.getMessage().contains("10m"), exception.getMessage());
+
+        // the first minute leaves the window after ten minutes
+        clock.addAndGet(6 * MINUTE);
+        for (int i = 0; i < 5; i++) {
+            tracker.record(CARD_NUMBER, 100);
+        }
+        assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 100));
+    }
+
+    @Test
+    void amountIsLimitedAndReleasedAuthorizationsDoNotCount() {
+        CardVelocityTracker tracker = tracker(1000);
+        tracker.record(CARD_NUMBER, 30_000);
+        int bucket = tracker.record(CARD_NUMBER, 20_000);
+        assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 1));
+
+        tracker.release(CARD_NUMBER, 20_000, bucket);
+        tracker.record(CARD_NUMBER, 20_000);
+        assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 1));
+        tracker.record("100000000002", 50_000);
+    }
+
+    @Test
+    void idleCardsExpireAndTrackedCardsStayBounded() {
+        int maxCards = 256 * 100;
+        CardVelocityTracker tracker = tracker(maxCards);
+        for (int i = 1; i <= 2 * maxCards; i++) {
+            tracker.record(Long.toString(100_000_000_000L + i), 1);
+        }
+        assertTrue(tracker.getTrackedCards() <= maxCards * 3 / 2, Integer.toString(tracker.getTrackedCards()));
+        assertTrue(tracker.getUntrackedChecks() > 0);
+        long tableBytes = tracker.getTableBytes();
+
+        // once the longest window has passed every card is idle and makes room for new ones
+        clock.addAndGet(10 * MINUTE);
+        long untracked = tracker.getUntrackedChecks();
+        for (int i = 1; i <= maxCards / 2; i++) {
+            tracker.record(Long.toString(200_000_000_000L + i), 1);
+        }
+        assertEquals(untracked, tracker.getUntrackedChecks());
+        assertTrue(tracker.getTableBytes() <= tableBytes);
+    }
+
+    @Test
+    void fullCountersRefuseInsteadOfSaturating() {
+        CardVelocityTracker tracker = new CardVelocityTracker(Duration.ofMinutes(1), 1000,
+                List.of(new VelocityConfigDto.Rule(Duration.ofMinutes(1), 0, 0)), clock::get);
+        for (int i = 0; i < 255; i++) {
+            tracker.record(CARD_NUMBER, 1);
+        }
+        assertThrows(VelocityLimitExceededException.class, () -> tracker.record(CARD_NUMBER, 1));
+
+        tracker.record("100000000002", 0xFF_FFFF);
+        assertThrows(VelocityLimitExceededException.class, () -> tracker.record("100000000002", 1));
+
+        // the next bucket starts empty
+        clock.addAndGet(MINUTE);
+        tracker.record(CARD_NUMBER, 1);
+        tracker.record("100000000002", 1);
+    }
+
+    private CardVelocityTracker tracker(int maxCards) {
+        return new CardVelocityTracker(Duration.ofMinutes(1), maxCards, RULES, clock::get);
+    }
+}
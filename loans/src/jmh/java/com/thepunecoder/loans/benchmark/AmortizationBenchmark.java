@@ -0,0 +1,46 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoanScheduleDto;
+import com.thepunecoder.loans.mapper.LoanScheduleMapper;
+import com.thepunecoder.loans.schedule.AmortizationEngine;
+import com.thepunecoder.loans.schedule.AmortizationSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a 360-month home loan schedule: computed into reused arrays, into fresh arrays, and mapped to the
+ * response DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class AmortizationBenchmark {
+
+    private static final long PRINCIPAL = 99_000_00;
+    private static final int INTEREST_RATE_BPS = 850;
+    private static final int MONTHS = 360;
+
+    private final AmortizationSchedule schedule = AmortizationEngine.compute(PRINCIPAL, INTEREST_RATE_BPS, MONTHS,
+            new AmortizationSchedule());
+
+    @Benchmark
+    public AmortizationSchedule computeIntoReusedSchedule() {
+        return AmortizationEngine.compute(PRINCIPAL, INTEREST_RATE_BPS, MONTHS, schedule);
+    }
+
+    @Benchmark
+    public AmortizationSchedule computeIntoNewSchedule() {
+        return AmortizationEngine.compute(PRINCIPAL, INTEREST_RATE_BPS, MONTHS, new AmortizationSchedule());
+    }
+
+    @Benchmark
+    public LoanScheduleDto mapCachedSchedule() {
+        return LoanScheduleMapper.mapToLoanScheduleDto("548732457654", schedule, new LoanScheduleDto());
+    }
+}
@@ -0,0 +1,71 @@
+package com.thepunecoder.loans.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A retried {@code POST /api/create} over HTTP: answered from the idempotency store when it carries the key of
+ * the first request, against the same retry without a key, which the service rejects as a duplicate loan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class IdempotencyBenchmark {
+
+    private static final String MOBILE_NUMBER = "9100000024";
+    private static final String IDEMPOTENCY_KEY = "benchmark-create";
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest replayed;
+    private HttpRequest withoutKey;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkApplication.start("idempotency.enabled=true");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + BenchmarkApplication.port(context)
+                + "/api/create?mobileNumber=" + MOBILE_NUMBER);
+        replayed = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody())
+                .header("Idempotency-Key", IDEMPOTENCY_KEY).build();
+        withoutKey = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+        send(replayed, 201);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int replayed() throws IOException, InterruptedException {
+        return send(replayed, 201);
+    }
+
+    @Benchmark
+    public int withoutKey() throws IOException, InterruptedException {
+        return send(withoutKey, 400);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,89 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.accrual.InterestAccrualJob;
+import com.thepunecoder.loans.dto.InterestAccrualProgressDto;
+import com.thepunecoder.loans.entity.Loans;
+import com.thepunecoder.loans.repository.LoansRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One interest accrual run over {@code loans} seeded loans, against the same work done by loading every loan
+ * through JPA and saving it back. The loans are accrued for a later day on every invocation, so each run
+ * updates all of them.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class InterestAccrualBenchmark {
+
+    private static final long MOBILE_BASE = 9_300_000_000L;
+
+    @Param("100000")
+    public int loans;
+
+    private ConfigurableApplicationContext context;
+    private InterestAccrualJob interestAccrualJob;
+    private LoansRepository loansRepository;
+    private TransactionTemplate transactionTemplate;
+    // runs may not accrue past today, so the days accrued start a year back
+    private LocalDate accrualDate = LocalDate.now().minusYears(1);
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("interest-accrual.enabled=true");
+        interestAccrualJob = context.getBean(InterestAccrualJob.class);
+        loansRepository = context.getBean(LoansRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, outstanding_amount,
+                                   interest_rate_bps, tenure_months, created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Home Loan', 100000, MOD(X, 50000),
+                       100000 - MOD(X, 50000), 700 + MOD(X, 500), 360, CURRENT_DATE, 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, 300_000_000_000L, loans);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextDay() {
+        accrualDate = accrualDate.plusDays(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public InterestAccrualProgressDto job() {
+        return interestAccrualJob.run(accrualDate);
+    }
+
+    @Benchmark
+    public List<Loans> findAllAndSaveAll() {
+        return transactionTemplate.execute(status -> {
+            List<Loans> all = loansRepository.findAll();
+            // a day's interest on the outstanding amount, so that every loan changes and is written
+            for (Loans loan : all) {
+                long outstanding = 100L * loan.getOutstandingAmount();
+                long interest = (outstanding * loan.getInterestRateBps() + 1_825_000) / 3_650_000;
+                loan.setOutstandingAmount(Math.toIntExact((outstanding + interest) / 100));
+            }
+            return loansRepository.saveAllAndFlush(all);
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoansDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the LoansDto request and response bodies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private JsonMapper jsonMapper;
+    private LoansDto loansDto;
+    private byte[] loansJson;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        loansDto = new LoansDto();
+        loansDto.setMobileNumber("4354437687");
+        loansDto.setLoanNumber("548732457654");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+        loansJson = """
+                {"mobileNumber":"4354437687","loanNumber":"548732457654","loanType":"Home Loan",
+                 "totalLoan":100000,"amountPaid":1000,"outstandingAmount":99000}""".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeLoansDto() {
+        return jsonMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public LoansDto deserializeLoansDto() {
+        return jsonMapper.readValue(loansJson, LoansDto.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.service.ILoansService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a generated CSV file of {@code rows} loans, streamed without ever being held in memory, against
+ * creating as many loans one at a time. Larger files, e.g. {@code -p rows=200000}, are best run on
+ * {@code importCsv} alone; run with {@code -prof gc} for the bytes allocated per row.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LoanImportBenchmark {
+
+    private static final long MOBILE_BASE = 9_400_000_000L;
+    private static final long LOAN_NUMBER_BASE = 400_000_000_000L;
+
+    @Param("20000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ILoansService iLoansService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iLoansService = context.getBean(ILoansService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void removeLoans() {
+        jdbcTemplate.update("DELETE FROM loans WHERE mobile_number BETWEEN '9400000000' AND '9499999999'");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoanImportEventDto importCsv() {
+        LoanImportEventDto outcome = iLoansService.importLoans(new GeneratedCsv(rows), event -> {
+        });
+        if (outcome.getRowsImported() != rows) {
+            throw new IllegalStateException("Imported " + outcome.getRowsImported() + " of " + rows + " rows");
+        }
+        return outcome;
+    }
+
+    @Benchmark
+    public void createOneAtATime() {
+        for (int i = 0; i < rows; i++) {
+            iLoansService.createLoan(Long.toString(MOBILE_BASE + i));
+        }
+    }
+
+    /**
+     * A CSV file of valid loans, written row by row as it is read.
+     */
+    private static final class GeneratedCsv extends InputStream {
+
+        private final int rows;
+        private int row = -1;
+        private byte[] line = "mobileNumber,loanNumber,loanType,totalLoan,amountPaid,outstandingAmount\n"
+                .getBytes(StandardCharsets.US_ASCII);
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (position == line.length) {
+                    if (row + 1 == rows) {
+                        break;
+                    }
+                    row++;
+                    line = ((MOBILE_BASE + row) + "," + (LOAN_NUMBER_BASE + row) + ","
+                            + (row % 3 == 0 ? "Car Loan" : "Home Loan") + ",100000," + row % 1000 + ","
+                            + (100000 - row % 1000) + "\n").getBytes(StandardCharsets.US_ASCII);
+                    position = 0;
+                }
+                int count = Math.min(length - read, line.length - position);
+                System.arraycopy(line, position, buffer, offset + read, count);
+                position += count;
+                read += count;
+            }
+            return read == 0 && length > 0 ? -1 : read;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoansDto;
+import com.thepunecoder.loans.entity.Loans;
+import com.thepunecoder.loans.mapper.LoansMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity/DTO mappings done on every loans request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Loans loans;
+    private LoansDto loansDto;
+
+    @Setup
+    public void setUp() {
+        loans = new Loans();
+        loans.setMobileNumber("4354437687");
+        loans.setLoanNumber("548732457654");
+        loans.setLoanType("Home Loan");
+        loans.setTotalLoan(100000);
+        loans.setAmountPaid(1000);
+        loans.setOutstandingAmount(99000);
+        loansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public LoansDto loansToDto() {
+        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public Loans dtoToLoans() {
+        return LoansMapper.mapToLoans(loansDto, new Loans());
+    }
+}
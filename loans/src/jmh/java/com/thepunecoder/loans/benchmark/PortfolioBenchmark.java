@@ -0,0 +1,88 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.service.ILoansService;
+import com.thepunecoder.loans.service.impl.LoanPortfolioSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Portfolio totals for one year of {@code loans} seeded loans, spread over 120 origination months, read from the
+ * summary rows against a GROUP BY over the loans table, and the rebuild that reconciles the summary rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PortfolioBenchmark {
+
+    private static final long MOBILE_BASE = 9_500_000_000L;
+    private static final YearMonth FROM = YearMonth.of(2021, 3);
+    private static final YearMonth TO = YearMonth.of(2022, 2);
+    private static final String BY_LOAN_TYPE_SQL = """
+            SELECT loan_type, COUNT(*), SUM(CAST(total_loan AS BIGINT)), SUM(CAST(amount_paid AS BIGINT)),
+                   SUM(CAST(outstanding_amount AS BIGINT))
+            FROM loans WHERE created_at >= ? AND created_at < ? GROUP BY loan_type ORDER BY loan_type""";
+
+    @Param("500000")
+    public int loans;
+
+    private ConfigurableApplicationContext context;
+    private ILoansService iLoansService;
+    private LoanPortfolioSummary loanPortfolioSummary;
+    private JdbcTemplate jdbcTemplate;
+    private int day;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        iLoansService = context.getBean(ILoansService.class);
+        loanPortfolioSummary = context.getBean(LoanPortfolioSummary.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, outstanding_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR),
+                       CASEWHEN(MOD(X, 3) = 0, 'Home Loan', CASEWHEN(MOD(X, 3) = 1, 'Car Loan', 'Personal Loan')),
+                       100000, MOD(X, 50000), 100000 - MOD(X, 50000),
+                       DATEADD('DAY', MOD(X, 3650), DATE '2016-01-01'), 'BENCHMARK'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, 500_000_000_000L, loans);
+        loanPortfolioSummary.reconcile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoanPortfolioDto summary() {
+        return iLoansService.fetchPortfolio(FROM, TO);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> groupByOverLoans() {
+        // a different first day every time: H2 reuses the last result of an identical query
+        LocalDate from = FROM.atDay(1).plusDays(day++ % 28);
+        return jdbcTemplate.queryForList(BY_LOAN_TYPE_SQL, from, TO.plusMonths(1).atDay(1));
+    }
+
+    @Benchmark
+    public void reconcile() {
+        loanPortfolioSummary.reconcile();
+    }
+}
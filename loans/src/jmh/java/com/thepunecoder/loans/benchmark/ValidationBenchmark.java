@@ -0,0 +1,67 @@
+package com.thepunecoder.loans.benchmark;
+
+import com.thepunecoder.loans.dto.LoansDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of LoansDto as done for @Valid request bodies, for a valid body and for one
+ * failing the loanNumber @Pattern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private LoansDto validLoansDto;
+    private LoansDto invalidLoansDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validLoansDto = loansDto("548732457654");
+        invalidLoansDto = loansDto("5487324576");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> validLoansDto() {
+        return validator.validate(validLoansDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> invalidLoanNumber() {
+        return validator.validate(invalidLoansDto);
+    }
+
+    private static LoansDto loansDto(String loanNumber) {
+        LoansDto loansDto = new LoansDto();
+        loansDto.setMobileNumber("4354437687");
+        loansDto.setLoanNumber(loanNumber);
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+        return loansDto;
+    }
+}
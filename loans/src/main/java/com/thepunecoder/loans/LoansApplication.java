@@ -1,5 +1,7 @@
 package com.thepunecoder.loans;
 
+import com.thepunecoder.loans.dto.IdempotencyConfigDto;
+import com.thepunecoder.loans.dto.InterestAccrualConfigDto;
 import com.thepunecoder.loans.dto.LoansContactInfoDto;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
@@ -10,13 +12,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 /*@ComponentScans({ @ComponentScan("com.thepunecoder.loans.controller") })
 @EnableJpaRepositories("com.thepunecoder.loans.repository")
 @EntityScan("com.thepunecoder.loans.model")*/
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value={LoansContactInfoDto.class})
+@EnableAsync
+@EnableConfigurationProperties(value={LoansContactInfoDto.class, InterestAccrualConfigDto.class,
+		IdempotencyConfigDto.class})
 @OpenAPIDefinition(
 		info = @Info(
 				title = "Loans microservice REST API Documentation",
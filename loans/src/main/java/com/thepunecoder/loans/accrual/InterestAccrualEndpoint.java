@@ -0,0 +1,48 @@
+package com.thepunecoder.loans.accrual;
+
+import com.thepunecoder.loans.dto.InterestAccrualProgressDto;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * {@code /actuator/interestaccrual}: GET returns the progress of the latest interest accrual run, and a POST of
+ * {@code {"accrualDate": "2030-01-31"}} starts a run for that date, or for today when the body is {@code {}}.
+ * A date in the future is refused with a 400; the POST answers with the accepted date, and GET follows the run.
+ */
+@Component
+@ConditionalOnBooleanProperty("interest-accrual.enabled")
+@Endpoint(id = "interestaccrual")
+public class InterestAccrualEndpoint {
+
+    private final InterestAccrualJob interestAccrualJob;
+
+    public InterestAccrualEndpoint(InterestAccrualJob interestAccrualJob) {
+        this.interestAccrualJob = interestAccrualJob;
+    }
+
+    @ReadOperation
+    public InterestAccrualProgressDto progress() {
+        return interestAccrualJob.progress();
+    }
+
+    @WriteOperation
+    public InterestAccrualProgressDto start(@Nullable LocalDate accrualDate) {
+        LocalDate date = accrualDate != null ? accrualDate : LocalDate.now();
+        try {
+            interestAccrualJob.submit(date);
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidEndpointRequestException(exception.getMessage(), "accrualDate is in the future");
+        }
+        InterestAccrualProgressDto accepted = new InterestAccrualProgressDto();
+        accepted.setStatus("ACCEPTED");
+        accepted.setAccrualDate(date);
+        return accepted;
+    }
+}
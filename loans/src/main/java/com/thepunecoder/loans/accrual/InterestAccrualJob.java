@@ -0,0 +1,450 @@
+package com.thepunecoder.loans.accrual;
+
+import com.thepunecoder.loans.dto.InterestAccrualConfigDto;
+import com.thepunecoder.loans.dto.InterestAccrualProgressDto;
+import com.thepunecoder.loans.service.impl.LoanPortfolioSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accrues daily interest on every loan and recalculates its outstanding amount, once a night.
+ *
+ * A run splits the table into {@code interest-accrual.partitions} loan_id ranges and works through them on
+ * {@code interest-accrual.threads} threads. Each partition reads its loans in loan_id order, {@code chunkSize} at
+ * a time, and writes a chunk's updates as one JDBC batch, with the change to the portfolio totals, in the same
+ * transaction that advances the partition's checkpoint, so a run that stops or crashes resumes after the last committed chunk. Only loans not yet accrued
+ * up to the accrual date are read or updated, which keeps a loan from being accrued twice for the same day even
+ * when runs overlap. A loan that missed nights, because it was new or a run never finished, accrues every day
+ * since it was last accrued.
+ *
+ * Interest compounds: every accrual charges the yearly rate, pro rata for the days since the loan was last
+ * accrued, on the unpaid principal plus the interest accrued so far, kept in paise in accrued_interest. A loan
+ * whose outstanding amount no longer fits its column is logged and left unaccrued, without failing its chunk.
+ * Only created when {@code interest-accrual.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnBooleanProperty("interest-accrual.enabled")
+public class InterestAccrualJob implements SmartLifecycle {
+
+    private static final String SELECT_SQL = """
+            SELECT loan_id, total_loan, amount_paid, interest_rate_bps, accrued_interest, interest_accrued_on,
+                   outstanding_amount, loan_type, created_at
+            FROM loans
+            WHERE loan_id > ? AND loan_id <= ? AND (interest_accrued_on IS NULL OR interest_accrued_on < ?)
+            ORDER BY loan_id FETCH FIRST ? ROWS ONLY""";
+    private static final String UPDATE_SQL = """
+            UPDATE loans
+            SET accrued_interest = ?, outstanding_amount = ?, interest_accrued_on = ?, updated_at = ?, updated_by = ?
+            WHERE loan_id = ? AND (interest_accrued_on IS NULL OR interest_accrued_on < ?)""";
+    private static final String SELECT_CHECKPOINTS_SQL = """
+            SELECT partition_no, last_loan_id, end_loan_id, rows_processed, completed
+            FROM interest_accrual_checkpoint WHERE accrual_date = ? ORDER BY partition_no""";
+    private static final String INSERT_CHECKPOINT_SQL = """
+            INSERT INTO interest_accrual_checkpoint
+                (accrual_date, partition_no, last_loan_id, end_loan_id, rows_processed, completed)
+            VALUES (?, ?, ?, ?, 0, FALSE)""";
+    private static final String ADVANCE_CHECKPOINT_SQL = """
+            UPDATE interest_accrual_checkpoint
+            SET last_loan_id = ?, rows_processed = rows_processed + ?, completed = ?
+            WHERE accrual_date = ? AND partition_no = ?""";
+    // an older run that never finished needs no checkpoints: its loans catch up on the missed days in the new one
+    private static final String DELETE_CHECKPOINTS_SQL =
+            "DELETE FROM interest_accrual_checkpoint WHERE accrual_date < ?";
+    private static final String UNFINISHED_RUN_SQL =
+            "SELECT MAX(accrual_date) FROM interest_accrual_checkpoint WHERE completed = FALSE";
+    private static final long DAYS_PER_YEAR_BPS = 365L * 10_000;
+
+    private final InterestAccrualConfigDto interestAccrualConfigDto;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final LoanPortfolioSummary loanPortfolioSummary;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopping;
+    private volatile Run lastRun;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ScheduledFuture<?> nextRun;
+
+    public InterestAccrualJob(InterestAccrualConfigDto interestAccrualConfigDto, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate, AuditorAware<String> auditorAware,
+                              LoanPortfolioSummary loanPortfolioSummary) {
+        this.interestAccrualConfigDto = interestAccrualConfigDto;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorAware = auditorAware;
+        this.loanPortfolioSummary = loanPortfolioSummary;
+    }
+
+    /**
+     * Accrues interest on every loan up to and including {@code accrualDate}, resuming the checkpoints of an
+     * earlier run for the same date.
+     *
+     * @return the progress of the run when it completed, stopped or failed
+     * @throws IllegalArgumentException when {@code accrualDate} is in the future
+     * @throws IllegalStateException when a run is already in progress
+     */
+    public InterestAccrualProgressDto run(LocalDate accrualDate) {
+        checkAccrualDate(accrualDate);
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An interest accrual run is already in progress");
+        }
+        try {
+            stopping = false;
+            List<Partition> partitions = transactionTemplate.execute(status -> partitions(accrualDate));
+            long rowsTotal = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans", Long.class);
+            Run run = new Run(accrualDate, partitions, rowsTotal);
+            lastRun = run;
+            accrue(run);
+            return progress();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Starts a run for {@code accrualDate} on the scheduler thread.
+     *
+     * @throws IllegalArgumentException when {@code accrualDate} is in the future
+     * @throws IllegalStateException when the job is not running
+     */
+    public void submit(LocalDate accrualDate) {
+        checkAccrualDate(accrualDate);
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            throw new IllegalStateException("The interest accrual job is not running");
+        }
+        executor.execute(() -> runQuietly(accrualDate));
+    }
+
+    public InterestAccrualProgressDto progress() {
+        InterestAccrualProgressDto progress = new InterestAccrualProgressDto();
+        Run run = lastRun;
+        if (run == null) {
+            progress.setStatus("IDLE");
+            return progress;
+        }
+        long nanos = (run.finishedNanos != 0 ? run.finishedNanos : System.nanoTime()) - run.startedNanos;
+        progress.setStatus(run.status);
+        progress.setAccrualDate(run.accrualDate);
+        progress.setPartitions(run.partitions.size());
+        progress.setCompletedPartitions(run.completedPartitions.get());
+        progress.setRowsProcessed(run.resumedRows + run.rowsProcessed.get());
+        progress.setRowsTotal(run.rowsTotal);
+        progress.setRowsPerSecond(nanos == 0 ? 0 : run.rowsProcessed.get() / (nanos / 1e9));
+        progress.setStartedAt(run.startedAt);
+        progress.setFinishedAt(run.finishedAt);
+        progress.setError(run.error);
+        return progress;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "interest-accrual");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = executor;
+        LocalDate unfinished = jdbcTemplate.queryForObject(UNFINISHED_RUN_SQL, LocalDate.class);
+        if (unfinished != null) {
+            log.info("Resuming the interest accrual run for {}", unfinished);
+            executor.execute(() -> runQuietly(unfinished));
+        }
+        scheduleNextRun(executor);
+    }
+
+    /**
+     * Stops a run in progress after the chunks being written, leaving its checkpoints to be resumed.
+     */
+    @Override
+    public void stop() {
+        stopping = true;
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        if (executor == null) {
+            return;
+        }
+        nextRun.cancel(false);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Interest accrued up to a future date could not be taken back: the loans would be skipped by every run until
+     * that date.
+     */
+    private static void checkAccrualDate(LocalDate accrualDate) {
+        if (accrualDate.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Interest cannot be accrued up to " + accrualDate
+                    + ", which is in the future");
+        }
+    }
+
+    private void scheduleNextRun(ScheduledExecutorService executor) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = CronExpression.parse(interestAccrualConfigDto.cron()).next(now);
+        nextRun = executor.schedule(() -> {
+            runQuietly(next.toLocalDate());
+            if (scheduler == executor) {
+                scheduleNextRun(executor);
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runQuietly(LocalDate accrualDate) {
+        try {
+            InterestAccrualProgressDto progress = run(accrualDate);
+            log.info("Interest accrual for {} {}: {} loans at {} loans/s", accrualDate, progress.getStatus(),
+                    progress.getRowsProcessed(), Math.round(progress.getRowsPerSecond()));
+        } catch (RuntimeException exception) {
+            // the checkpoints are kept, so the next run or a restart picks up where this one failed
+            log.error("Interest accrual for {} failed", accrualDate, exception);
+        }
+    }
+
+    /**
+     * @return the checkpoints of the run for {@code accrualDate}, created on its first start
+     */
+    private List<Partition> partitions(LocalDate accrualDate) {
+        List<Partition> partitions = jdbcTemplate.query(SELECT_CHECKPOINTS_SQL, (resultSet, rowNum) -> new Partition(
+                resultSet.getInt(1), resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4),
+                resultSet.getBoolean(5)), accrualDate);
+        if (!partitions.isEmpty()) {
+            return partitions;
+        }
+        jdbcTemplate.update(DELETE_CHECKPOINTS_SQL, accrualDate);
+        long[] range = jdbcTemplate.queryForObject("SELECT COALESCE(MIN(loan_id), 1), COALESCE(MAX(loan_id), 0) FROM loans",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)});
+        int count = interestAccrualConfigDto.partitions();
+        long span = Math.max(0, range[1] - range[0] + 1);
+        partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = range[0] - 1 + span * i / count;
+            // loans opened while the run is in progress land in the last partition
+            long end = i == count - 1 ? Long.MAX_VALUE : range[0] - 1 + span * (i + 1) / count;
+            jdbcTemplate.update(INSERT_CHECKPOINT_SQL, accrualDate, i, start, end);
+            partitions.add(new Partition(i, start, end, 0, false));
+        }
+        return partitions;
+    }
+
+    private void accrue(Run run) {
+        List<Partition> remaining = run.partitions.stream().filter(partition -> !partition.completed()).toList();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(interestAccrualConfigDto.threads(), remaining.size())), runnable -> {
+                    Thread thread = new Thread(runnable, "interest-accrual-partition");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        List<Future<?>> futures = new ArrayList<>(remaining.size());
+        for (Partition partition : remaining) {
+            futures.add(executor.submit(() -> accrue(run, partition)));
+        }
+        executor.shutdown();
+        String error = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException exception) {
+                log.error("Interest accrual for {} failed in a partition", run.accrualDate, exception.getCause());
+                error = exception.getCause().toString();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                stopping = true;
+                break;
+            }
+        }
+        run.finish(error != null ? "FAILED" : run.completedPartitions.get() == run.partitions.size()
+                ? "COMPLETED" : "STOPPED", error);
+    }
+
+    private void accrue(Run run, Partition partition) {
+        Chunk chunk = new Chunk(interestAccrualConfigDto.chunkSize());
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        long position = partition.lastLoanId();
+        boolean completed = false;
+        while (!completed) {
+            if (stopping) {
+                return;
+            }
+            long after = position;
+            int updated = transactionTemplate.execute(status -> accrueChunk(run.accrualDate, partition, after,
+                    chunk, updatedBy));
+            run.rowsProcessed.addAndGet(updated);
+            position = chunk.read == 0 ? position : chunk.lastLoanId;
+            completed = chunk.read < chunk.loanId.length;
+        }
+        run.completedPartitions.incrementAndGet();
+    }
+
+    /**
+     * @return the number of loans accrued
+     */
+    private int accrueChunk(LocalDate accrualDate, Partition partition, long afterLoanId, Chunk chunk,
+                            String updatedBy) {
+        chunk.size = 0;
+        chunk.read = 0;
+        jdbcTemplate.query(SELECT_SQL, resultSet -> {
+            chunk.read++;
+            chunk.lastLoanId = resultSet.getLong(1);
+            long principal = 100L * Math.max(0, resultSet.getInt(2) - resultSet.getInt(3));
+            int interestRateBps = resultSet.getInt(4);
+            long accruedInterest = resultSet.getLong(5);
+            LocalDate accruedOn = resultSet.getObject(6, LocalDate.class);
+            long days = accruedOn == null ? 1 : ChronoUnit.DAYS.between(accruedOn, accrualDate);
+            // rounded half up to the paisa
+            long interest = ((principal + accruedInterest) * interestRateBps * days + DAYS_PER_YEAR_BPS / 2)
+                    / DAYS_PER_YEAR_BPS;
+            int outstandingAmount;
+            try {
+                outstandingAmount = Math.toIntExact((principal + accruedInterest + interest) / 100);
+            } catch (ArithmeticException exception) {
+                log.error("Interest accrual for {} skipped loan {}: its outstanding amount overflows",
+                        accrualDate, chunk.lastLoanId);
+                return;
+            }
+            int i = chunk.size++;
+            chunk.loanId[i] = chunk.lastLoanId;
+            chunk.accruedInterest[i] = accruedInterest + interest;
+            chunk.outstandingAmount[i] = outstandingAmount;
+            chunk.outstandingChange[i] = (long) outstandingAmount - resultSet.getInt(7);
+            chunk.loanType[i] = resultSet.getString(8);
+            chunk.createdAt[i] = resultSet.getObject(9, LocalDateTime.class);
+        }, afterLoanId, partition.endLoanId(), accrualDate, chunk.loanId.length);
+        if (chunk.read == 0) {
+            jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, afterLoanId, 0, true, accrualDate, partition.number());
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = chunk.size == 0 ? new int[0] : jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, chunk.accruedInterest[i]);
+                statement.setInt(2, chunk.outstandingAmount[i]);
+                statement.setObject(3, accrualDate);
+                statement.setObject(4, now);
+                statement.setString(5, updatedBy);
+                statement.setLong(6, chunk.loanId[i]);
+                statement.setObject(7, accrualDate);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunk.size;
+            }
+        });
+        int updated = 0;
+        chunk.changes.clear();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated += counts[i];
+                chunk.changes.add(chunk.createdAt[i], chunk.loanType[i], 0, 0, 0, chunk.outstandingChange[i]);
+            }
+        }
+        loanPortfolioSummary.apply(chunk.changes);
+        jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, chunk.lastLoanId, updated,
+                chunk.read < chunk.loanId.length, accrualDate, partition.number());
+        return updated;
+    }
+
+    /**
+     * @param lastLoanId - every loan up to this one has been accrued
+     * @param endLoanId - last loan of the partition
+     */
+    private record Partition(int number, long lastLoanId, long endLoanId, long rowsProcessed, boolean completed) {
+    }
+
+    /**
+     * One chunk of accrued loans, reused by every chunk of a partition. {@code read} and {@code lastLoanId} count
+     * the loans read, {@code size} the accrued ones among them.
+     */
+    private static final class Chunk {
+
+        private final long[] loanId;
+        private final long[] accruedInterest;
+        private final int[] outstandingAmount;
+        private final long[] outstandingChange;
+        private final String[] loanType;
+        private final LocalDateTime[] createdAt;
+        private final LoanPortfolioSummary.Changes changes = new LoanPortfolioSummary.Changes();
+        private int size;
+        private int read;
+        private long lastLoanId;
+
+        private Chunk(int capacity) {
+            loanId = new long[capacity];
+            accruedInterest = new long[capacity];
+            outstandingAmount = new int[capacity];
+            outstandingChange = new long[capacity];
+            loanType = new String[capacity];
+            createdAt = new LocalDateTime[capacity];
+        }
+    }
+
+    private static final class Run {
+
+        private final LocalDate accrualDate;
+        private final List<Partition> partitions;
+        private final long rowsTotal;
+        private final long resumedRows;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private volatile String status = "RUNNING";
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+
+        private Run(LocalDate accrualDate, List<Partition> partitions, long rowsTotal) {
+            this.accrualDate = accrualDate;
+            this.partitions = partitions;
+            this.rowsTotal = rowsTotal;
+            this.resumedRows = partitions.stream().mapToLong(Partition::rowsProcessed).sum();
+            this.completedPartitions.set((int) partitions.stream().filter(Partition::completed).count());
+        }
+
+        private void finish(String status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.finishedNanos = System.nanoTime();
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.thepunecoder.loans.bulk;
+
+import com.thepunecoder.loans.constants.LoansConstants;
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.dto.LoansDto;
+import com.thepunecoder.loans.service.impl.LoanPortfolioSummary;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Imports loans from a CSV file, such as a loan book exported from another system, in JDBC batches.
+ *
+ * The first line names the columns: mobileNumber, loanNumber, loanType, totalLoan, amountPaid and
+ * outstandingAmount, in any order and case, with or without underscores; other columns are ignored. Every row is
+ * validated with the rules of {@link LoansDto}, and rejected, like {@code createLoan} does, when a loan with its
+ * mobile number or loan number exists already or comes earlier in the file. Valid rows are inserted
+ * {@value LoansConstants#IMPORT_BATCH_SIZE} at a time, each batch in its own transaction, with loan ids taken in
+ * blocks from loans_seq, and adds them to the portfolio totals in the same transaction. An import that was cut short can be sent again: the rows already imported are rejected
+ * as duplicates.
+ *
+ * The file is read as it arrives, and only one batch of rows is held at a time, so memory use does not depend on
+ * the size of the file. Each rejected row, progress every {@value LoansConstants#IMPORT_PROGRESS_INTERVAL} rows
+ * and the outcome are passed to the listener as they happen.
+ */
+@Slf4j
+@Component
+public class LoanCsvImporter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO loans (loan_id, mobile_number, loan_number, loan_type, total_loan, amount_paid,
+                               outstanding_amount, interest_rate_bps, tenure_months, created_at, created_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String NEXT_LOAN_ID_SQL = "SELECT NEXT VALUE FOR loans_seq";
+    private static final String[] COLUMNS =
+            {"mobileNumber", "loanNumber", "loanType", "totalLoan", "amountPaid", "outstandingAmount"};
+    private static final int MOBILE_NUMBER = 0;
+    private static final int LOAN_NUMBER = 1;
+    private static final int LOAN_TYPE = 2;
+    private static final int TOTAL_LOAN = 3;
+    private static final int AMOUNT_PAID = 4;
+    private static final int OUTSTANDING_AMOUNT = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final AuditorAware<String> auditorAware;
+    private final LoanPortfolioSummary loanPortfolioSummary;
+
+    public LoanCsvImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Validator validator,
+                           AuditorAware<String> auditorAware, LoanPortfolioSummary loanPortfolioSummary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.auditorAware = auditorAware;
+        this.loanPortfolioSummary = loanPortfolioSummary;
+    }
+
+    /**
+     * @param csv - the file, read up to its end
+     * @param listener - receives each rejected row, progress and finally the returned outcome
+     * @return the outcome, COMPLETED, or FAILED when the file could not be read or a batch could not be written
+     */
+    public LoanImportEventDto importLoans(InputStream csv, Consumer<LoanImportEventDto> listener) {
+        Import run = new Import(listener);
+        try {
+            LoanCsvParser parser = new LoanCsvParser(csv);
+            if (!parser.nextRecord()) {
+                run.error(1, null, "The file has no header naming the columns " + String.join(", ", COLUMNS));
+                return run.finish(LoanImportEventDto.FAILED, "The file is empty");
+            }
+            int[] columns = columns(parser, run);
+            if (columns == null) {
+                return run.finish(LoanImportEventDto.FAILED, "The header is missing columns");
+            }
+            LoansDto loansDto = new LoansDto();
+            Batch batch = new Batch(LoansConstants.IMPORT_BATCH_SIZE,
+                    auditorAware.getCurrentAuditor().orElse(null));
+            while (parser.nextRecord()) {
+                run.rowsRead++;
+                if (read(parser, columns, loansDto, run)) {
+                    batch.add(parser.getLine(), loansDto);
+                }
+                if (batch.size == batch.line.length || run.rowsRead == run.nextProgress) {
+                    write(batch, run);
+                }
+            }
+            write(batch, run);
+            return run.finish(LoanImportEventDto.COMPLETED, null);
+        } catch (IOException | DataAccessException exception) {
+            log.error("Loan import failed after {} rows", run.rowsRead, exception);
+            return run.finish(LoanImportEventDto.FAILED, exception.getMessage());
+        }
+    }
+
+    /**
+     * @return the field of each column, or null when a column is missing
+     */
+    private static int[] columns(LoanCsvParser parser, Import run) {
+        int[] columns = new int[COLUMNS.length];
+        Arrays.fill(columns, -1);
+        for (int field = 0; field < parser.getFieldCount(); field++) {
+            String name = parser.getString(field).replace("_", "").trim();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (COLUMNS[i].toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT)) && columns[i] < 0) {
+                    columns[i] = field;
+                }
+            }
+        }
+        boolean complete = true;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (columns[i] < 0) {
+                run.error(parser.getLine(), COLUMNS[i], "Column is missing from the header");
+                complete = false;
+            }
+        }
+        return complete ? columns : null;
+    }
+
+    /**
+     * Reads the current row into {@code loansDto} and validates it.
+     *
+     * @return false when the row was rejected
+     */
+    private boolean read(LoanCsvParser parser, int[] columns, LoansDto loansDto, Import run) {
+        long line = parser.getLine();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (columns[i] >= parser.getFieldCount()) {
+                return run.reject(line, COLUMNS[i], "Field is missing");
+            }
+            if (parser.isTruncated(columns[i])) {
+                return run.reject(line, COLUMNS[i],
+                        "Field is longer than " + LoanCsvParser.MAX_FIELD_LENGTH + " characters");
+            }
+        }
+        for (int i = TOTAL_LOAN; i <= OUTSTANDING_AMOUNT; i++) {
+            if (parser.getInt(columns[i]) == Long.MIN_VALUE) {
+                return run.reject(line, COLUMNS[i], "Field must be a whole number");
+            }
+        }
+        loansDto.setMobileNumber(parser.getString(columns[MOBILE_NUMBER]));
+        loansDto.setLoanNumber(parser.getString(columns[LOAN_NUMBER]));
+        loansDto.setLoanType(parser.getRepeatedString(columns[LOAN_TYPE]));
+        loansDto.setTotalLoan((int) parser.getInt(columns[TOTAL_LOAN]));
+        loansDto.setAmountPaid((int) parser.getInt(columns[AMOUNT_PAID]));
+        loansDto.setOutstandingAmount((int) parser.getInt(columns[OUTSTANDING_AMOUNT]));
+        Set<ConstraintViolation<LoansDto>> violations = validator.validate(loansDto);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        for (ConstraintViolation<LoansDto> violation : violations) {
+            run.error(line, violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        run.rowsRejected++;
+        return false;
+    }
+
+    /**
+     * Inserts the rows of the batch that are not duplicates, in one transaction, then reports the duplicates and,
+     * every {@value LoansConstants#IMPORT_PROGRESS_INTERVAL} rows, progress.
+     */
+    private void write(Batch batch, Import run) {
+        if (batch.size > 0) {
+            int imported = transactionTemplate.execute(status -> insert(batch));
+            run.rowsImported += imported;
+            for (int i = 0; i < batch.size; i++) {
+                if (batch.rejectedField[i] != null) {
+                    String value = COLUMNS[MOBILE_NUMBER].equals(batch.rejectedField[i])
+                            ? batch.mobileNumber[i] : batch.loanNumber[i];
+                    run.reject(batch.line[i], batch.rejectedField[i],
+                            "Loan already registered with given " + batch.rejectedField[i] + " " + value);
+                }
+            }
+            batch.size = 0;
+        }
+        if (run.rowsRead == run.nextProgress) {
+            run.nextProgress += LoansConstants.IMPORT_PROGRESS_INTERVAL;
+            run.listener.accept(run.progress(LoanImportEventDto.PROGRESS));
+            log.info("Loan import: {} rows read, {} imported, {} rejected", run.rowsRead, run.rowsImported,
+                    run.rowsRejected);
+        }
+    }
+
+    /**
+     * @return the number of loans inserted
+     */
+    private int insert(Batch batch) {
+        Set<String> existingMobileNumbers = existing("mobile_number", batch.mobileNumber, batch.size);
+        Set<String> existingLoanNumbers = existing("loan_number", batch.loanNumber, batch.size);
+        batch.seenMobileNumbers.clear();
+        batch.seenLoanNumbers.clear();
+        int accepted = 0;
+        for (int i = 0; i < batch.size; i++) {
+            if (existingMobileNumbers.contains(batch.mobileNumber[i])
+                    || !batch.seenMobileNumbers.add(batch.mobileNumber[i])) {
+                batch.rejectedField[i] = COLUMNS[MOBILE_NUMBER];
+            } else if (existingLoanNumbers.contains(batch.loanNumber[i])
+                    || !batch.seenLoanNumbers.add(batch.loanNumber[i])) {
+                batch.rejectedField[i] = COLUMNS[LOAN_NUMBER];
+            } else {
+                batch.rejectedField[i] = null;
+                batch.loanId[i] = batch.nextLoanId();
+                batch.accepted[accepted++] = i;
+            }
+        }
+        if (accepted == 0) {
+            return 0;
+        }
+        int rows = accepted;
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int j) throws SQLException {
+                int i = batch.accepted[j];
+                statement.setLong(1, batch.loanId[i]);
+                statement.setString(2, batch.mobileNumber[i]);
+                statement.setString(3, batch.loanNumber[i]);
+                statement.setString(4, batch.loanType[i]);
+                statement.setInt(5, batch.totalLoan[i]);
+                statement.setInt(6, batch.amountPaid[i]);
+                statement.setInt(7, batch.outstandingAmount[i]);
+                statement.setInt(8, LoansConstants.HOME_LOAN_INTEREST_RATE_BPS);
+                statement.setInt(9, LoansConstants.HOME_LOAN_TENURE_MONTHS);
+                statement.setObject(10, now);
+                statement.setString(11, batch.createdBy);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows;
+            }
+        });
+        batch.changes.clear();
+        for (int j = 0; j < rows; j++) {
+            int i = batch.accepted[j];
+            batch.changes.add(now, batch.loanType[i], 1, batch.totalLoan[i], batch.amountPaid[i],
+                    batch.outstandingAmount[i]);
+        }
+        loanPortfolioSummary.apply(batch.changes);
+        return rows;
+    }
+
+    /**
+     * @return those of the first {@code size} values that are in the column already
+     */
+    private Set<String> existing(String column, String[] values, int size) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(column).append(" FROM loans WHERE ")
+                .append(column).append(" IN (?");
+        for (int i = 1; i < size; i++) {
+            sql.append(", ?");
+        }
+        sql.append(')');
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            existing.add(resultSet.getString(1));
+        }, (Object[]) Arrays.copyOf(values, size));
+        return existing;
+    }
+
+    /**
+     * Valid rows waiting to be inserted, reused for every batch of an import.
+     */
+    private final class Batch {
+
+        private final long[] line;
+        private final long[] loanId;
+        private final String[] mobileNumber;
+        private final String[] loanNumber;
+        private final String[] loanType;
+        private final int[] totalLoan;
+        private final int[] amountPaid;
+        private final int[] outstandingAmount;
+        private final String[] rejectedField;
+        private final int[] accepted;
+        private final Set<String> seenMobileNumbers;
+        private final Set<String> seenLoanNumbers;
+        private final LoanPortfolioSummary.Changes changes = new LoanPortfolioSummary.Changes();
+        private final String createdBy;
+        private int size;
+        private long nextLoanId;
+        private long loanIdLimit;
+
+        private Batch(int capacity, String createdBy) {
+            line = new long[capacity];
+            loanId = new long[capacity];
+            mobileNumber = new String[capacity];
+            loanNumber = new String[capacity];
+            loanType = new String[capacity];
+            totalLoan = new int[capacity];
+            amountPaid = new int[capacity];
+            outstandingAmount = new int[capacity];
+            rejectedField = new String[capacity];
+            accepted = new int[capacity];
+            seenMobileNumbers = new HashSet<>(capacity * 2);
+            seenLoanNumbers = new HashSet<>(capacity * 2);
+            this.createdBy = createdBy;
+        }
+
+        private void add(long line, LoansDto loansDto) {
+            int i = size++;
+            this.line[i] = line;
+            mobileNumber[i] = loansDto.getMobileNumber();
+            loanNumber[i] = loansDto.getLoanNumber();
+            loanType[i] = loansDto.getLoanType();
+            totalLoan[i] = loansDto.getTotalLoan();
+            amountPaid[i] = loansDto.getAmountPaid();
+            outstandingAmount[i] = loansDto.getOutstandingAmount();
+        }
+
+        /**
+         * Takes loan ids from loans_seq a block at a time, as the pooled-lo generator of {@code Loans} does.
+         */
+        private long nextLoanId() {
+            if (nextLoanId == loanIdLimit) {
+                nextLoanId = jdbcTemplate.queryForObject(NEXT_LOAN_ID_SQL, Long.class);
+                loanIdLimit = nextLoanId + LoansConstants.LOAN_ID_ALLOCATION_SIZE;
+            }
+            return nextLoanId++;
+        }
+    }
+
+    private static final class Import {
+
+        private final Consumer<LoanImportEventDto> listener;
+        private final long startedNanos = System.nanoTime();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long nextProgress = LoansConstants.IMPORT_PROGRESS_INTERVAL;
+
+        private Import(Consumer<LoanImportEventDto> listener) {
+            this.listener = listener;
+        }
+
+        private void error(long line, String field, String message) {
+            LoanImportEventDto event = new LoanImportEventDto();
+            event.setType(LoanImportEventDto.ERROR);
+            event.setLine(line);
+            event.setField(field);
+            event.setMessage(message);
+            listener.accept(event);
+        }
+
+        /**
+         * @return false, for the row is rejected
+         */
+        private boolean reject(long line, String field, String message) {
+            error(line, field, message);
+            rowsRejected++;
+            return false;
+        }
+
+        private LoanImportEventDto progress(String type) {
+            long nanos = System.nanoTime() - startedNanos;
+            LoanImportEventDto event = new LoanImportEventDto();
+            event.setType(type);
+            event.setRowsRead(rowsRead);
+            event.setRowsImported(rowsImported);
+            event.setRowsRejected(rowsRejected);
+            event.setRowsPerSecond(nanos == 0 ? 0 : rowsRead / (nanos / 1e9));
+            return event;
+        }
+
+        private LoanImportEventDto finish(String type, String message) {
+            LoanImportEventDto event = progress(type);
+            event.setMessage(message);
+            listener.accept(event);
+            log.info("Loan import {}: {} rows read, {} imported, {} rejected", type, rowsRead, rowsImported,
+                    rowsRejected);
+            return event;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.thepunecoder.loans.bulk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads CSV records (RFC 4180: comma separated, optionally double quoted, {@code ""} for a quote inside quotes,
+ * LF or CRLF line ends) from a stream, one record at a time.
+ *
+ * The stream is read through one fixed buffer and the fields of the current record are unquoted into one
+ * reusable byte array, so reading a record allocates nothing; only the fields asked for as strings are decoded.
+ * A field longer than {@value #MAX_FIELD_LENGTH} bytes is cut short and reported by {@link #isTruncated(int)},
+ * which keeps a malformed file, say one with an unclosed quote, from growing the buffers without bound.
+ */
+public class LoanCsvParser {
+
+    static final int MAX_FIELD_LENGTH = 1024;
+    private static final int MAX_FIELDS = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DICTIONARY_SIZE = 16;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfStream;
+
+    private final byte[] fields = new byte[MAX_FIELDS * MAX_FIELD_LENGTH];
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final boolean[] truncated = new boolean[MAX_FIELDS];
+    private int fieldCount;
+    private boolean tooManyFields;
+    private long line;
+    private long nextLine = 1;
+
+    // recently decoded values of repetitive fields, so that each distinct value is only decoded once
+    private final byte[][] dictionaryBytes = new byte[DICTIONARY_SIZE][];
+    private final String[] dictionaryStrings = new String[DICTIONARY_SIZE];
+    private int dictionaryNext;
+
+    public LoanCsvParser(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record, skipping blank lines.
+     *
+     * @return false at the end of the stream
+     */
+    public boolean nextRecord() throws IOException {
+        int b;
+        do {
+            line = nextLine;
+            b = read();
+            if (b == '\r') {
+                b = read();
+            }
+            if (b == '\n') {
+                nextLine++;
+            }
+        } while (b == '\n');
+        if (b < 0) {
+            fieldCount = 0;
+            return false;
+        }
+        fieldCount = 0;
+        tooManyFields = false;
+        int length = 0;
+        beginField(0);
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while (true) {
+            if (quoted) {
+                if (b < 0) {
+                    endField(length);
+                    return true;
+                }
+                if (b == '"') {
+                    b = read();
+                    if (b != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (b == '\n') {
+                    nextLine++;
+                }
+                length = append(b, length);
+            } else if (b == ',') {
+                endField(length);
+                length = 0;
+                beginField(fieldCount);
+                fieldStarted = false;
+            } else if (b == '\n' || b < 0) {
+                endField(length);
+                if (b == '\n') {
+                    nextLine++;
+                }
+                return true;
+            } else if (b == '\r') {
+                int next = read();
+                if (next != '\n' && next >= 0) {
+                    length = append(b, length);
+                }
+                b = next;
+                continue;
+            } else if (b == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else {
+                fieldStarted = true;
+                length = append(b, length);
+            }
+            b = read();
+        }
+    }
+
+    /**
+     * @return the line the current record starts on, counting from 1
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return whether the current record had more than 64 fields; the rest were dropped
+     */
+    public boolean hasTooManyFields() {
+        return tooManyFields;
+    }
+
+    public boolean isTruncated(int field) {
+        return truncated[field];
+    }
+
+    public String getString(int field) {
+        return new String(fields, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Like {@link #getString(int)}, but returns the same string for a value seen among the last few distinct
+     * values of this kind of field.
+     */
+    public String getRepeatedString(int field) {
+        int start = fieldStart[field];
+        int end = fieldEnd[field];
+        for (int i = 0; i < DICTIONARY_SIZE && dictionaryBytes[i] != null; i++) {
+            if (Arrays.equals(dictionaryBytes[i], 0, dictionaryBytes[i].length, fields, start, end)) {
+                return dictionaryStrings[i];
+            }
+        }
+        String value = getString(field);
+        dictionaryBytes[dictionaryNext] = Arrays.copyOfRange(fields, start, end);
+        dictionaryStrings[dictionaryNext] = value;
+        dictionaryNext = (dictionaryNext + 1) % DICTIONARY_SIZE;
+        return value;
+    }
+
+    /**
+     * @return the field as an int, surrounding spaces ignored, or {@code Long.MIN_VALUE} when it is not one
+     */
+    public long getInt(int field) {
+        int start = fieldStart[field];
+        int end = fieldEnd[field];
+        while (start < end && fields[start] == ' ') {
+            start++;
+        }
+        while (end > start && fields[end - 1] == ' ') {
+            end--;
+        }
+        boolean negative = start < end && fields[start] == '-';
+        if (negative || start < end && fields[start] == '+') {
+            start++;
+        }
+        if (start == end || end - start > 10) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = fields[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    private void beginField(int field) {
+        if (field == MAX_FIELDS) {
+            tooManyFields = true;
+            return;
+        }
+        fieldStart[field] = field * MAX_FIELD_LENGTH;
+        truncated[field] = false;
+    }
+
+    private void endField(int length) {
+        if (fieldCount == MAX_FIELDS) {
+            return;
+        }
+        fieldEnd[fieldCount] = fieldStart[fieldCount] + length;
+        fieldCount++;
+    }
+
+    private int append(int b, int length) {
+        if (fieldCount == MAX_FIELDS) {
+            return length;
+        }
+        if (length == MAX_FIELD_LENGTH) {
+            truncated[fieldCount] = true;
+            return length;
+        }
+        fields[fieldStart[fieldCount] + length] = (byte) b;
+        return length + 1;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            if (endOfStream) {
+                return -1;
+            }
+            limit = in.readNBytes(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit < BUFFER_SIZE) {
+                endOfStream = true;
+            }
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+}
@@ -8,6 +8,8 @@ public final class LoansConstants {
 
     public static final String  HOME_LOAN = "Home Loan";
     public static final int  NEW_LOAN_LIMIT = 1_00_000;
+    public static final int  HOME_LOAN_INTEREST_RATE_BPS = 850;
+    public static final int  HOME_LOAN_TENURE_MONTHS = 360;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Loan created successfully";
     public static final String  STATUS_200 = "200";
@@ -15,6 +17,12 @@ public final class LoansConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final int  SCHEDULE_CACHE_SIZE = 10_000;
+    public static final String  IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String  IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int  LOAN_ID_ALLOCATION_SIZE = 50;
+    public static final int  IMPORT_BATCH_SIZE = 500;
+    public static final int  IMPORT_PROGRESS_INTERVAL = 100_000;
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
@@ -2,11 +2,16 @@ package com.thepunecoder.loans.controller;
 
 import com.thepunecoder.loans.constants.LoansConstants;
 import com.thepunecoder.loans.dto.ErrorResponseDto;
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.dto.LoanScheduleDto;
 import com.thepunecoder.loans.dto.LoansContactInfoDto;
 import com.thepunecoder.loans.dto.LoansDto;
 import com.thepunecoder.loans.dto.ResponseDto;
+import com.thepunecoder.loans.idempotency.IdempotentRequestStore;
 import com.thepunecoder.loans.service.ILoansService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,6 +20,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -23,6 +29,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.function.Supplier;
 
 /**
  * @author thepunecoder
@@ -52,15 +67,29 @@ public class LoansController {
     @Autowired
     private LoansContactInfoDto loansContactInfoDto;
 
+    @Autowired
+    private ObjectProvider<IdempotentRequestStore> idempotentRequestStore;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
     @Operation(
             summary = "Create Loan REST API",
-            description = "REST API to create new loan"
+            description = "REST API to create new loan. A request repeated with the same Idempotency-Key header "
+                    + "gets the first response back"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "201",
                     description = "HTTP Status CREATED"
             ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Content, the Idempotency-Key was used for a different request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -71,13 +100,17 @@ public class LoansController {
     }
     )
     @PostMapping("/create")
-    public ResponseEntity<ResponseDto> createLoan(@RequestParam
+    public ResponseEntity<ResponseDto> createLoan(@RequestHeader(name = LoansConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                      String idempotencyKey,
+                                                  @RequestParam
                                                       @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
                                                       String mobileNumber) {
-        iLoansService.createLoan(mobileNumber);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(new ResponseDto(LoansConstants.STATUS_201, LoansConstants.MESSAGE_201));
+        return idempotent(idempotencyKey, mobileNumber, "create", mobileNumber, () -> {
+            iLoansService.createLoan(mobileNumber);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(new ResponseDto(LoansConstants.STATUS_201, LoansConstants.MESSAGE_201));
+        });
     }
 
     @Operation(
@@ -106,9 +139,70 @@ public class LoansController {
         return ResponseEntity.status(HttpStatus.OK).body(loansDto);
     }
 
+    @Operation(
+            summary = "Fetch Loan Schedule REST API",
+            description = "REST API to fetch the equal monthly installment schedule of the outstanding amount "
+                    + "of a loan, based on a mobile number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/schedule")
+    public ResponseEntity<LoanScheduleDto> fetchLoanSchedule(@RequestParam
+                                                             @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
+                                                             String mobileNumber) {
+        LoanScheduleDto loanScheduleDto = iLoansService.fetchLoanSchedule(mobileNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(loanScheduleDto);
+    }
+
+    @Operation(
+            summary = "Fetch Loan Portfolio REST API",
+            description = "REST API to fetch loan totals by loan type and by origination month, optionally for "
+                    + "loans originated from and to a month (yyyy-MM)"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/portfolio")
+    public ResponseEntity<LoanPortfolioDto> fetchPortfolio(@RequestParam(required = false) YearMonth from,
+                                                           @RequestParam(required = false) YearMonth to) {
+        LoanPortfolioDto loanPortfolioDto = iLoansService.fetchPortfolio(from, to);
+        return ResponseEntity.status(HttpStatus.OK).body(loanPortfolioDto);
+    }
+
     @Operation(
             summary = "Update Loan Details REST API",
-            description = "REST API to update loan details based on a loan number"
+            description = "REST API to update loan details based on a loan number. A request repeated with the "
+                    + "same Idempotency-Key header gets the first response back"
     )
     @ApiResponses({
             @ApiResponse(
@@ -119,6 +213,13 @@ public class LoansController {
                     responseCode = "417",
                     description = "Expectation Failed"
             ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Content, the Idempotency-Key was used for a different request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -129,17 +230,61 @@ public class LoansController {
         }
     )
     @PutMapping("/update")
-    public ResponseEntity<ResponseDto> updateLoanDetails(@Valid @RequestBody LoansDto loansDto) {
-        boolean isUpdated = iLoansService.updateLoan(loansDto);
-        if(isUpdated) {
-            return ResponseEntity
-                    .status(HttpStatus.OK)
-                    .body(new ResponseDto(LoansConstants.STATUS_200, LoansConstants.MESSAGE_200));
-        }else{
-            return ResponseEntity
-                    .status(HttpStatus.EXPECTATION_FAILED)
-                    .body(new ResponseDto(LoansConstants.STATUS_417, LoansConstants.MESSAGE_417_UPDATE));
-        }
+    public ResponseEntity<ResponseDto> updateLoanDetails(@RequestHeader(name = LoansConstants.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                             String idempotencyKey,
+                                                         @Valid @RequestBody LoansDto loansDto) {
+        return idempotent(idempotencyKey, loansDto.getMobileNumber(), "update", loansDto, () -> {
+            boolean isUpdated = iLoansService.updateLoan(loansDto);
+            if(isUpdated) {
+                return ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(new ResponseDto(LoansConstants.STATUS_200, LoansConstants.MESSAGE_200));
+            }else{
+                return ResponseEntity
+                        .status(HttpStatus.EXPECTATION_FAILED)
+                        .body(new ResponseDto(LoansConstants.STATUS_417, LoansConstants.MESSAGE_417_UPDATE));
+            }
+        });
+    }
+
+    @Operation(
+            summary = "Import Loans REST API",
+            description = "REST API to import loans from a CSV file with a header naming the columns mobileNumber, "
+                    + "loanNumber, loanType, totalLoan, amountPaid and outstandingAmount. Rows are validated like "
+                    + "loan details and inserted in batches as the file arrives. The response streams one JSON line "
+                    + "per rejected row, progress, and finally the outcome of the import"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = LoanImportEventDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping(path = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importLoans(InputStream csv) {
+        StreamingResponseBody report = outputStream -> {
+            try {
+                iLoansService.importLoans(csv, event -> write(outputStream, event));
+            } catch (UncheckedIOException exception) {
+                throw exception.getCause();
+            }
+        };
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(report);
     }
 
     @Operation(
@@ -239,4 +384,33 @@ public class LoansController {
                 .status(HttpStatus.OK)
                 .body(loansContactInfoDto);
     }
+
+    /**
+     * Writes one line of an import report. Rejected rows are left to the response buffer, the rest are flushed
+     * so that progress reaches the client as it happens.
+     */
+    private void write(OutputStream outputStream, LoanImportEventDto event) {
+        try {
+            outputStream.write(jsonMapper.writeValueAsBytes(event));
+            outputStream.write('\n');
+            if (!LoanImportEventDto.ERROR.equals(event.getType())) {
+                outputStream.flush();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Answers a request sent with an Idempotency-Key from the store when the key was seen before. The service
+     * has no authenticated callers, so keys are scoped by the mobile number the request is for.
+     */
+    private <T> ResponseEntity<T> idempotent(String idempotencyKey, String mobileNumber, String operation,
+                                             Object fingerprint, Supplier<ResponseEntity<T>> request) {
+        IdempotentRequestStore store = idempotentRequestStore.getIfAvailable();
+        if (idempotencyKey == null || idempotencyKey.isBlank() || store == null) {
+            return request.get();
+        }
+        return store.execute(idempotencyKey, mobileNumber, operation, fingerprint, request);
+    }
 }
@@ -0,0 +1,15 @@
+package com.thepunecoder.loans.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param enabled - answer loan creates and updates repeated with the same Idempotency-Key from the first response
+ * @param ttl - how long a response is kept for repeats of its request
+ * @param maxKeys - responses kept at most; the oldest is dropped first
+ * @param maxWait - how long a repeat waits for the first request of its key before it is answered with a 409
+ */
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyConfigDto(boolean enabled, Duration ttl, int maxKeys, Duration maxWait) {
+}
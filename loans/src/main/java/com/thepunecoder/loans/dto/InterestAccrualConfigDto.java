@@ -0,0 +1,14 @@
+package com.thepunecoder.loans.dto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param enabled - accrue interest on every loan each night, and resume an unfinished run on startup
+ * @param cron - when the nightly run starts; it accrues interest up to the day it starts on
+ * @param partitions - loan_id ranges a run is split into
+ * @param threads - partitions processed at the same time
+ * @param chunkSize - loans read, updated and checkpointed in one transaction
+ */
+@ConfigurationProperties(prefix = "interest-accrual")
+public record InterestAccrualConfigDto(boolean enabled, String cron, int partitions, int threads, int chunkSize) {
+}
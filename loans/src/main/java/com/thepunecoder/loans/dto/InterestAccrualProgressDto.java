@@ -0,0 +1,47 @@
+package com.thepunecoder.loans.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the latest interest accrual run in this instance.
+ */
+@Data
+public class InterestAccrualProgressDto {
+
+    /**
+     * IDLE before the first run, then RUNNING, COMPLETED, STOPPED or FAILED; ACCEPTED in the answer to a request
+     * to start a run.
+     */
+    private String status;
+
+    private LocalDate accrualDate;
+
+    private int partitions;
+
+    private int completedPartitions;
+
+    /**
+     * Loans accrued for the accrual date, including those accrued before a restart.
+     */
+    private long rowsProcessed;
+
+    /**
+     * Loans in the table when the run started.
+     */
+    private long rowsTotal;
+
+    /**
+     * Loans accrued per second by this instance since the run started or resumed.
+     */
+    private double rowsPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private String error;
+
+}
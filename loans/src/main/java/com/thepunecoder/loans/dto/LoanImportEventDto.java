@@ -0,0 +1,42 @@
+package com.thepunecoder.loans.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * One line of the report of a bulk loan import: a rejected row, progress so far, or the outcome of the import.
+ */
+@Schema(name = "LoanImportEvent",
+        description = "Schema to hold one line of the report of a bulk loan import"
+)
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoanImportEventDto {
+
+    public static final String ERROR = "ERROR";
+    public static final String PROGRESS = "PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "ERROR for a rejected row, PROGRESS, then COMPLETED or FAILED", example = "ERROR")
+    private String type;
+
+    @Schema(description = "Line of the file the rejected row starts on", example = "42")
+    private Long line;
+
+    @Schema(description = "Field of the rejected row", example = "mobileNumber")
+    private String field;
+
+    @Schema(description = "Why the row was rejected, or why the import failed", example = "Mobile Number must be 10 digits")
+    private String message;
+
+    private Long rowsRead;
+
+    private Long rowsImported;
+
+    private Long rowsRejected;
+
+    private Double rowsPerSecond;
+
+}
@@ -0,0 +1,48 @@
+package com.thepunecoder.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@Schema(name = "LoanPortfolio",
+        description = "Schema to hold loan totals by loan type and by origination month"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class LoanPortfolioDto {
+
+    @Schema(
+            description = "First origination month included, absent when not filtered", example = "2024-01"
+    )
+    private YearMonth from;
+
+    @Schema(
+            description = "Last origination month included, absent when not filtered", example = "2024-12"
+    )
+    private YearMonth to;
+
+    @Schema(
+            description = "Totals of all loans originated in the range"
+    )
+    private LoanPortfolioTotalsDto total;
+
+    @Schema(
+            description = "Totals by loan type"
+    )
+    private List<LoanPortfolioTotalsDto> byLoanType;
+
+    @Schema(
+            description = "Totals by origination month, oldest first"
+    )
+    private List<LoanPortfolioTotalsDto> byOriginationMonth;
+
+    @Schema(
+            description = "When the totals were last rebuilt from the loans table; changes to loans since are included"
+    )
+    private LocalDateTime refreshedAt;
+
+}
@@ -0,0 +1,40 @@
+package com.thepunecoder.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "LoanPortfolioTotals",
+        description = "Schema to hold the totals of a group of loans"
+)
+@Data @NoArgsConstructor @AllArgsConstructor
+public class LoanPortfolioTotalsDto {
+
+    @Schema(
+            description = "Loan type or origination month of the loans, absent for the totals of all of them",
+            example = "Home Loan"
+    )
+    private String group;
+
+    @Schema(
+            description = "Number of loans", example = "1200"
+    )
+    private long loans;
+
+    @Schema(
+            description = "Sum of the total loan amounts", example = "120000000"
+    )
+    private long totalLoan;
+
+    @Schema(
+            description = "Sum of the amounts paid", example = "30000000"
+    )
+    private long amountPaid;
+
+    @Schema(
+            description = "Sum of the outstanding amounts", example = "90000000"
+    )
+    private long outstandingAmount;
+
+}
@@ -0,0 +1,63 @@
+package com.thepunecoder.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Schema(name = "LoanSchedule",
+        description = "Schema to hold the equal monthly installment schedule of a loan. Element i of the "
+                + "installment arrays belongs to installment i + 1"
+)
+@Data
+public class LoanScheduleDto {
+
+    @Schema(
+            description = "Loan Number of the customer", example = "548732457654"
+    )
+    private String loanNumber;
+
+    @Schema(
+            description = "Outstanding amount the schedule repays", example = "99000"
+    )
+    private double principal;
+
+    @Schema(
+            description = "Annual interest rate in percent", example = "8.5"
+    )
+    private double annualInterestRate;
+
+    @Schema(
+            description = "Number of monthly installments", example = "360"
+    )
+    private int tenureMonths;
+
+    @Schema(
+            description = "Equal monthly installment", example = "761.23"
+    )
+    private double emi;
+
+    @Schema(
+            description = "Interest paid over the whole schedule", example = "175042.8"
+    )
+    private double totalInterest;
+
+    @Schema(
+            description = "Amount paid in each installment"
+    )
+    private double[] payment;
+
+    @Schema(
+            description = "Interest part of each installment"
+    )
+    private double[] interest;
+
+    @Schema(
+            description = "Principal part of each installment"
+    )
+    private double[] principalRepaid;
+
+    @Schema(
+            description = "Principal left after each installment"
+    )
+    private double[] balance;
+
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Schema(name = "Loans",
@@ -28,6 +29,7 @@ public class LoansDto {
     private String loanNumber;
 
     @NotEmpty(message = "LoanType can not be a null or empty")
+    @Size(max = 100, message = "LoanType can not be longer than 100 characters")
     @Schema(
             description = "Type of the loan", example = "Home Loan"
     )
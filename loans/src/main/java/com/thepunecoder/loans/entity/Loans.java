@@ -1,14 +1,19 @@
 package com.thepunecoder.loans.entity;
 
+import com.thepunecoder.loans.constants.LoansConstants;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
+
 @Entity
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Loans extends BaseEntity {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+	@SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq",
+			allocationSize = LoansConstants.LOAN_ID_ALLOCATION_SIZE)
 	private Long loanId;
 
 	private String mobileNumber;
@@ -22,5 +27,21 @@ public class Loans extends BaseEntity {
 	private int amountPaid;
 
 	private int outstandingAmount;
+
+	/**
+	 * Annual interest rate in basis points, 850 for 8.5%.
+	 */
+	private int interestRateBps;
+
+	private int tenureMonths;
+
+	/**
+	 * Interest accrued in paise, written only by the nightly interest accrual.
+	 */
+	@Column(insertable = false, updatable = false)
+	private long accruedInterest;
+
+	@Column(insertable = false, updatable = false)
+	private LocalDate interestAccruedOn;
 	
 }
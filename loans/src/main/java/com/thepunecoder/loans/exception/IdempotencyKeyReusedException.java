@@ -0,0 +1,13 @@
+package com.thepunecoder.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_CONTENT)
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(String.format("Idempotency-Key %s was already used for a different request", idempotencyKey));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.thepunecoder.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super(String.format("The first request with Idempotency-Key %s is still being processed", idempotencyKey));
+    }
+
+}
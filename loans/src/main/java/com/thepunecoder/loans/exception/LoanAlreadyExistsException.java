@@ -7,7 +7,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 public class LoanAlreadyExistsException extends RuntimeException {
 
     public LoanAlreadyExistsException(String message){
-        super(message);
+        // an expected outcome of retried creates, reported as a 400 without its stack trace
+        super(message, null, false, false);
     }
 
 }
@@ -0,0 +1,140 @@
+package com.thepunecoder.loans.idempotency;
+
+import com.thepunecoder.loans.constants.LoansConstants;
+import com.thepunecoder.loans.dto.IdempotencyConfigDto;
+import com.thepunecoder.loans.exception.IdempotencyKeyReusedException;
+import com.thepunecoder.loans.exception.IdempotentRequestInProgressException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Responses to requests sent with an Idempotency-Key, so that a client retrying a request gets the first
+ * response again instead of having the request processed twice.
+ *
+ * Keys are scoped by the client that sent them and the operation requested, so clients cannot see each other's
+ * responses. A repeat that arrives while the first request is still being processed waits for it, up to
+ * {@code idempotency.max-wait}, and shares its response. Requests that fail with an exception are not kept, so their repeats are processed again. At most
+ * {@code idempotency.max-keys} responses are kept, each for {@code idempotency.ttl}. Only created when
+ * {@code idempotency.enabled} is set.
+ */
+@Component
+@ConditionalOnBooleanProperty("idempotency.enabled")
+public class IdempotentRequestStore {
+
+    private final long ttlNanos;
+    private final int maxKeys;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries;
+
+    @Autowired
+    public IdempotentRequestStore(IdempotencyConfigDto idempotencyConfigDto) {
+        this(idempotencyConfigDto, System::nanoTime);
+    }
+
+    IdempotentRequestStore(IdempotencyConfigDto idempotencyConfigDto, LongSupplier nanoClock) {
+        this.ttlNanos = idempotencyConfigDto.ttl().toNanos();
+        this.maxKeys = idempotencyConfigDto.maxKeys();
+        this.maxWaitNanos = idempotencyConfigDto.maxWait().toNanos();
+        this.nanoClock = nanoClock;
+        // insertion order is expiry order, so expired entries are always at the head
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Processes {@code request} unless a request with the same key was processed or is being processed.
+     *
+     * @param idempotencyKey - Idempotency-Key of the request
+     * @param client - who sent the request; keys are only compared within a client
+     * @param operation - the operation requested; keys are only compared within an operation
+     * @param fingerprint - what the request asks for, compared by {@code equals} with the first request of the key
+     * @return the response to {@code request}, or to the first request of the key with an
+     * {@code Idempotent-Replayed} header
+     * @throws IdempotencyKeyReusedException when the key was used for a different request
+     * @throws IdempotentRequestInProgressException when the first request of the key is still being processed
+     * after {@code idempotency.max-wait}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String client, String operation, Object fingerprint,
+                                         Supplier<ResponseEntity<T>> request) {
+        String key = operation + ' ' + client + ' ' + idempotencyKey;
+        Entry first;
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>(), nanoClock.getAsLong());
+        synchronized (entries) {
+            expire(entry.createdNanos);
+            first = entries.putIfAbsent(key, entry);
+        }
+        if (first == null) {
+            return process(key, entry, request);
+        }
+        if (!first.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        ResponseEntity<?> response;
+        try {
+            // a copy, so that the timeout of one repeat does not complete the response the others wait for
+            response = first.response.copy().orTimeout(maxWaitNanos, TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof TimeoutException) {
+                throw new IdempotentRequestInProgressException(idempotencyKey);
+            }
+            // the repeat fails the way the request it waited for did
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+        return (ResponseEntity<T>) ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(LoansConstants.IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private <T> ResponseEntity<T> process(String key, Entry entry, Supplier<ResponseEntity<T>> request) {
+        ResponseEntity<T> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException | Error exception) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.response.completeExceptionally(exception);
+            throw exception;
+        }
+        entry.response.complete(response);
+        return response;
+    }
+
+    private void expire(long nowNanos) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && nowNanos - iterator.next().createdNanos >= ttlNanos) {
+            iterator.remove();
+        }
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<ResponseEntity<?>> response, long createdNanos) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.thepunecoder.loans.mapper;
+
+import com.thepunecoder.loans.dto.LoanScheduleDto;
+import com.thepunecoder.loans.schedule.AmortizationSchedule;
+
+public class LoanScheduleMapper {
+
+    public static LoanScheduleDto mapToLoanScheduleDto(String loanNumber, AmortizationSchedule schedule,
+                                                       LoanScheduleDto loanScheduleDto) {
+        int installments = schedule.getInstallments();
+        double[] payment = new double[installments];
+        double[] interest = new double[installments];
+        double[] principalRepaid = new double[installments];
+        double[] balance = new double[installments];
+        for (int i = 0; i < installments; i++) {
+            payment[i] = rupees(schedule.getPayment(i));
+            interest[i] = rupees(schedule.getInterest(i));
+            principalRepaid[i] = rupees(schedule.getPrincipalRepaid(i));
+            balance[i] = rupees(schedule.getBalance(i));
+        }
+        loanScheduleDto.setLoanNumber(loanNumber);
+        loanScheduleDto.setPrincipal(rupees(schedule.getPrincipal()));
+        loanScheduleDto.setAnnualInterestRate(schedule.getInterestRateBps() / 100.0);
+        loanScheduleDto.setTenureMonths(installments);
+        loanScheduleDto.setEmi(rupees(schedule.getEmi()));
+        loanScheduleDto.setTotalInterest(rupees(schedule.getTotalInterest()));
+        loanScheduleDto.setPayment(payment);
+        loanScheduleDto.setInterest(interest);
+        loanScheduleDto.setPrincipalRepaid(principalRepaid);
+        loanScheduleDto.setBalance(balance);
+        return loanScheduleDto;
+    }
+
+    private static double rupees(long paise) {
+        return paise / 100.0;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.thepunecoder.loans.schedule;
+
+/**
+ * Computes equal monthly installment schedules.
+ *
+ * The installment is {@code P * r / (1 - (1 + r)^-n)} for a principal P, monthly rate r and n months,
+ * rounded to the paisa. Each month's interest is the balance times r, rounded to the paisa, and the rest of the
+ * installment repays principal; the last installment repays whatever balance the rounding left.
+ */
+public final class AmortizationEngine {
+
+    private AmortizationEngine() {
+        // restrict instantiation
+    }
+
+    /**
+     * @param principal - amount to repay, in paise
+     * @param interestRateBps - annual interest rate in basis points
+     * @param months - number of monthly installments
+     * @param schedule - schedule to compute into; its arrays are reused
+     * @return the schedule
+     */
+    public static AmortizationSchedule compute(long principal, int interestRateBps, int months,
+                                               AmortizationSchedule schedule) {
+        if (principal < 0 || interestRateBps < 0 || months < 1) {
+            throw new IllegalArgumentException("Invalid loan: principal " + principal + ", rate "
+                    + interestRateBps + " bps, " + months + " months");
+        }
+        double monthlyRate = interestRateBps / 10_000.0 / 12;
+        long emi = monthlyRate == 0
+                ? (principal + months - 1) / months
+                : Math.round(principal * monthlyRate / (1 - Math.pow(1 + monthlyRate, -months)));
+        schedule.reset(principal, interestRateBps, emi, months);
+        long balance = principal;
+        for (int month = 0; month < months; month++) {
+            long interest = Math.round(balance * monthlyRate);
+            long principalRepaid = month == months - 1 ? balance : Math.min(balance, Math.max(0, emi - interest));
+            balance -= principalRepaid;
+            schedule.set(month, interest + principalRepaid, interest, principalRepaid, balance);
+        }
+        return schedule;
+    }
+}
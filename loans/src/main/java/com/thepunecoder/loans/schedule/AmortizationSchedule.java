@@ -0,0 +1,82 @@
+package com.thepunecoder.loans.schedule;
+
+/**
+ * Equal monthly installments of a loan, one array element per installment. Amounts are in paise.
+ *
+ * The arrays are sized for the longest schedule computed into them and reused by the next computation, so
+ * only the first {@link #getInstallments()} elements belong to the current schedule.
+ */
+public class AmortizationSchedule {
+
+    private long principal;
+    private int interestRateBps;
+    private long emi;
+    private int installments;
+    private long[] payment = new long[0];
+    private long[] interest = new long[0];
+    private long[] principalRepaid = new long[0];
+    private long[] balance = new long[0];
+
+    /**
+     * Clears the schedule for {@code installments} installments, growing the arrays when they are too short.
+     */
+    void reset(long principal, int interestRateBps, long emi, int installments) {
+        this.principal = principal;
+        this.interestRateBps = interestRateBps;
+        this.emi = emi;
+        this.installments = installments;
+        if (payment.length < installments) {
+            payment = new long[installments];
+            interest = new long[installments];
+            principalRepaid = new long[installments];
+            balance = new long[installments];
+        }
+    }
+
+    void set(int installment, long payment, long interest, long principalRepaid, long balance) {
+        this.payment[installment] = payment;
+        this.interest[installment] = interest;
+        this.principalRepaid[installment] = principalRepaid;
+        this.balance[installment] = balance;
+    }
+
+    public long getPrincipal() {
+        return principal;
+    }
+
+    public int getInterestRateBps() {
+        return interestRateBps;
+    }
+
+    public long getEmi() {
+        return emi;
+    }
+
+    public int getInstallments() {
+        return installments;
+    }
+
+    public long getPayment(int installment) {
+        return payment[installment];
+    }
+
+    public long getInterest(int installment) {
+        return interest[installment];
+    }
+
+    public long getPrincipalRepaid(int installment) {
+        return principalRepaid[installment];
+    }
+
+    public long getBalance(int installment) {
+        return balance[installment];
+    }
+
+    public long getTotalInterest() {
+        long totalInterest = 0;
+        for (int i = 0; i < installments; i++) {
+            totalInterest += interest[i];
+        }
+        return totalInterest;
+    }
+}
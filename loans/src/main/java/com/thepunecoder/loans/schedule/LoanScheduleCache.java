@@ -0,0 +1,62 @@
+package com.thepunecoder.loans.schedule;
+
+import com.thepunecoder.loans.constants.LoansConstants;
+import com.thepunecoder.loans.entity.Loans;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The most recently used schedules by loan number, at most {@code SCHEDULE_CACHE_SIZE} of them.
+ *
+ * A schedule is only returned for a loan with the principal, amount paid, rate and tenure it was computed from,
+ * so a schedule the service forgot to {@link #evict} is recomputed rather than served stale.
+ */
+@Component
+public class LoanScheduleCache {
+
+    private final Map<String, Entry> schedules = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > LoansConstants.SCHEDULE_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @return the cached schedule of the loan, or null when it has none for the loan as it is now
+     */
+    public AmortizationSchedule get(Loans loans) {
+        Entry entry;
+        synchronized (schedules) {
+            entry = schedules.get(loans.getLoanNumber());
+        }
+        return entry != null && entry.matches(loans) ? entry.schedule() : null;
+    }
+
+    /**
+     * @param schedule - schedule computed from the loan, no longer changed by the caller
+     */
+    public void put(Loans loans, AmortizationSchedule schedule) {
+        Entry entry = new Entry(loans.getTotalLoan(), loans.getAmountPaid(), loans.getInterestRateBps(),
+                loans.getTenureMonths(), schedule);
+        synchronized (schedules) {
+            schedules.put(loans.getLoanNumber(), entry);
+        }
+    }
+
+    public void evict(String loanNumber) {
+        synchronized (schedules) {
+            schedules.remove(loanNumber);
+        }
+    }
+
+    private record Entry(int totalLoan, int amountPaid, int interestRateBps, int tenureMonths,
+                         AmortizationSchedule schedule) {
+
+        private boolean matches(Loans loans) {
+            return totalLoan == loans.getTotalLoan() && amountPaid == loans.getAmountPaid()
+                    && interestRateBps == loans.getInterestRateBps() && tenureMonths == loans.getTenureMonths();
+        }
+    }
+}
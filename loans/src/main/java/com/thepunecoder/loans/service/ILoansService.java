@@ -1,7 +1,14 @@
 package com.thepunecoder.loans.service;
 
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.dto.LoanScheduleDto;
 import com.thepunecoder.loans.dto.LoansDto;
 
+import java.io.InputStream;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+
 public interface ILoansService {
 
     /**
@@ -17,6 +24,29 @@ public interface ILoansService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return the monthly installment schedule of the outstanding amount of the loan of the mobileNumber
+     */
+    LoanScheduleDto fetchLoanSchedule(String mobileNumber);
+
+    /**
+     *
+     * @param from - first origination month included, or null
+     * @param to - last origination month included, or null
+     * @return loan totals by loan type and by origination month
+     */
+    LoanPortfolioDto fetchPortfolio(YearMonth from, YearMonth to);
+
+    /**
+     *
+     * @param csv - CSV file of loans, with a header naming the LoansDto fields
+     * @param listener - receives each rejected row, progress and the outcome of the import
+     * @return the outcome of the import
+     */
+    LoanImportEventDto importLoans(InputStream csv, Consumer<LoanImportEventDto> listener);
+
     /**
      *
      * @param loansDto - LoansDto Object
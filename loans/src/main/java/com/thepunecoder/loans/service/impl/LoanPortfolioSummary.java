@@ -0,0 +1,239 @@
+package com.thepunecoder.loans.service.impl;
+
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.dto.LoanPortfolioTotalsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loan totals by origination month and loan type, kept in the loan_portfolio_month table so that portfolio
+ * queries read one row per month and loan type instead of every loan.
+ *
+ * Whatever creates, changes or deletes loans passes its {@link Changes} to {@link #apply} in the same
+ * transaction, so the totals move with the loans table as changes commit. The rows are written in key order, so
+ * transactions changing several of them wait for each other instead of deadlocking.
+ *
+ * A rebuild by one aggregate over the loans table, inside the database, reconciles the totals with changes made
+ * around the application, such as SQL run by hand. Every {@code portfolio.reconcile-interval} each instance tries
+ * to claim the rebuild in loan_portfolio_refresh, and only one claim per interval succeeds; the rebuild runs on a
+ * background thread, so startup does not wait for it, and commits as a whole, so readers see either the old or
+ * the new totals.
+ */
+@Slf4j
+@Component
+public class LoanPortfolioSummary implements SmartLifecycle {
+
+    private static final String ADD_SQL = """
+            UPDATE loan_portfolio_month
+            SET loans = loans + ?, total_loan = total_loan + ?, amount_paid = amount_paid + ?,
+                outstanding_amount = outstanding_amount + ?
+            WHERE origination_month = ? AND loan_type = ?""";
+    private static final String INSERT_SQL = """
+            INSERT INTO loan_portfolio_month
+                (loans, total_loan, amount_paid, outstanding_amount, origination_month, loan_type)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+    private static final String CLAIM_SQL = """
+            UPDATE loan_portfolio_refresh SET claimed_at = ?
+            WHERE id = 1 AND (claimed_at IS NULL OR claimed_at <= ?)""";
+    private static final String LOCK_SQL = "SELECT id FROM loan_portfolio_refresh WHERE id = 1 FOR UPDATE";
+    private static final String REFRESHED_SQL = "UPDATE loan_portfolio_refresh SET refreshed_at = ? WHERE id = 1";
+    private static final String REFRESHED_AT_SQL = "SELECT refreshed_at FROM loan_portfolio_refresh WHERE id = 1";
+    private static final String DELETE_SQL = "DELETE FROM loan_portfolio_month";
+    private static final String REFRESH_SQL = """
+            INSERT INTO loan_portfolio_month
+                (origination_month, loan_type, loans, total_loan, amount_paid, outstanding_amount)
+            SELECT CAST(DATE_TRUNC('MONTH', created_at) AS DATE), loan_type, COUNT(*),
+                   SUM(CAST(total_loan AS BIGINT)), SUM(CAST(amount_paid AS BIGINT)),
+                   SUM(CAST(outstanding_amount AS BIGINT))
+            FROM loans GROUP BY CAST(DATE_TRUNC('MONTH', created_at) AS DATE), loan_type""";
+    private static final String BY_LOAN_TYPE_SQL = """
+            SELECT loan_type, SUM(loans), SUM(total_loan), SUM(amount_paid), SUM(outstanding_amount)
+            FROM loan_portfolio_month WHERE origination_month BETWEEN ? AND ?
+            GROUP BY loan_type HAVING SUM(loans) <> 0 ORDER BY loan_type""";
+    private static final String BY_ORIGINATION_MONTH_SQL = """
+            SELECT origination_month, SUM(loans), SUM(total_loan), SUM(amount_paid), SUM(outstanding_amount)
+            FROM loan_portfolio_month WHERE origination_month BETWEEN ? AND ?
+            GROUP BY origination_month HAVING SUM(loans) <> 0 ORDER BY origination_month""";
+    private static final LocalDate FIRST_MONTH = LocalDate.of(1, 1, 1);
+    private static final LocalDate LAST_MONTH = LocalDate.of(9999, 12, 1);
+    private static final RowMapper<LoanPortfolioTotalsDto> BY_LOAN_TYPE = (resultSet, rowNum) ->
+            new LoanPortfolioTotalsDto(resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3),
+                    resultSet.getLong(4), resultSet.getLong(5));
+    private static final RowMapper<LoanPortfolioTotalsDto> BY_ORIGINATION_MONTH = (resultSet, rowNum) ->
+            new LoanPortfolioTotalsDto(YearMonth.from(resultSet.getObject(1, LocalDate.class)).toString(),
+                    resultSet.getLong(2), resultSet.getLong(3), resultSet.getLong(4), resultSet.getLong(5));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reconcileInterval;
+    private volatile ScheduledExecutorService scheduler;
+
+    public LoanPortfolioSummary(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                @Value("${portfolio.reconcile-interval:1h}") Duration reconcileInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * @param from - first origination month included, or null for the oldest
+     * @param to - last origination month included, or null for the latest
+     */
+    public LoanPortfolioDto getPortfolio(YearMonth from, YearMonth to) {
+        LocalDate first = from != null ? from.atDay(1) : FIRST_MONTH;
+        LocalDate last = to != null ? to.atDay(1) : LAST_MONTH;
+        // all queries in one transaction, so they read the same totals
+        return transactionTemplate.execute(status -> {
+            LocalDateTime asOf = jdbcTemplate.queryForObject(REFRESHED_AT_SQL, LocalDateTime.class);
+            List<LoanPortfolioTotalsDto> byLoanType = jdbcTemplate.query(BY_LOAN_TYPE_SQL, BY_LOAN_TYPE, first, last);
+            List<LoanPortfolioTotalsDto> byOriginationMonth = jdbcTemplate.query(BY_ORIGINATION_MONTH_SQL,
+                    BY_ORIGINATION_MONTH, first, last);
+            LoanPortfolioTotalsDto total = new LoanPortfolioTotalsDto();
+            for (LoanPortfolioTotalsDto totals : byLoanType) {
+                total.setLoans(total.getLoans() + totals.getLoans());
+                total.setTotalLoan(total.getTotalLoan() + totals.getTotalLoan());
+                total.setAmountPaid(total.getAmountPaid() + totals.getAmountPaid());
+                total.setOutstandingAmount(total.getOutstandingAmount() + totals.getOutstandingAmount());
+            }
+            return new LoanPortfolioDto(from, to, total, byLoanType, byOriginationMonth, asOf);
+        });
+    }
+
+    /**
+     * Adds the changes to the totals, in the caller's transaction.
+     */
+    public void apply(Changes changes) {
+        for (Map.Entry<Key, long[]> entry : changes.totals.entrySet()) {
+            Object[] args = args(entry.getKey(), entry.getValue());
+            if (args != null && jdbcTemplate.update(ADD_SQL, args) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, args);
+                } catch (DuplicateKeyException exception) {
+                    // another transaction added the row first
+                    jdbcTemplate.update(ADD_SQL, args);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the arguments of ADD_SQL and INSERT_SQL, or null when nothing changes
+     */
+    private static Object[] args(Key key, long[] sums) {
+        if (sums[0] == 0 && sums[1] == 0 && sums[2] == 0 && sums[3] == 0) {
+            return null;
+        }
+        return new Object[] {sums[0], sums[1], sums[2], sums[3], key.originationMonth(), key.loanType()};
+    }
+
+    /**
+     * Rebuilds the totals from the loans table, after any rebuild in progress has committed.
+     */
+    public void reconcile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(LOCK_SQL, Integer.class);
+            jdbcTemplate.update(DELETE_SQL);
+            jdbcTemplate.update(REFRESH_SQL);
+            jdbcTemplate.update(REFRESHED_SQL, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Rebuilds the totals when no instance has claimed a rebuild for the last {@code portfolio.reconcile-interval}.
+     *
+     * @return whether this call claimed the rebuild
+     */
+    boolean reconcileIfDue() {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(CLAIM_SQL, now, now.minus(reconcileInterval)) == 0) {
+            return false;
+        }
+        reconcile();
+        return true;
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-portfolio-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = scheduler;
+        scheduler = null;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcileIfDue();
+        } catch (RuntimeException exception) {
+            log.error("Could not reconcile the loan portfolio totals", exception);
+        }
+    }
+
+    /**
+     * Changes to the totals by origination month and loan type, collected to be applied together.
+     */
+    public static final class Changes {
+
+        private final Map<Key, long[]> totals = new TreeMap<>();
+
+        /**
+         * @param createdAt - when the loan was created, which gives its origination month
+         * @param loans - loans added, or removed when negative
+         */
+        public Changes add(LocalDateTime createdAt, String loanType, long loans, long totalLoan, long amountPaid,
+                           long outstandingAmount) {
+            long[] sums = totals.computeIfAbsent(new Key(createdAt.toLocalDate().withDayOfMonth(1), loanType),
+                    key -> new long[4]);
+            sums[0] += loans;
+            sums[1] += totalLoan;
+            sums[2] += amountPaid;
+            sums[3] += outstandingAmount;
+            return this;
+        }
+
+        public void clear() {
+            totals.clear();
+        }
+    }
+
+    private record Key(LocalDate originationMonth, String loanType) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int months = originationMonth.compareTo(other.originationMonth);
+            return months != 0 ? months : loanType.compareTo(other.loanType);
+        }
+    }
+}
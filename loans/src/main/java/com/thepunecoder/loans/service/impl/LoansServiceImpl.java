@@ -1,35 +1,52 @@
 package com.thepunecoder.loans.service.impl;
 
+import com.thepunecoder.loans.bulk.LoanCsvImporter;
 import com.thepunecoder.loans.constants.LoansConstants;
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.dto.LoanScheduleDto;
 import com.thepunecoder.loans.dto.LoansDto;
 import com.thepunecoder.loans.entity.Loans;
 import com.thepunecoder.loans.exception.LoanAlreadyExistsException;
 import com.thepunecoder.loans.exception.ResourceNotFoundException;
+import com.thepunecoder.loans.mapper.LoanScheduleMapper;
 import com.thepunecoder.loans.mapper.LoansMapper;
 import com.thepunecoder.loans.repository.LoansRepository;
+import com.thepunecoder.loans.schedule.AmortizationEngine;
+import com.thepunecoder.loans.schedule.AmortizationSchedule;
+import com.thepunecoder.loans.schedule.LoanScheduleCache;
 import com.thepunecoder.loans.service.ILoansService;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+import java.time.YearMonth;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
 
 @Service
 @AllArgsConstructor
 public class LoansServiceImpl implements ILoansService {
 
     private LoansRepository loansRepository;
+    private LoanScheduleCache loanScheduleCache;
+    private LoanPortfolioSummary loanPortfolioSummary;
+    private LoanCsvImporter loanCsvImporter;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
+    @Transactional
     public void createLoan(String mobileNumber) {
         Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
         if(optionalLoans.isPresent()){
             throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
         }
-        loansRepository.save(createNewLoan(mobileNumber));
+        Loans loans = loansRepository.save(createNewLoan(mobileNumber));
+        loanPortfolioSummary.apply(addTotals(new LoanPortfolioSummary.Changes(), loans, 1));
     }
 
     /**
@@ -45,6 +62,8 @@ public class LoansServiceImpl implements ILoansService {
         newLoan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
         newLoan.setAmountPaid(0);
         newLoan.setOutstandingAmount(LoansConstants.NEW_LOAN_LIMIT);
+        newLoan.setInterestRateBps(LoansConstants.HOME_LOAN_INTEREST_RATE_BPS);
+        newLoan.setTenureMonths(LoansConstants.HOME_LOAN_TENURE_MONTHS);
         return newLoan;
     }
 
@@ -61,17 +80,69 @@ public class LoansServiceImpl implements ILoansService {
         return LoansMapper.mapToLoansDto(loans, new LoansDto());
     }
 
+    /**
+     * Schedules the outstanding amount, the total loan less the amount paid, over the tenure of the loan.
+     * Schedules are cached per loan until the loan changes.
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return the monthly installment schedule of the loan
+     */
+    @Override
+    public LoanScheduleDto fetchLoanSchedule(String mobileNumber) {
+        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
+        );
+        AmortizationSchedule schedule = loanScheduleCache.get(loans);
+        if (schedule == null) {
+            long principal = 100L * Math.max(0, loans.getTotalLoan() - loans.getAmountPaid());
+            schedule = AmortizationEngine.compute(principal, loans.getInterestRateBps(), loans.getTenureMonths(),
+                    new AmortizationSchedule());
+            loanScheduleCache.put(loans, schedule);
+        }
+        return LoanScheduleMapper.mapToLoanScheduleDto(loans.getLoanNumber(), schedule, new LoanScheduleDto());
+    }
+
+    /**
+     * @param from - first origination month included, or null
+     * @param to - last origination month included, or null
+     * @return loan totals by loan type and by origination month, including every committed change to loans
+     */
+    @Override
+    public LoanPortfolioDto fetchPortfolio(YearMonth from, YearMonth to) {
+        return loanPortfolioSummary.getPortfolio(from, to);
+    }
+
+    /**
+     * Streams the file into the loans table in JDBC batches; see {@link LoanCsvImporter}.
+     *
+     * @param csv - CSV file of loans, with a header naming the LoansDto fields
+     * @param listener - receives each rejected row, progress and the outcome of the import
+     * @return the outcome of the import
+     */
+    @Override
+    public LoanImportEventDto importLoans(InputStream csv, Consumer<LoanImportEventDto> listener) {
+        return loanCsvImporter.importLoans(csv, listener);
+    }
+
     /**
      *
      * @param loansDto - LoansDto Object
      * @return boolean indicating if the update of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        int oldTotalLoan = loans.getTotalLoan();
+        int oldAmountPaid = loans.getAmountPaid();
+        LoanPortfolioSummary.Changes changes = addTotals(new LoanPortfolioSummary.Changes(), loans, -1);
         LoansMapper.mapToLoans(loansDto, loans);
         loansRepository.save(loans);
+        loanPortfolioSummary.apply(addTotals(changes, loans, 1));
+        if (loans.getTotalLoan() != oldTotalLoan || loans.getAmountPaid() != oldAmountPaid) {
+            loanScheduleCache.evict(loans.getLoanNumber());
+        }
         return  true;
     }
 
@@ -80,13 +151,25 @@ public class LoansServiceImpl implements ILoansService {
      * @return boolean indicating if the delete of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteLoan(String mobileNumber) {
         Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
         loansRepository.deleteById(loans.getLoanId());
+        loanPortfolioSummary.apply(addTotals(new LoanPortfolioSummary.Changes(), loans, -1));
+        loanScheduleCache.evict(loans.getLoanNumber());
         return true;
     }
 
+    /**
+     * @param sign - 1 to add the loan to the portfolio totals, -1 to take it out
+     */
+    private static LoanPortfolioSummary.Changes addTotals(LoanPortfolioSummary.Changes changes, Loans loans,
+                                                          int sign) {
+        return changes.add(loans.getCreatedAt(), loans.getLoanType(), sign, sign * (long) loans.getTotalLoan(),
+                sign * (long) loans.getAmountPaid(), sign * (long) loans.getOutstandingAmount());
+    }
+
 
 }
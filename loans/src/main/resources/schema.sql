@@ -1,14 +1,55 @@
+-- loan ids are handed out in blocks of 50 (pooled-lo), so inserts through JPA and the bulk import can be batched
+CREATE SEQUENCE IF NOT EXISTS loans_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS `loans` (
-  `loan_id` int NOT NULL AUTO_INCREMENT,
+  `loan_id` bigint NOT NULL DEFAULT NEXT VALUE FOR loans_seq,
   `mobile_number` varchar(15) NOT NULL,
   `loan_number` varchar(100) NOT NULL,
   `loan_type` varchar(100) NOT NULL,
   `total_loan` int NOT NULL,
   `amount_paid` int NOT NULL,
   `outstanding_amount` int NOT NULL,
+  `interest_rate_bps` int NOT NULL DEFAULT 850,
+  `tenure_months` int NOT NULL DEFAULT 360,
+  `accrued_interest` bigint NOT NULL DEFAULT 0,
+  `interest_accrued_on` date DEFAULT NULL,
   `created_at` date NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
   PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS `idx_loans_mobile_number` ON `loans` (`mobile_number`);
+CREATE INDEX IF NOT EXISTS `idx_loans_loan_number` ON `loans` (`loan_number`);
+
+CREATE TABLE IF NOT EXISTS `interest_accrual_checkpoint` (
+  `accrual_date` date NOT NULL,
+  `partition_no` int NOT NULL,
+  `last_loan_id` bigint NOT NULL,
+  `end_loan_id` bigint NOT NULL,
+  `rows_processed` bigint NOT NULL,
+  `completed` boolean NOT NULL,
+  PRIMARY KEY (`accrual_date`, `partition_no`)
+);
+
+CREATE TABLE IF NOT EXISTS `loan_portfolio_month` (
+  `origination_month` date NOT NULL,
+  `loan_type` varchar(100) NOT NULL,
+  `loans` bigint NOT NULL,
+  `total_loan` bigint NOT NULL,
+  `amount_paid` bigint NOT NULL,
+  `outstanding_amount` bigint NOT NULL,
+  PRIMARY KEY (`origination_month`, `loan_type`)
+);
+
+-- one row: when an instance last claimed the rebuild of loan_portfolio_month, and when a rebuild last committed
+CREATE TABLE IF NOT EXISTS `loan_portfolio_refresh` (
+  `id` int NOT NULL,
+  `claimed_at` timestamp DEFAULT NULL,
+  `refreshed_at` timestamp DEFAULT NULL,
+  PRIMARY KEY (`id`)
+);
+
+INSERT INTO `loan_portfolio_refresh` (`id`)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `loan_portfolio_refresh` WHERE `id` = 1);
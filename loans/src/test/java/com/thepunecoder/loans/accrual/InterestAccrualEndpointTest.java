@@ -0,0 +1,50 @@
+package com.thepunecoder.loans.accrual;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starting interest accrual runs through {@code /actuator/interestaccrual}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "interest-accrual.enabled=true"})
+class InterestAccrualEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void futureAccrualDateIsRefused() throws Exception {
+        HttpResponse<String> response = start("{\"accrualDate\":\"" + LocalDate.now().plusDays(1) + "\"}");
+
+        assertEquals(400, response.statusCode(), response.body());
+        assertTrue(send(HttpRequest.newBuilder(endpoint()).GET().build()).body().contains("\"IDLE\""));
+    }
+
+    private HttpResponse<String> start(String body) throws Exception {
+        return send(HttpRequest.newBuilder(endpoint())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI endpoint() {
+        return URI.create("http://localhost:" + port + "/actuator/interestaccrual");
+    }
+}
@@ -0,0 +1,145 @@
+package com.thepunecoder.loans.accrual;
+
+import com.thepunecoder.loans.dto.InterestAccrualConfigDto;
+import com.thepunecoder.loans.dto.InterestAccrualProgressDto;
+import com.thepunecoder.loans.service.impl.LoanPortfolioSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Accrues interest on a seeded loans table and checks every loan against the expected interest, after a run
+ * that was stopped and resumed and after missed nights.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "interest-accrual.enabled=true"})
+class InterestAccrualJobTest {
+
+    private static final int LOANS = 20_000;
+    private static final long MOBILE_BASE = 9_300_000_000L;
+    private static final LocalDate ACCRUAL_DATE = LocalDate.now();
+    // interest on a loan accrued once, for `days` days, in paise rounded half up
+    private static final String MISACCRUED_SQL = """
+            SELECT COUNT(*) FROM loans WHERE created_by = 'ACCRUAL_TEST' AND (accrued_interest <>
+                (CAST(total_loan - amount_paid AS BIGINT) * 100 * interest_rate_bps * ? + 1825000) / 3650000
+              OR outstanding_amount <> total_loan - amount_paid + accrued_interest / 100)""";
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private InterestAccrualConfigDto interestAccrualConfigDto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private LoanPortfolioSummary loanPortfolioSummary;
+
+    @BeforeEach
+    void seedLoans() {
+        jdbcTemplate.update("""
+                INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, outstanding_amount,
+                                   interest_rate_bps, tenure_months, created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR), 'Home Loan', 100000, MOD(X, 50000),
+                       100000 - MOD(X, 50000), 700 + MOD(X, 500), 360, CURRENT_DATE, 'ACCRUAL_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, 300_000_000_000L, LOANS);
+        loanPortfolioSummary.reconcile();
+    }
+
+    @AfterEach
+    void removeLoans() {
+        jdbcTemplate.update("DELETE FROM loans WHERE created_by = 'ACCRUAL_TEST'");
+        jdbcTemplate.update("DELETE FROM interest_accrual_checkpoint");
+        loanPortfolioSummary.reconcile();
+    }
+
+    @Test
+    void stoppedRunResumesAndAccruesEveryLoanOnce() throws Exception {
+        InterestAccrualJob crashing = new InterestAccrualJob(
+                new InterestAccrualConfigDto(true, interestAccrualConfigDto.cron(), 4, 2, 500),
+                jdbcTemplate, transactionTemplate, auditorAware, loanPortfolioSummary);
+        CompletableFuture<InterestAccrualProgressDto> stopped = CompletableFuture.supplyAsync(
+                () -> crashing.run(ACCRUAL_DATE));
+        while (crashing.progress().getRowsProcessed() < LOANS / 3) {
+            Thread.sleep(1);
+        }
+        crashing.stop();
+        InterestAccrualProgressDto partial = stopped.get();
+        assertEquals("STOPPED", partial.getStatus());
+        assertTrue(partial.getRowsProcessed() < LOANS, partial.toString());
+
+        // a new instance picks up the checkpoints, and the partitions, of the stopped run
+        InterestAccrualProgressDto resumed = interestAccrualJob.run(ACCRUAL_DATE);
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(4, resumed.getPartitions());
+        assertEquals(LOANS, resumed.getRowsProcessed());
+        assertEquals(0, misaccrued(1));
+
+        // running the same date again changes nothing
+        assertEquals(LOANS, interestAccrualJob.run(ACCRUAL_DATE).getRowsProcessed());
+        assertEquals(0, misaccrued(1));
+        // the portfolio totals took in each outstanding amount exactly once
+        assertEquals(
+                jdbcTemplate.queryForObject("SELECT SUM(CAST(outstanding_amount AS BIGINT)) FROM loans", Long.class),
+                jdbcTemplate.queryForObject("SELECT SUM(outstanding_amount) FROM loan_portfolio_month", Long.class));
+    }
+
+    @Test
+    void missedNightsAreCaughtUp() {
+        jdbcTemplate.update("UPDATE loans SET interest_accrued_on = ? WHERE created_by = 'ACCRUAL_TEST'",
+                ACCRUAL_DATE.minusDays(3));
+
+        InterestAccrualProgressDto progress = interestAccrualJob.run(ACCRUAL_DATE);
+
+        assertEquals("COMPLETED", progress.getStatus());
+        assertEquals(0, misaccrued(3));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans "
+                + "WHERE created_by = 'ACCRUAL_TEST' AND interest_accrued_on <> ?", Integer.class, ACCRUAL_DATE));
+    }
+
+    @Test
+    void futureAccrualDatesAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> interestAccrualJob.run(ACCRUAL_DATE.plusDays(1)));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans "
+                + "WHERE created_by = 'ACCRUAL_TEST' AND interest_accrued_on IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    void loanWhoseOutstandingAmountOverflowsIsSkippedAlone() {
+        long overflowing = jdbcTemplate.queryForObject(
+                "SELECT MIN(loan_id) FROM loans WHERE created_by = 'ACCRUAL_TEST'", Long.class);
+        jdbcTemplate.update("UPDATE loans SET accrued_interest = ? WHERE loan_id = ?",
+                100L * Integer.MAX_VALUE, overflowing);
+
+        InterestAccrualProgressDto progress = interestAccrualJob.run(ACCRUAL_DATE);
+
+        assertEquals("COMPLETED", progress.getStatus());
+        assertEquals(LOANS - 1, progress.getRowsProcessed());
+        assertEquals(1, misaccrued(1));
+        assertNull(jdbcTemplate.queryForObject("SELECT interest_accrued_on FROM loans WHERE loan_id = ?",
+                LocalDate.class, overflowing));
+    }
+
+    private int misaccrued(int days) {
+        return jdbcTemplate.queryForObject(MISACCRUED_SQL, Integer.class, days);
+    }
+}
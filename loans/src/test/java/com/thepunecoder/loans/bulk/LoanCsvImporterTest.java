@@ -0,0 +1,221 @@
+package com.thepunecoder.loans.bulk;
+
+import com.thepunecoder.loans.constants.LoansConstants;
+import com.thepunecoder.loans.dto.LoanImportEventDto;
+import com.thepunecoder.loans.service.ILoansService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports CSV files of loans and checks the rows that are rejected and why, and a generated file that spans
+ * several batches.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+class LoanCsvImporterTest {
+
+    // a few full batches and a partial one
+    private static final int ROWS = 5 * LoansConstants.IMPORT_BATCH_SIZE + 7;
+    private static final long MOBILE_BASE = 9_400_000_000L;
+    private static final long LOAN_NUMBER_BASE = 400_000_000_000L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @AfterEach
+    void removeLoans() {
+        jdbcTemplate.update("DELETE FROM loans WHERE mobile_number BETWEEN '9400000000' AND '9499999999'");
+    }
+
+    @Test
+    void parserReadsQuotedFieldsAndLineEnds() throws Exception {
+        LoanCsvParser parser = new LoanCsvParser(new ByteArrayInputStream(
+                "a,\"b,\"\"c\"\"\",\r\n\n\"two\nlines\", 42 \nlast".getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(parser.nextRecord());
+        assertEquals(1, parser.getLine());
+        assertEquals(3, parser.getFieldCount());
+        assertEquals("a", parser.getString(0));
+        assertEquals("b,\"c\"", parser.getString(1));
+        assertEquals("", parser.getString(2));
+
+        assertTrue(parser.nextRecord());
+        assertEquals(3, parser.getLine());
+        assertEquals("two\nlines", parser.getString(0));
+        assertEquals(42, parser.getInt(1));
+        assertEquals(Long.MIN_VALUE, parser.getInt(0));
+
+        assertTrue(parser.nextRecord());
+        assertEquals(5, parser.getLine());
+        assertEquals("last", parser.getString(0));
+        assertFalse(parser.nextRecord());
+    }
+
+    @Test
+    void rejectedRowsAreReportedByLineAndField() {
+        iLoansService.createLoan("9400000009");
+        String csv = """
+                loan_type,Mobile_Number,loan_number,total_loan,amount_paid,outstanding_amount,branch
+                Home Loan,9400000001,400000000001,100000,0,100000,Pune
+                Car Loan,94000,400000000002,100000,0,100000,Pune
+                Car Loan,9400000003,400000000003,-5,0,100000,Pune
+                Car Loan,9400000004,400000000004,lots,0,100000,Pune
+                Car Loan,9400000001,400000000005,100000,0,100000,Pune
+                Car Loan,9400000006,400000000001,100000,0,100000,Pune
+                Car Loan,9400000009,400000000009,100000,0,100000,Pune
+                "Gold Loan, secured",9400000007,400000000007,50000,1000,49000
+                Car Loan,9400000008
+                """;
+        List<LoanImportEventDto> events = new ArrayList<>();
+
+        LoanImportEventDto outcome = iLoansService.importLoans(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), events::add);
+
+        assertEquals(LoanImportEventDto.COMPLETED, outcome.getType());
+        assertEquals(9, outcome.getRowsRead());
+        assertEquals(2, outcome.getRowsImported());
+        assertEquals(7, outcome.getRowsRejected());
+        assertEquals(List.of(
+                        "3 mobileNumber Mobile Number must be 10 digits",
+                        "4 totalLoan Total loan amount should be greater than zero",
+                        "5 totalLoan Field must be a whole number",
+                        "10 loanNumber Field is missing",
+                        "6 mobileNumber Loan already registered with given mobileNumber 9400000001",
+                        "7 loanNumber Loan already registered with given loanNumber 400000000001",
+                        "8 mobileNumber Loan already registered with given mobileNumber 9400000009"),
+                events.stream().filter(event -> LoanImportEventDto.ERROR.equals(event.getType()))
+                        .map(event -> event.getLine() + " " + event.getField() + " " + event.getMessage()).toList());
+        assertEquals(outcome, events.get(events.size() - 1));
+        assertEquals("Gold Loan, secured", iLoansService.fetchLoan("9400000007").getLoanType());
+        assertEquals(49000, iLoansService.fetchLoan("9400000007").getOutstandingAmount());
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsFailsTheImport() {
+        List<LoanImportEventDto> events = new ArrayList<>();
+
+        LoanImportEventDto outcome = iLoansService.importLoans(new ByteArrayInputStream(
+                "mobileNumber,loanNumber\n9400000001,400000000001\n".getBytes(StandardCharsets.UTF_8)), events::add);
+
+        assertEquals(LoanImportEventDto.FAILED, outcome.getType());
+        assertEquals(0, outcome.getRowsRead());
+        assertEquals(5, events.size());
+        assertEquals("loanType", events.get(0).getField());
+    }
+
+    @Test
+    void generatedFileIsImportedInBatches() {
+        int[] progress = new int[1];
+        LoanImportEventDto outcome = iLoansService.importLoans(new GeneratedCsv(ROWS), event -> {
+            if (LoanImportEventDto.PROGRESS.equals(event.getType())) {
+                progress[0]++;
+            }
+        });
+
+        assertEquals(LoanImportEventDto.COMPLETED, outcome.getType());
+        assertEquals(ROWS, outcome.getRowsImported());
+        assertEquals(ROWS / LoansConstants.IMPORT_PROGRESS_INTERVAL, progress[0]);
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans "
+                + "WHERE mobile_number BETWEEN '9400000000' AND '9499999999'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) - COUNT(DISTINCT loan_id) FROM loans",
+                Integer.class));
+    }
+
+    @Test
+    void reportIsStreamedOverHttp() throws Exception {
+        String csv = "mobileNumber,loanNumber,loanType,totalLoan,amountPaid,outstandingAmount\n"
+                + "9400000001,400000000001,Home Loan,100000,0,100000\n"
+                + "9400000002,4000,Home Loan,100000,0,100000\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/import"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv))
+                .build();
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElseThrow());
+        String[] lines = response.body().split("\n");
+        assertEquals(2, lines.length, response.body());
+        LoanImportEventDto error = jsonMapper.readValue(lines[0], LoanImportEventDto.class);
+        assertEquals(3, error.getLine());
+        assertEquals("loanNumber", error.getField());
+        assertEquals("LoanNumber must be 12 digits", error.getMessage());
+        assertFalse(lines[0].contains("rowsRead"), lines[0]);
+        LoanImportEventDto outcome = jsonMapper.readValue(lines[1], LoanImportEventDto.class);
+        assertEquals(LoanImportEventDto.COMPLETED, outcome.getType());
+        assertEquals(1, outcome.getRowsImported());
+        assertEquals(1, outcome.getRowsRejected());
+    }
+
+    /**
+     * A CSV file of valid loans, written row by row as it is read.
+     */
+    private static final class GeneratedCsv extends InputStream {
+
+        private final int rows;
+        private int row = -1;
+        private byte[] line = "mobileNumber,loanNumber,loanType,totalLoan,amountPaid,outstandingAmount\n"
+                .getBytes(StandardCharsets.US_ASCII);
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length) {
+                if (position == line.length) {
+                    if (row + 1 == rows) {
+                        break;
+                    }
+                    row++;
+                    line = ((MOBILE_BASE + row) + "," + (LOAN_NUMBER_BASE + row) + ","
+                            + (row % 3 == 0 ? "Car Loan" : "Home Loan") + ",100000," + row % 1000 + ","
+                            + (100000 - row % 1000) + "\n").getBytes(StandardCharsets.US_ASCII);
+                    position = 0;
+                }
+                int count = Math.min(length - read, line.length - position);
+                System.arraycopy(line, position, buffer, offset + read, count);
+                position += count;
+                read += count;
+            }
+            return read == 0 && length > 0 ? -1 : read;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.thepunecoder.loans.idempotency;
+
+import com.thepunecoder.loans.dto.IdempotencyConfigDto;
+import com.thepunecoder.loans.exception.IdempotencyKeyReusedException;
+import com.thepunecoder.loans.exception.IdempotentRequestInProgressException;
+import com.thepunecoder.loans.repository.LoansRepository;
+import com.thepunecoder.loans.service.ILoansService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Repeated loan creates and updates over HTTP with and without an Idempotency-Key, and the scoping, expiry, bound
+ * and coalescing of the store itself.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+class IdempotentRequestStoreTest {
+
+    private static final String MOBILE_NUMBER = "9100000024";
+    private static final String OTHER_MOBILE_NUMBER = "9100000025";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private LoansRepository loansRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @AfterEach
+    void deleteLoans() {
+        for (String mobileNumber : new String[]{MOBILE_NUMBER, OTHER_MOBILE_NUMBER}) {
+            if (loansRepository.findByMobileNumber(mobileNumber).isPresent()) {
+                iLoansService.deleteLoan(mobileNumber);
+            }
+        }
+    }
+
+    @Test
+    void retriedCreateGetsTheFirstResponse() throws Exception {
+        HttpResponse<String> first = send(create(MOBILE_NUMBER, "create-1"));
+        HttpResponse<String> retry = send(create(MOBILE_NUMBER, "create-1"));
+        assertEquals(201, first.statusCode());
+        assertEquals(201, retry.statusCode());
+        assertEquals(first.body(), retry.body());
+        assertFalse(first.headers().firstValue("Idempotent-Replayed").isPresent());
+        assertEquals("true", retry.headers().firstValue("Idempotent-Replayed").orElseThrow());
+
+        // keys are scoped by mobile number, so the same key for another one is a request of its own
+        HttpResponse<String> other = send(create(OTHER_MOBILE_NUMBER, "create-1"));
+        assertEquals(201, other.statusCode());
+        assertFalse(other.headers().firstValue("Idempotent-Replayed").isPresent());
+        assertEquals(400, send(create(MOBILE_NUMBER, "create-2")).statusCode());
+        assertEquals(400, send(create(MOBILE_NUMBER, null)).statusCode());
+    }
+
+    @Test
+    void retriedUpdateIsAppliedOnce() throws Exception {
+        iLoansService.createLoan(MOBILE_NUMBER);
+        String loanNumber = iLoansService.fetchLoan(MOBILE_NUMBER).getLoanNumber();
+        String body = """
+                {"mobileNumber":"%s","loanNumber":"%s","loanType":"Home Loan","totalLoan":100000,
+                 "amountPaid":%d,"outstandingAmount":%d}""";
+
+        assertEquals(200, send(update(body.formatted(MOBILE_NUMBER, loanNumber, 1000, 99000), "update-1")).statusCode());
+        // another update in between must not be undone by the retry
+        assertEquals(200, send(update(body.formatted(MOBILE_NUMBER, loanNumber, 2000, 98000), "update-2")).statusCode());
+        HttpResponse<String> retry = send(update(body.formatted(MOBILE_NUMBER, loanNumber, 1000, 99000), "update-1"));
+
+        assertEquals(200, retry.statusCode());
+        assertEquals("true", retry.headers().firstValue("Idempotent-Replayed").orElseThrow());
+        assertEquals(2000, iLoansService.fetchLoan(MOBILE_NUMBER).getAmountPaid());
+    }
+
+    @Test
+    void concurrentRepeatsWaitForTheFirstRequest() throws Exception {
+        IdempotentRequestStore store = new IdempotentRequestStore(config(Duration.ofHours(1), 10));
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("key", "9100000024", "create", "9100000024", () -> {
+                    processed.incrementAndGet();
+                    processing.countDown();
+                    await(release);
+                    return ResponseEntity.status(201).body("created");
+                }));
+        processing.await();
+        CompletableFuture<ResponseEntity<String>> repeat = CompletableFuture.supplyAsync(() ->
+                store.execute("key", "9100000024", "create", "9100000024", () -> {
+                    processed.incrementAndGet();
+                    return ResponseEntity.status(201).body("created again");
+                }));
+        Thread.sleep(50);
+        assertFalse(repeat.isDone());
+        release.countDown();
+
+        assertEquals("created", first.get().getBody());
+        assertEquals("created", repeat.get().getBody());
+        assertEquals(1, processed.get());
+    }
+
+    @Test
+    void repeatsOfARequestStillInFlightGetAConflict() throws Exception {
+        IdempotentRequestStore store = new IdempotentRequestStore(
+                new IdempotencyConfigDto(true, Duration.ofHours(1), 10, Duration.ofMillis(50)));
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("key", "9100000024", "create", "9100000024", () -> {
+                    processing.countDown();
+                    await(release);
+                    return ResponseEntity.status(201).body("created");
+                }));
+        processing.await();
+        assertThrows(IdempotentRequestInProgressException.class, () -> store.execute("key", "9100000024", "create",
+                "9100000024", () -> ResponseEntity.status(201).body("created again")));
+        release.countDown();
+
+        // the repeat that timed out leaves the first response to later repeats
+        assertEquals("created", first.get().getBody());
+        assertEquals("created", store.execute("key", "9100000024", "create", "9100000024",
+                () -> ResponseEntity.status(201).body("created again")).getBody());
+    }
+
+    @Test
+    void failedRequestsAreNotKept() {
+        IdempotentRequestStore store = new IdempotentRequestStore(config(Duration.ofHours(1), 10));
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "9100000024", "create", "a", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        assertEquals(0, store.size());
+        assertEquals("created", store.execute("key", "9100000024", "create", "a", () -> ResponseEntity.ok("created")).getBody());
+    }
+
+    @Test
+    void responsesExpireAndStayWithinTheBound() {
+        AtomicLong now = new AtomicLong();
+        IdempotentRequestStore store = new IdempotentRequestStore(
+                config(Duration.ofSeconds(10), 100), now::get);
+        AtomicInteger processed = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            store.execute("key-" + i, "client", "create", "a", () -> ResponseEntity.ok(processed.incrementAndGet()));
+            assertTrue(store.size() <= 100);
+        }
+        // the newest keys are kept, the oldest were dropped
+        store.execute("key-999", "client", "create", "a", () -> ResponseEntity.ok(processed.incrementAndGet()));
+        store.execute("key-0", "client", "create", "a", () -> ResponseEntity.ok(processed.incrementAndGet()));
+        assertEquals(1001, processed.get());
+
+        // keys are scoped by operation and by client
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-999", "client", "create", "b", () -> ResponseEntity.ok(0)));
+        store.execute("key-999", "client", "update", "b", () -> ResponseEntity.ok(processed.incrementAndGet()));
+        store.execute("key-999", "other client", "create", "b", () -> ResponseEntity.ok(processed.incrementAndGet()));
+        assertEquals(1003, processed.get());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        store.execute("key-999", "client", "create", "b", () -> ResponseEntity.ok(processed.incrementAndGet()));
+        assertEquals(1004, processed.get());
+        assertEquals(1, store.size());
+    }
+
+    private HttpRequest create(String mobileNumber, String idempotencyKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/create?mobileNumber=" + mobileNumber))
+                .POST(HttpRequest.BodyPublishers.noBody());
+        return idempotencyKey == null ? builder.build() : builder.header("Idempotency-Key", idempotencyKey).build();
+    }
+
+    private HttpRequest update(String body, String idempotencyKey) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/update"))
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static IdempotencyConfigDto config(Duration ttl, int maxKeys) {
+        return new IdempotencyConfigDto(true, ttl, maxKeys, Duration.ofSeconds(10));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.thepunecoder.loans.schedule;
+
+import com.thepunecoder.loans.dto.LoanScheduleDto;
+import com.thepunecoder.loans.dto.LoansDto;
+import com.thepunecoder.loans.entity.Loans;
+import com.thepunecoder.loans.service.ILoansService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks computed schedules against the EMI formula, and that the service recomputes a schedule once the loan
+ * has been repaid further.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AmortizationEngineTest {
+
+    private static final String MOBILE_NUMBER = "9100000021";
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Test
+    void scheduleRepaysThePrincipalInEqualInstallments() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(100_000_00, 850, 360, new AmortizationSchedule());
+
+        assertEquals(768_91, schedule.getEmi());
+        assertEquals(360, schedule.getInstallments());
+        long principalRepaid = 0;
+        long interest = 0;
+        for (int i = 0; i < 360; i++) {
+            if (i < 359) {
+                assertEquals(schedule.getEmi(), schedule.getPayment(i));
+            }
+            assertEquals(schedule.getPayment(i), schedule.getInterest(i) + schedule.getPrincipalRepaid(i));
+            principalRepaid += schedule.getPrincipalRepaid(i);
+            interest += schedule.getInterest(i);
+        }
+        assertEquals(100_000_00, principalRepaid);
+        assertEquals(interest, schedule.getTotalInterest());
+        assertEquals(0, schedule.getBalance(359));
+        // rounding the installment to the paisa compounds over 30 years; the last one absorbs it
+        assertTrue(Math.abs(schedule.getPayment(359) - schedule.getEmi()) < schedule.getEmi() / 100);
+    }
+
+    @Test
+    void interestFreeLoanIsSplitEvenly() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(1_000, 0, 3, new AmortizationSchedule());
+
+        assertEquals(334, schedule.getEmi());
+        assertEquals(0, schedule.getTotalInterest());
+        assertEquals(332, schedule.getPayment(2));
+        assertEquals(0, schedule.getBalance(2));
+    }
+
+    @Test
+    void reusedScheduleOnlyExposesTheLatestComputation() {
+        AmortizationSchedule schedule = AmortizationEngine.compute(100_000_00, 850, 360, new AmortizationSchedule());
+        AmortizationEngine.compute(12_000_00, 1200, 12, schedule);
+
+        assertEquals(12, schedule.getInstallments());
+        assertEquals(0, schedule.getBalance(11));
+        assertEquals(1200, schedule.getInterestRateBps());
+    }
+
+    @Test
+    void updatingTheAmountPaidReplacesTheCachedSchedule() {
+        iLoansService.createLoan(MOBILE_NUMBER);
+        try {
+            LoanScheduleDto first = iLoansService.fetchLoanSchedule(MOBILE_NUMBER);
+            assertEquals(360, first.getTenureMonths());
+            assertEquals(768.91, first.getEmi());
+            assertArrayEquals(first.getBalance(), iLoansService.fetchLoanSchedule(MOBILE_NUMBER).getBalance());
+
+            LoansDto loansDto = iLoansService.fetchLoan(MOBILE_NUMBER);
+            loansDto.setAmountPaid(50_000);
+            loansDto.setOutstandingAmount(50_000);
+            iLoansService.updateLoan(loansDto);
+
+            LoanScheduleDto second = iLoansService.fetchLoanSchedule(MOBILE_NUMBER);
+            assertEquals(50_000, second.getPrincipal());
+            assertNotEquals(first.getEmi(), second.getEmi());
+            assertEquals(0, second.getBalance()[359]);
+        } finally {
+            iLoansService.deleteLoan(MOBILE_NUMBER);
+        }
+    }
+
+    @Test
+    void cachedScheduleIsReturnedForAnUnchangedLoan() {
+        LoanScheduleCache cache = new LoanScheduleCache();
+        Loans loans = new Loans();
+        loans.setLoanNumber("100000000021");
+        loans.setTotalLoan(1_000);
+        loans.setInterestRateBps(850);
+        loans.setTenureMonths(12);
+        AmortizationSchedule schedule = AmortizationEngine.compute(1_000_00, 850, 12, new AmortizationSchedule());
+        cache.put(loans, schedule);
+
+        assertSame(schedule, cache.get(loans));
+        loans.setAmountPaid(100);
+        assertNull(cache.get(loans));
+        cache.evict(loans.getLoanNumber());
+    }
+}
@@ -0,0 +1,158 @@
+package com.thepunecoder.loans.service.impl;
+
+import com.thepunecoder.loans.dto.LoanPortfolioDto;
+import com.thepunecoder.loans.dto.LoanPortfolioTotalsDto;
+import com.thepunecoder.loans.dto.LoansDto;
+import com.thepunecoder.loans.service.ILoansService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks portfolio totals against aggregates over the loans table, for loans spread over 120 origination months
+ * and three loan types, and as loans are created, updated, imported and deleted.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoanPortfolioSummaryTest {
+
+    private static final int LOANS = 7_300;
+    private static final long MOBILE_BASE = 9_500_000_000L;
+    private static final YearMonth FROM = YearMonth.of(2021, 3);
+    private static final YearMonth TO = YearMonth.of(2022, 2);
+    private static final String BY_LOAN_TYPE_SQL = """
+            SELECT loan_type, COUNT(*), SUM(CAST(total_loan AS BIGINT)), SUM(CAST(amount_paid AS BIGINT)),
+                   SUM(CAST(outstanding_amount AS BIGINT))
+            FROM loans WHERE created_at >= ? AND created_at < ? GROUP BY loan_type ORDER BY loan_type""";
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private LoanPortfolioSummary loanPortfolioSummary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedLoans() {
+        jdbcTemplate.update("""
+                INSERT INTO loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, outstanding_amount,
+                                   created_at, created_by)
+                SELECT CAST(? + X AS VARCHAR), CAST(? + X AS VARCHAR),
+                       CASEWHEN(MOD(X, 3) = 0, 'Home Loan', CASEWHEN(MOD(X, 3) = 1, 'Car Loan', 'Personal Loan')),
+                       100000, MOD(X, 50000), 100000 - MOD(X, 50000),
+                       DATEADD('DAY', MOD(X, 3650), DATE '2016-01-01'), 'PORTFOLIO_TEST'
+                FROM SYSTEM_RANGE(1, ?)""", MOBILE_BASE, 500_000_000_000L, LOANS);
+        loanPortfolioSummary.reconcile();
+    }
+
+    @AfterAll
+    void removeLoans() {
+        jdbcTemplate.update("DELETE FROM loans WHERE created_by = 'PORTFOLIO_TEST'");
+        loanPortfolioSummary.reconcile();
+    }
+
+    @Test
+    void totalsMatchAggregatesOverTheLoansTable() {
+        LoanPortfolioDto portfolio = iLoansService.fetchPortfolio(FROM, TO);
+
+        List<LoanPortfolioTotalsDto> expected = jdbcTemplate.query(BY_LOAN_TYPE_SQL, (resultSet, rowNum) ->
+                new LoanPortfolioTotalsDto(resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3),
+                        resultSet.getLong(4), resultSet.getLong(5)), FROM.atDay(1), TO.plusMonths(1).atDay(1));
+        assertEquals(expected, portfolio.getByLoanType());
+        assertEquals(12, portfolio.getByOriginationMonth().size());
+        assertEquals(FROM.toString(), portfolio.getByOriginationMonth().get(0).getGroup());
+        assertEquals(TO.toString(), portfolio.getByOriginationMonth().get(11).getGroup());
+        long loans = expected.stream().mapToLong(LoanPortfolioTotalsDto::getLoans).sum();
+        assertEquals(loans, portfolio.getTotal().getLoans());
+        assertEquals(loans, portfolio.getByOriginationMonth().stream().mapToLong(LoanPortfolioTotalsDto::getLoans).sum());
+        assertEquals(expected.stream().mapToLong(LoanPortfolioTotalsDto::getOutstandingAmount).sum(),
+                portfolio.getTotal().getOutstandingAmount());
+    }
+
+    @Test
+    void unfilteredTotalsCoverEveryLoan() {
+        LoanPortfolioDto portfolio = iLoansService.fetchPortfolio(null, null);
+
+        assertTotalsCoverEveryLoan(portfolio);
+        assertTrue(portfolio.getByOriginationMonth().size() >= 120);
+        assertTrue(portfolio.getRefreshedAt() != null);
+    }
+
+    @Test
+    void changesToLoansShowUpWithoutARebuild() {
+        String mobileNumber = "9499999901";
+        iLoansService.createLoan(mobileNumber);
+        assertTotalsCoverEveryLoan(iLoansService.fetchPortfolio(null, null));
+
+        LoansDto loansDto = iLoansService.fetchLoan(mobileNumber);
+        loansDto.setLoanType("Car Loan");
+        loansDto.setAmountPaid(25_000);
+        loansDto.setOutstandingAmount(loansDto.getTotalLoan() - 25_000);
+        iLoansService.updateLoan(loansDto);
+        assertTotalsCoverEveryLoan(iLoansService.fetchPortfolio(null, null));
+
+        String csv = """
+                mobileNumber,loanNumber,loanType,totalLoan,amountPaid,outstandingAmount
+                9499999902,949999990002,Home Loan,200000,1000,199000
+                9499999903,949999990003,Personal Loan,50000,0,50000
+                """;
+        iLoansService.importLoans(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), event -> { });
+        assertTotalsCoverEveryLoan(iLoansService.fetchPortfolio(null, null));
+
+        for (String loan : List.of(mobileNumber, "9499999902", "9499999903")) {
+            iLoansService.deleteLoan(loan);
+        }
+        assertTotalsCoverEveryLoan(iLoansService.fetchPortfolio(null, null));
+    }
+
+    @Test
+    void onlyOneOfConcurrentClaimsRebuilds() {
+        jdbcTemplate.update("UPDATE loan_portfolio_refresh SET claimed_at = NULL");
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(loanPortfolioSummary::reconcileIfDue);
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(loanPortfolioSummary::reconcileIfDue);
+        assertTrue(first.join() ^ second.join());
+        assertFalse(loanPortfolioSummary.reconcileIfDue());
+        assertTotalsCoverEveryLoan(iLoansService.fetchPortfolio(null, null));
+    }
+
+    private void assertTotalsCoverEveryLoan(LoanPortfolioDto portfolio) {
+        List<LoanPortfolioTotalsDto> expected = jdbcTemplate.query("""
+                SELECT loan_type, COUNT(*), SUM(CAST(total_loan AS BIGINT)), SUM(CAST(amount_paid AS BIGINT)),
+                       SUM(CAST(outstanding_amount AS BIGINT))
+                FROM loans GROUP BY loan_type ORDER BY loan_type""", (resultSet, rowNum) ->
+                new LoanPortfolioTotalsDto(resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3),
+                        resultSet.getLong(4), resultSet.getLong(5)));
+        assertEquals(expected, portfolio.getByLoanType());
+        Map<String, Object> total = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS loans, SUM(CAST(outstanding_amount AS BIGINT)) AS outstanding FROM loans");
+        assertEquals(((Number) total.get("loans")).longValue(), portfolio.getTotal().getLoans());
+        assertEquals(((Number) total.get("outstanding")).longValue(), portfolio.getTotal().getOutstandingAmount());
+    }
+
+    @Test
+    void portfolioReadsSummaryRowsInsteadOfLoans() {
+        String plan = jdbcTemplate.queryForObject("""
+                EXPLAIN SELECT loan_type, SUM(loans) FROM loan_portfolio_month
+                WHERE origination_month BETWEEN DATE '2021-03-01' AND DATE '2022-02-01' GROUP BY loan_type""",
+                String.class);
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+    }
+}